@@ -0,0 +1,32 @@
+package com.retry.budget.annotation;
+
+import com.retry.budget.enums.RetryPriority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries the annotated method against the retry budget of the given service. Each attempt is
+ * timed and recorded, and every retry is checked and consumed through the BudgetEnforcementAgent.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryBudgeted {
+    
+    String service();
+    
+    int maxRetries() default 3;
+    
+    RetryPriority priority() default RetryPriority.NORMAL;
+    
+    /**
+     * Floor for the base backoff; the service's median latency is used when it is higher
+     */
+    long backoffMs() default 50;
+    
+    Class<? extends Throwable>[] retryOn() default {Exception.class};
+}
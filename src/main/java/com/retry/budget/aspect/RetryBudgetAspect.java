@@ -0,0 +1,90 @@
+package com.retry.budget.aspect;
+
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.retry.LatencyBackoff;
+import com.retry.budget.service.BudgetEnforcementAgent;
+import com.retry.budget.service.LocalMetricsAggregator;
+import com.retry.budget.service.MetricsAggregator;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * Wraps {@link com.retry.budget.annotation.RetryBudgeted} methods in a budget-aware retry loop.
+ * The success path only records into the local aggregator; the budget is consulted on failure.
+ * Backoff comes from the same {@link LatencyBackoff} as the Spring Retry policies, with the
+ * annotation's {@code backoffMs} as a floor on the latency-derived base delay.
+ */
+@Slf4j
+@Aspect
+public class RetryBudgetAspect {
+
+    private final RetryBudgetedMethodRegistry methodRegistry;
+    private final BudgetEnforcementAgent budgetEnforcementAgent;
+    private final MetricsAggregator metricsAggregator;
+    private final LocalMetricsAggregator localMetricsAggregator;
+    private final LatencyBackoff latencyBackoff;
+
+    public RetryBudgetAspect(RetryBudgetedMethodRegistry methodRegistry,
+                             BudgetEnforcementAgent budgetEnforcementAgent,
+                             MetricsAggregator metricsAggregator,
+                             LocalMetricsAggregator localMetricsAggregator,
+                             LatencyBackoff latencyBackoff) {
+        this.methodRegistry = methodRegistry;
+        this.budgetEnforcementAgent = budgetEnforcementAgent;
+        this.metricsAggregator = metricsAggregator;
+        this.localMetricsAggregator = localMetricsAggregator;
+        this.latencyBackoff = latencyBackoff;
+    }
+
+    @Around("@annotation(com.retry.budget.annotation.RetryBudgeted)")
+    public Object retryWithinBudget(ProceedingJoinPoint joinPoint) throws Throwable {
+        RetryBudgetedMethod metadata = methodRegistry.get(
+            ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget());
+        if (metadata == null) {
+            log.warn("No @RetryBudgeted found for {}, calling it without retries", joinPoint.getSignature());
+            return joinPoint.proceed();
+        }
+        String serviceName = metadata.serviceName();
+        long baseDelayMs = -1;
+
+        for (int retry = 0; ; retry++) {
+            long start = System.nanoTime();
+            try {
+                Object result = joinPoint.proceed();
+                localMetricsAggregator.record(serviceName, elapsedMs(start), true);
+                return result;
+            } catch (Throwable ex) {
+                // Non-retryable failures are recorded as client errors so they never shrink the budget
+                boolean retryable = metadata.isRetryable(ex);
+                localMetricsAggregator.record(serviceName, elapsedMs(start),
+                    retryable ? RequestOutcome.fromThrowable(ex) : RequestOutcome.CLIENT_ERROR);
+
+                if (retry >= metadata.maxRetries() || !retryable) {
+                    throw ex;
+                }
+
+                RetryDecision decision = budgetEnforcementAgent.reserveRetry(serviceName, metadata.priority());
+                if (decision == RetryDecision.DENY) {
+                    log.warn("Retry denied for {} - budget exceeded", serviceName);
+                    throw ex;
+                }
+
+                metricsAggregator.recordRetry(serviceName);
+
+                // Latency stats are only fetched on the first retry, as in LatencyAwareBackOffPolicy
+                if (baseDelayMs < 0) {
+                    baseDelayMs = latencyBackoff.baseDelayMs(serviceName, metadata.backoffMs());
+                }
+                Thread.sleep(latencyBackoff.delayMs(baseDelayMs, retry, decision == RetryDecision.DEFER));
+            }
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
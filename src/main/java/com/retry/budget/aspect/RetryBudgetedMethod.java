@@ -0,0 +1,36 @@
+package com.retry.budget.aspect;
+
+import com.retry.budget.annotation.RetryBudgeted;
+import com.retry.budget.enums.RetryPriority;
+
+/**
+ * Attributes of a {@link RetryBudgeted} method, resolved once so the aspect never reads
+ * annotations on the invocation path.
+ */
+public record RetryBudgetedMethod(
+    String serviceName,
+    int maxRetries,
+    RetryPriority priority,
+    long backoffMs,
+    Class<? extends Throwable>[] retryOn
+) {
+
+    public static RetryBudgetedMethod from(RetryBudgeted annotation) {
+        return new RetryBudgetedMethod(
+            annotation.service(),
+            annotation.maxRetries(),
+            annotation.priority(),
+            annotation.backoffMs(),
+            annotation.retryOn()
+        );
+    }
+
+    public boolean isRetryable(Throwable throwable) {
+        for (Class<? extends Throwable> type : retryOn) {
+            if (type.isInstance(throwable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
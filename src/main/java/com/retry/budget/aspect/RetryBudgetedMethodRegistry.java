@@ -0,0 +1,62 @@
+package com.retry.budget.aspect;
+
+import com.retry.budget.annotation.RetryBudgeted;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link RetryBudgeted} metadata for every bean as it is created, so the aspect only
+ * does a map lookup per call.
+ */
+public class RetryBudgetedMethodRegistry implements BeanPostProcessor {
+
+    private final Map<Method, RetryBudgetedMethod> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        Class<?> targetClass = ClassUtils.getUserClass(bean);
+
+        MethodIntrospector.selectMethods(targetClass, (MethodIntrospector.MetadataLookup<RetryBudgeted>) method ->
+                AnnotatedElementUtils.findMergedAnnotation(method, RetryBudgeted.class))
+            .forEach((method, annotation) -> methods.put(method, RetryBudgetedMethod.from(annotation)));
+
+        return bean;
+    }
+
+    /**
+     * Metadata for the invoked method, or null when no {@link RetryBudgeted} can be found on it,
+     * its target-class implementation or the method it bridges to
+     */
+    public RetryBudgetedMethod get(Method method, Object target) {
+        RetryBudgetedMethod metadata = methods.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        // Methods reached through an interface signature or a bridge are resolved once and then cached
+        RetryBudgeted annotation = find(method, target);
+        if (annotation == null) {
+            return null;
+        }
+        return methods.computeIfAbsent(method, m -> RetryBudgetedMethod.from(annotation));
+    }
+
+    private static RetryBudgeted find(Method method, Object target) {
+        Method specific = target == null ? method : AopUtils.getMostSpecificMethod(method, ClassUtils.getUserClass(target));
+        for (Method candidate : new Method[] {specific, BridgeMethodResolver.findBridgedMethod(specific), method}) {
+            RetryBudgeted annotation = AnnotatedElementUtils.findMergedAnnotation(candidate, RetryBudgeted.class);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,29 @@
 package com.retry.budget.config;
 
+import com.retry.budget.aspect.RetryBudgetAspect;
+import com.retry.budget.aspect.RetryBudgetedMethodRegistry;
+import com.retry.budget.retry.LatencyBackoff;
+import com.retry.budget.service.BudgetEnforcementAgent;
+import com.retry.budget.service.LocalMetricsAggregator;
+import com.retry.budget.service.MetricsAggregator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
 public class AspectConfig {
     
+    @Bean
+    public static RetryBudgetedMethodRegistry retryBudgetedMethodRegistry() {
+        return new RetryBudgetedMethodRegistry();
+    }
+    
+    @Bean
+    public RetryBudgetAspect retryBudgetAspect(RetryBudgetedMethodRegistry retryBudgetedMethodRegistry,
+                                               BudgetEnforcementAgent budgetEnforcementAgent,
+                                               MetricsAggregator metricsAggregator,
+                                               LocalMetricsAggregator localMetricsAggregator,
+                                               LatencyBackoff latencyBackoff) {
+        return new RetryBudgetAspect(retryBudgetedMethodRegistry, budgetEnforcementAgent,
+                metricsAggregator, localMetricsAggregator, latencyBackoff);
+    }
 }
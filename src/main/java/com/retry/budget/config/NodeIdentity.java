@@ -0,0 +1,34 @@
+package com.retry.budget.config;
+
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Stable identifier of this instance within the fleet, used to scope per-node state in shared storage
+ */
+@Component
+public class NodeIdentity {
+    
+    private final String nodeId;
+    
+    public NodeIdentity(RetryBudgetConfig config) {
+        String configured = config.getCluster().getNodeId();
+        this.nodeId = configured == null || configured.isBlank() ? defaultNodeId() : configured;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
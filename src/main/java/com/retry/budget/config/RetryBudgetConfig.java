@@ -1,9 +1,22 @@
 package com.retry.budget.config;
 
+import com.retry.budget.enums.FailurePolicy;
+import com.retry.budget.enums.LimitAlgorithm;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.enums.StorageBackend;
+import com.retry.budget.model.BackendProfile;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "retry.budget")
@@ -12,8 +25,30 @@ public class RetryBudgetConfig {
     private int baseBudget = 5;
     private int evaluationWindowSeconds = 60;
     private int updateIntervalSeconds = 10;
+    private long localFlushIntervalMs = 1000;
     private LatencyThresholds latencyThresholds = new LatencyThresholds();
     private ErrorRateThresholds errorRateThresholds = new ErrorRateThresholds();
+    private Hedging hedging = new Hedging();
+    private Concurrency concurrency = new Concurrency();
+    private Ceiling ceiling = new Ceiling();
+    private Priority priority = new Priority();
+    private Backoff backoff = new Backoff();
+    private DemoClient demoClient = new DemoClient();
+    private Degraded degraded = new Degraded();
+    private Storage storage = new Storage();
+    private Snapshot snapshot = new Snapshot();
+    private History history = new History();
+    private Cluster cluster = new Cluster();
+    private Recompute recompute = new Recompute();
+    private Forecast forecast = new Forecast();
+    private Outcomes outcomes = new Outcomes();
+    private Hierarchy hierarchy = new Hierarchy();
+    private Registry registry = new Registry();
+    private Eviction eviction = new Eviction();
+    private Ingest ingest = new Ingest();
+    private Check check = new Check();
+    private Capture capture = new Capture();
+    private Map<String, BackendProfile> demoBackends = new LinkedHashMap<>();
     
     @Data
     public static class LatencyThresholds {
@@ -27,4 +62,200 @@ public class RetryBudgetConfig {
         private double warningPercent = 5.0;
         private double criticalPercent = 10.0;
     }
-}
\ No newline at end of file
+    
+    @Data
+    public static class Hedging {
+        private double delayPercentile = 95.0;
+        private double maxHedgePercent = 10.0;
+        private long minDelayMs = 10;
+    }
+    
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private LimitAlgorithm algorithm = LimitAlgorithm.GRADIENT;
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private double rttTolerance = 1.5;
+        private int vegasAlpha = 3;
+        private int vegasBeta = 6;
+        private int minRttResetSamples = 1000;
+    }
+    
+    @Data
+    public static class Ceiling {
+        private boolean enabled = true;
+        private int globalRetriesPerWindow = 500;
+        private int windowSeconds = 10;
+        private double fairShareEnforceAbovePercent = 50.0;
+        private Map<String, Double> serviceWeights = new HashMap<>();
+        private Map<String, CeilingGroup> groups = new HashMap<>();
+    }
+    
+    @Data
+    public static class CeilingGroup {
+        private int retriesPerWindow = 100;
+        private List<String> services = new ArrayList<>();
+    }
+    
+    /**
+     * Priority reserves are opt-in: until enabled every class may draw the whole budget, so
+     * untagged callers keep the behaviour they had before priorities existed
+     */
+    @Data
+    public static class Priority {
+        private RetryPriority defaultPriority = RetryPriority.NORMAL;
+        private boolean reserveEnabled = false;
+        private Map<RetryPriority, Double> reservedFractions = new EnumMap<>(Map.of(
+                RetryPriority.CRITICAL, 0.3,
+                RetryPriority.HIGH, 0.2,
+                RetryPriority.NORMAL, 0.1,
+                RetryPriority.BEST_EFFORT, 0.0));
+    }
+    
+    /**
+     * Share of a failure of each kind counted towards the error rate; non-retryable outcomes
+     * always count as zero
+     */
+    @Data
+    public static class Outcomes {
+        private Map<RequestOutcome, Double> errorWeights = new EnumMap<>(Map.of(
+                RequestOutcome.TIMEOUT, 1.0,
+                RequestOutcome.CONNECTION_REFUSED, 1.0,
+                RequestOutcome.SERVER_ERROR, 1.0,
+                RequestOutcome.THROTTLED, 0.5));
+    }
+    
+    @Data
+    public static class Backoff {
+        private long minMs = 50;
+        private long maxMs = 2000;
+        private double multiplier = 2.0;
+    }
+    
+    @Data
+    public static class DemoClient {
+        private String baseUrl = "http://localhost:8080";
+        private int maxInFlightPerService = 256;
+        private int decisionThreads = 4;
+        private int httpThreads = 2;
+        private long requestTimeoutMs = 5000;
+        private double loadRatePerSecond = 20;
+        private int loadConcurrency = 64;
+        private double maxLoadRatePerSecond = 5000;
+        private int maxLoadDurationSeconds = 600;
+        private long loadDrainTimeoutMs = 30000;
+    }
+    
+    @Data
+    public static class Degraded {
+        private boolean enabled = true;
+        private long callTimeoutMs = 100;
+        private int failureThreshold = 5;
+        private long openDurationMs = 5000;
+        private long probeIntervalMs = 1000;
+        private FailurePolicy failurePolicy = FailurePolicy.FAIL_OPEN;
+        private int maxQueuedWrites = 10000;
+        private boolean faultInjectionEnabled = false;
+    }
+    
+    @Data
+    public static class Storage {
+        private StorageBackend backend = StorageBackend.REDIS;
+    }
+    
+    @Data
+    public static class Snapshot {
+        private boolean enabled = true;
+        private String path = "data/retry-budget.snapshot";
+        private long intervalMs = 10000;
+        private long maxAgeSeconds = 600;
+    }
+    
+    @Data
+    public static class History {
+        private boolean enabled = true;
+        private int oneSecondSlots = 300;
+        private int tenSecondSlots = 360;
+        private int oneMinuteSlots = 1440;
+        private int maxServices = 1000;
+    }
+    
+    @Data
+    public static class Cluster {
+        private String nodeId = "";
+        private long sketchPublishIntervalMs = 5000;
+        private long sketchStaleAfterMs = 15000;
+        private boolean ownershipEnabled = true;
+        private long heartbeatIntervalMs = 2000;
+        private long memberTtlMs = 6000;
+        private int virtualNodes = 64;
+    }
+    
+    @Data
+    public static class Recompute {
+        private boolean enabled = true;
+        private long debounceMs = 50;
+    }
+    
+    @Data
+    public static class Forecast {
+        private boolean enabled = true;
+        private int horizonSeconds = 10;
+        private long sampleIntervalMs = 1000;
+        private double levelSmoothing = 0.5;
+        private double trendSmoothing = 0.3;
+        private int minSamples = 3;
+    }
+    
+    @Data
+    public static class Hierarchy {
+        private int maxTrackedKeys = 10000;
+        private int promoteAfterRequests = 20;
+        private int maxChildrenPerParent = 100;
+        private double poolBudgetFactor = 4.0;
+    }
+    
+    @Data
+    public static class Registry {
+        private int maxServices = 20000;
+        private int maxOverflow = 10000;
+    }
+    
+    @Data
+    public static class Eviction {
+        private boolean enabled = true;
+        private long idleTimeoutSeconds = 600;
+        private int maxTrackedServices = 10000;
+        private long sweepIntervalMs = 30000;
+    }
+    
+    @Data
+    public static class Ingest {
+        private boolean enabled = false;
+        private String bindAddress = "0.0.0.0";
+        private int udpPort = 9125;
+        private int tcpPort = 9126;
+        private int receiveBufferBytes = 4 * 1024 * 1024;
+        private int maxDatagramBytes = 65507;
+        private int maxLineBytes = 1024;
+        private int maxNames = 4096;
+    }
+    
+    @Data
+    public static class Check {
+        private long snapshotMaxAgeMs = 50;
+    }
+    
+    @Data
+    public static class Capture {
+        private boolean enabled = false;
+        private String directory = "data/capture";
+        private int segmentBytes = 64 * 1024 * 1024;
+        private int maxSegments = 16;
+        private int queueCapacity = 65536;
+        private long syncIntervalMs = 1000;
+    }
+}
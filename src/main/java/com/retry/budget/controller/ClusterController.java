@@ -0,0 +1,47 @@
+package com.retry.budget.controller;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.service.ServiceOwnership;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+    
+    private final ServiceOwnership serviceOwnership;
+    private final NodeIdentity nodeIdentity;
+    private final RetryBudgetConfig config;
+    
+    public ClusterController(ServiceOwnership serviceOwnership,
+                             NodeIdentity nodeIdentity,
+                             RetryBudgetConfig config) {
+        this.serviceOwnership = serviceOwnership;
+        this.nodeIdentity = nodeIdentity;
+        this.config = config;
+    }
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getCluster() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("nodeId", nodeIdentity.getNodeId());
+        response.put("members", serviceOwnership.getMembers());
+        response.put("ownershipEnabled", config.getCluster().isOwnershipEnabled());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/owner/{serviceName}")
+    public ResponseEntity<Map<String, Object>> getOwner(@PathVariable String serviceName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("serviceName", serviceName);
+        response.put("owner", serviceOwnership.ownerOf(serviceName));
+        response.put("local", serviceOwnership.isOwner(serviceName));
+        
+        return ResponseEntity.ok(response);
+    }
+}
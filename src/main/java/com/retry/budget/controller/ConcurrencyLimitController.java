@@ -0,0 +1,49 @@
+package com.retry.budget.controller;
+
+import com.retry.budget.enums.AdmissionDecision;
+import com.retry.budget.model.ConcurrencyLimit;
+import com.retry.budget.service.ConcurrencyLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/concurrency")
+public class ConcurrencyLimitController {
+    
+    private final ConcurrencyLimiter concurrencyLimiter;
+    
+    public ConcurrencyLimitController(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+    
+    @GetMapping("/{serviceName}")
+    public ResponseEntity<ConcurrencyLimit> getLimit(@PathVariable String serviceName) {
+        return ResponseEntity.ok(concurrencyLimiter.getLimit(serviceName));
+    }
+    
+    @PostMapping("/acquire/{serviceName}")
+    public ResponseEntity<Map<String, Object>> acquire(@PathVariable String serviceName) {
+        AdmissionDecision decision = concurrencyLimiter.tryAcquire(serviceName);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("serviceName", serviceName);
+        response.put("decision", decision);
+        response.put("admitted", decision == AdmissionDecision.ADMIT);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/release/{serviceName}")
+    public ResponseEntity<Map<String, String>> release(@PathVariable String serviceName) {
+        concurrencyLimiter.release(serviceName);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Concurrency slot released for service: " + serviceName);
+        response.put("serviceName", serviceName);
+        
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,61 @@
+package com.retry.budget.controller;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.repository.RedisCircuitBreaker;
+import com.retry.budget.repository.RedisFaultInjector;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/degraded")
+public class DegradedModeController {
+
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisFaultInjector faultInjector;
+    private final RetryBudgetConfig config;
+
+    public DegradedModeController(RedisCircuitBreaker circuitBreaker,
+                                  RedisFaultInjector faultInjector,
+                                  RetryBudgetConfig config) {
+        this.circuitBreaker = circuitBreaker;
+        this.faultInjector = faultInjector;
+        this.config = config;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("state", circuitBreaker.getState());
+        response.put("degraded", circuitBreaker.isOpen());
+        response.put("failurePolicy", config.getDegraded().getFailurePolicy());
+        response.put("queuedWrites", circuitBreaker.getQueuedWrites());
+        response.put("faults", faultInjector.getFaults());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/faults")
+    public ResponseEntity<Map<String, Object>> injectFaults(
+            @RequestParam(defaultValue = "false") boolean down,
+            @RequestParam(defaultValue = "0") long latencyMs,
+            @RequestParam(defaultValue = "0") double failureRate) {
+
+        if (!config.getDegraded().isFaultInjectionEnabled()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Fault injection is disabled (retry.budget.degraded.fault-injection-enabled)");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        faultInjector.configure(down, latencyMs, failureRate);
+        return ResponseEntity.ok(faultInjector.getFaults());
+    }
+
+    @DeleteMapping("/faults")
+    public ResponseEntity<Map<String, Object>> clearFaults() {
+        faultInjector.clear();
+        return ResponseEntity.ok(faultInjector.getFaults());
+    }
+}
@@ -1,15 +1,17 @@
 package com.retry.budget.controller;
 
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.LoadTestReport;
 import com.retry.budget.model.RetryBudget;
 import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.service.BackendProfileService;
 import com.retry.budget.service.BudgetEnforcementAgent;
 import com.retry.budget.service.DemoClientService;
+import com.retry.budget.service.LoadGeneratorService;
 import com.retry.budget.service.MetricsAggregator;
 import com.retry.budget.service.RetryBudgetControllerService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -20,28 +22,42 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 @RestController
 @RequestMapping("/api/demo")
-@RequiredArgsConstructor
 public class DemoController {
 
     private final DemoClientService demoClientService;
     private final RetryBudgetControllerService retryBudgetService;
     private final MetricsAggregator metricsAggregator;
     private final BudgetEnforcementAgent budgetEnforcementAgent;
+    private final LoadGeneratorService loadGeneratorService;
+    private final BackendProfileService backendProfileService;
+    private final RetryBudgetConfig.DemoClient settings;
+
+    public DemoController(DemoClientService demoClientService,
+                          RetryBudgetControllerService retryBudgetService,
+                          MetricsAggregator metricsAggregator,
+                          BudgetEnforcementAgent budgetEnforcementAgent,
+                          LoadGeneratorService loadGeneratorService,
+                          BackendProfileService backendProfileService,
+                          RetryBudgetConfig config) {
+        this.demoClientService = demoClientService;
+        this.retryBudgetService = retryBudgetService;
+        this.metricsAggregator = metricsAggregator;
+        this.budgetEnforcementAgent = budgetEnforcementAgent;
+        this.loadGeneratorService = loadGeneratorService;
+        this.backendProfileService = backendProfileService;
+        this.settings = config.getDemoClient();
+    }
 
     /**
      * Trigger a request to a specific service
      */
     @PostMapping("/trigger/{serviceName}")
     public ResponseEntity<DemoClientService.RequestResult> triggerRequest(@PathVariable String serviceName) {
-        String endpoint = switch (serviceName) {
-            case "healthy-service" -> "/api/demo/healthy-service";
-            case "degraded-service" -> "/api/demo/degraded-service";
-            case "critical-service" -> "/api/demo/critical-service";
-            case "intermittent-service" -> "/api/demo/intermittent-service";
-            default -> throw new IllegalArgumentException("Unknown service: " + serviceName);
-        };
-
-        DemoClientService.RequestResult result = demoClientService.makeRequest(serviceName, endpoint);
+        if (!backendProfileService.contains(serviceName)) {
+            throw new IllegalArgumentException("Unknown service: " + serviceName);
+        }
+
+        DemoClientService.RequestResult result = demoClientService.makeRequest(serviceName, "/api/demo/backend/" + serviceName);
         return ResponseEntity.ok(result);
     }
 
@@ -49,47 +65,41 @@ public class DemoController {
      * Trigger multiple requests to all services
      */
     @PostMapping("/trigger-all")
-    @Async
     public CompletableFuture<Map<String, DemoClientService.RequestResult>> triggerAllServices() {
-        Map<String, DemoClientService.RequestResult> results = new HashMap<>();
+        Map<String, CompletableFuture<DemoClientService.RequestResult>> pending = new HashMap<>();
 
         String[] services = {"healthy-service", "degraded-service", "critical-service", "intermittent-service"};
 
         for (String service : services) {
-            String endpoint = "/api/demo/" + service;
-            DemoClientService.RequestResult result = demoClientService.makeRequest(service, endpoint);
-            results.put(service, result);
+            String endpoint = "/api/demo/backend/" + service;
+            pending.put(service, demoClientService.makeRequestAsync(service, endpoint));
         }
 
-        return CompletableFuture.completedFuture(results);
+        return CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                Map<String, DemoClientService.RequestResult> results = new HashMap<>();
+                pending.forEach((service, result) -> results.put(service, result.join()));
+                return results;
+            });
     }
 
     /**
-     * Start continuous load testing
+     * Run an open-loop load test against the demo services and report once every request finished
      */
     @PostMapping("/start-load")
-    @Async
-    public CompletableFuture<String> startLoad(@RequestParam(defaultValue = "10") int durationSeconds) {
-        log.info("Starting load test for {} seconds", durationSeconds);
-
-        long endTime = System.currentTimeMillis() + (durationSeconds * 1000L);
-        String[] services = {"healthy-service", "degraded-service", "critical-service", "intermittent-service"};
-
-        while (System.currentTimeMillis() < endTime) {
-            for (String service : services) {
-                String endpoint = "/api/demo/" + service;
-                demoClientService.makeRequest(service, endpoint);
-
-                try {
-                    Thread.sleep(500); // 500ms between requests
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return CompletableFuture.completedFuture("Load test interrupted");
-                }
-            }
-        }
-
-        return CompletableFuture.completedFuture("Load test completed");
+    public CompletableFuture<LoadTestReport> startLoad(
+            @RequestParam(defaultValue = "10") int durationSeconds,
+            @RequestParam(required = false) Double ratePerSecond,
+            @RequestParam(required = false) Integer concurrency,
+            @RequestParam(required = false) List<String> services) {
+        List<String> targets = services == null || services.isEmpty()
+            ? List.of("healthy-service", "degraded-service", "critical-service", "intermittent-service")
+            : services;
+
+        return loadGeneratorService.run(targets,
+            ratePerSecond != null ? ratePerSecond : settings.getLoadRatePerSecond(),
+            concurrency != null ? concurrency : settings.getLoadConcurrency(),
+            durationSeconds);
     }
 
     /**
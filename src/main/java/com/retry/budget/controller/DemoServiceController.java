@@ -1,182 +1,121 @@
 package com.retry.budget.controller;
 
+import com.retry.budget.model.BackendProfile;
+import com.retry.budget.service.BackendProfileService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/demo")
 public class DemoServiceController {
 
-    private final Random random = new Random();
-    private final AtomicInteger healthyCallCount = new AtomicInteger(0);
-    private final AtomicInteger degradedCallCount = new AtomicInteger(0);
-    private final AtomicInteger criticalCallCount = new AtomicInteger(0);
+    private final BackendProfileService backendProfileService;
 
-    /**
-     * Healthy Service - Low latency (50-150ms), 95% success rate
-     */
-    @GetMapping("/healthy-service")
-    public ServiceResponse healthyService() throws InterruptedException {
-        int callNumber = healthyCallCount.incrementAndGet();
-        log.info("Healthy service called - Call #{}", callNumber);
-
-        // Simulate low latency
-        int latency = 50 + random.nextInt(100);
-        Thread.sleep(latency);
-
-        // 95% success rate
-        boolean success = random.nextDouble() < 0.95;
-
-        if (!success) {
-            log.warn("Healthy service failed - Call #{}", callNumber);
-            throw new RuntimeException("Random failure in healthy service");
-        }
-
-        return new ServiceResponse(
-            "healthy-service",
-            "SUCCESS",
-            latency,
-            callNumber,
-            "Service is healthy"
-        );
+    public DemoServiceController(BackendProfileService backendProfileService) {
+        this.backendProfileService = backendProfileService;
     }
 
     /**
-     * Degraded Service - Medium latency (200-400ms), 80% success rate
+     * Simulated backend call; latency and failures follow the backend's profile
      */
-    @GetMapping("/degraded-service")
-    public ServiceResponse degradedService() throws InterruptedException {
-        int callNumber = degradedCallCount.incrementAndGet();
-        log.info("Degraded service called - Call #{}", callNumber);
-
-        // Simulate medium latency
-        int latency = 200 + random.nextInt(200);
-        Thread.sleep(latency);
+    @GetMapping("/backend/{name}")
+    public ResponseEntity<ServiceResponse> backend(@PathVariable String name) throws InterruptedException {
+        BackendProfileService.Behavior behavior = backendProfileService.next(name);
+        if (behavior == null) {
+            return ResponseEntity.notFound().build();
+        }
 
-        // 80% success rate
-        boolean success = random.nextDouble() < 0.80;
+        if (behavior.latencyMs() > 0) {
+            Thread.sleep(behavior.latencyMs());
+        }
 
-        if (!success) {
-            log.warn("Degraded service failed - Call #{}", callNumber);
-            throw new RuntimeException("Service is degraded - random failure");
+        String phase = behavior.phase() != null ? " (" + behavior.phase() + ")" : "";
+        if (behavior.failed()) {
+            log.debug("{} failed - Call #{}{}", name, behavior.callNumber(), phase);
+            return ResponseEntity.status(behavior.status()).body(new ServiceResponse(
+                name, "FAILURE", behavior.latencyMs(), behavior.callNumber(), "Simulated failure" + phase));
         }
 
-        return new ServiceResponse(
-            "degraded-service",
-            "SUCCESS",
-            latency,
-            callNumber,
-            "Service is degraded but operational"
-        );
+        return ResponseEntity.ok(new ServiceResponse(
+            name, "SUCCESS", behavior.latencyMs(), behavior.callNumber(), "Simulated success" + phase));
     }
 
-    /**
-     * Critical Service - High latency (500-1000ms), 50% success rate
-     */
-    @GetMapping("/critical-service")
-    public ServiceResponse criticalService() throws InterruptedException {
-        int callNumber = criticalCallCount.incrementAndGet();
-        log.info("Critical service called - Call #{}", callNumber);
+    @GetMapping("/healthy-service")
+    public ResponseEntity<ServiceResponse> healthyService() throws InterruptedException {
+        return backend("healthy-service");
+    }
 
-        // Simulate high latency
-        int latency = 500 + random.nextInt(500);
-        Thread.sleep(latency);
+    @GetMapping("/degraded-service")
+    public ResponseEntity<ServiceResponse> degradedService() throws InterruptedException {
+        return backend("degraded-service");
+    }
 
-        // 50% success rate
-        boolean success = random.nextDouble() < 0.50;
+    @GetMapping("/critical-service")
+    public ResponseEntity<ServiceResponse> criticalService() throws InterruptedException {
+        return backend("critical-service");
+    }
 
-        if (!success) {
-            log.warn("Critical service failed - Call #{}", callNumber);
-            throw new RuntimeException("Service is in critical state");
-        }
+    @GetMapping("/intermittent-service")
+    public ResponseEntity<ServiceResponse> intermittentService() throws InterruptedException {
+        return backend("intermittent-service");
+    }
 
-        return new ServiceResponse(
-            "critical-service",
-            "SUCCESS",
-            latency,
-            callNumber,
-            "Service is critical - high failure rate"
-        );
+    @GetMapping("/profiles")
+    public ResponseEntity<Map<String, BackendProfile>> getProfiles() {
+        return ResponseEntity.ok(backendProfileService.getProfiles());
     }
 
     /**
-     * Intermittent Service - Randomly switches between healthy and unhealthy states
+     * Register or replace a simulated backend; its phase script restarts
      */
-    @GetMapping("/intermittent-service")
-    public ServiceResponse intermittentService() throws InterruptedException {
-        int callNumber = random.nextInt(1000);
-        log.info("Intermittent service called - Call #{}", callNumber);
-
-        // Every 10 seconds, switch behavior
-        boolean isHealthy = (System.currentTimeMillis() / 10000) % 2 == 0;
-
-        if (isHealthy) {
-            int latency = 50 + random.nextInt(100);
-            Thread.sleep(latency);
-            return new ServiceResponse(
-                "intermittent-service",
-                "SUCCESS",
-                latency,
-                callNumber,
-                "Service is currently healthy"
-            );
-        } else {
-            int latency = 500 + random.nextInt(500);
-            Thread.sleep(latency);
-
-            if (random.nextDouble() < 0.60) {
-                throw new RuntimeException("Service is currently unhealthy");
-            }
-
-            return new ServiceResponse(
-                "intermittent-service",
-                "SUCCESS",
-                latency,
-                callNumber,
-                "Service is currently unhealthy but succeeded"
-            );
+    @PutMapping("/profiles/{name}")
+    public ResponseEntity<?> registerProfile(@PathVariable String name,
+                                             @RequestBody BackendProfile profile) {
+        profile.setName(name);
+        try {
+            return ResponseEntity.ok(backendProfileService.register(profile));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         }
     }
 
+    @DeleteMapping("/profiles/{name}")
+    public ResponseEntity<Void> removeProfile(@PathVariable String name) {
+        return backendProfileService.remove(name)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
     /**
      * Reset call counters
      */
     @PostMapping("/reset-counters")
     public void resetCounters() {
-        healthyCallCount.set(0);
-        degradedCallCount.set(0);
-        criticalCallCount.set(0);
+        backendProfileService.resetCounters();
         log.info("All service counters reset");
     }
 
     /**
-     * Get service statistics
+     * Calls per backend since the last reset
      */
     @GetMapping("/stats")
-    public ServiceStats getStats() {
-        return new ServiceStats(
-            healthyCallCount.get(),
-            degradedCallCount.get(),
-            criticalCallCount.get()
-        );
+    public Map<String, Long> getStats() {
+        return backendProfileService.getCallCounts();
     }
 
     // Response DTOs
     public record ServiceResponse(
         String serviceName,
         String status,
-        int latencyMs,
-        int callNumber,
+        long latencyMs,
+        long callNumber,
         String message
     ) {}
-
-    public record ServiceStats(
-        int healthyCalls,
-        int degradedCalls,
-        int criticalCalls
-    ) {}
 }
@@ -1,13 +1,23 @@
 package com.retry.budget.controller;
 
+import com.retry.budget.enums.HistoryResolution;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.model.FleetMetrics;
+import com.retry.budget.model.HealthSample;
 import com.retry.budget.model.LatencyStats;
 import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.service.FleetMetricsService;
 import com.retry.budget.service.LatencyAnalyzer;
 import com.retry.budget.service.MetricsAggregator;
+import com.retry.budget.service.MetricsHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,11 +26,17 @@ public class MetricsController {
     
     private final MetricsAggregator metricsAggregator;
     private final LatencyAnalyzer latencyAnalyzer;
+    private final MetricsHistoryService metricsHistoryService;
+    private final FleetMetricsService fleetMetricsService;
     
     public MetricsController(MetricsAggregator metricsAggregator,
-                            LatencyAnalyzer latencyAnalyzer) {
+                            LatencyAnalyzer latencyAnalyzer,
+                            MetricsHistoryService metricsHistoryService,
+                            FleetMetricsService fleetMetricsService) {
         this.metricsAggregator = metricsAggregator;
         this.latencyAnalyzer = latencyAnalyzer;
+        this.metricsHistoryService = metricsHistoryService;
+        this.fleetMetricsService = fleetMetricsService;
     }
     
     @GetMapping("/{serviceName}")
@@ -33,13 +49,23 @@ public class MetricsController {
     public ResponseEntity<Map<String, String>> recordRequest(
             @RequestParam String serviceName,
             @RequestParam long latencyMs,
-            @RequestParam boolean success) {
-        
-        metricsAggregator.recordRequest(serviceName, latencyMs, success);
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(required = false) RequestOutcome outcome,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String tenant) {
         
         Map<String, String> response = new HashMap<>();
+        if (success == null && outcome == null) {
+            response.put("error", "Either success or outcome is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        RequestOutcome recorded = outcome != null ? outcome : RequestOutcome.fromSuccess(success);
+        metricsAggregator.recordRequest(serviceName, endpoint, tenant, latencyMs, recorded);
+        
         response.put("message", "Request recorded successfully");
         response.put("serviceName", serviceName);
+        response.put("outcome", recorded.name());
         
         return ResponseEntity.ok(response);
     }
@@ -60,6 +86,42 @@ public class MetricsController {
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/{serviceName}/history")
+    public ResponseEntity<Map<String, Object>> getHistory(
+            @PathVariable String serviceName,
+            @RequestParam(defaultValue = "10s") String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        HistoryResolution historyResolution;
+        try {
+            historyResolution = HistoryResolution.fromLabel(resolution);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        long toMs = to == null ? System.currentTimeMillis() : to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long fromMs = from == null
+                ? toMs - metricsHistoryService.getRetentionMs(historyResolution)
+                : from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        
+        List<HealthSample> points = metricsHistoryService.getHistory(serviceName, historyResolution, fromMs, toMs);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("serviceName", serviceName);
+        response.put("resolution", historyResolution.getLabel());
+        response.put("points", points);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{serviceName}/fleet")
+    public ResponseEntity<FleetMetrics> getFleetMetrics(@PathVariable String serviceName) {
+        return ResponseEntity.ok(fleetMetricsService.refresh(serviceName));
+    }
+    
     @DeleteMapping("/{serviceName}")
     public ResponseEntity<Map<String, String>> resetMetrics(@PathVariable String serviceName) {
         metricsAggregator.resetMetrics(serviceName);
@@ -1,9 +1,18 @@
 package com.retry.budget.controller;
 
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.dto.RetryBudgetResponse;
 import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.model.HedgeBudget;
 import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.RetryCheck;
+import com.retry.budget.service.BudgetCheckService;
 import com.retry.budget.service.BudgetEnforcementAgent;
+import com.retry.budget.service.GlobalRetryCeiling;
 import com.retry.budget.service.RetryBudgetControllerService;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,11 +25,20 @@ public class RetryBudgetController {
     
     private final RetryBudgetControllerService budgetControllerService;
     private final BudgetEnforcementAgent enforcementAgent;
+    private final BudgetCheckService budgetCheckService;
+    private final GlobalRetryCeiling globalRetryCeiling;
+    private final RetryPriority defaultPriority;
     
     public RetryBudgetController(RetryBudgetControllerService budgetControllerService,
-                                 BudgetEnforcementAgent enforcementAgent) {
+                                 BudgetEnforcementAgent enforcementAgent,
+                                 BudgetCheckService budgetCheckService,
+                                 GlobalRetryCeiling globalRetryCeiling,
+                                 RetryBudgetConfig config) {
         this.budgetControllerService = budgetControllerService;
         this.enforcementAgent = enforcementAgent;
+        this.budgetCheckService = budgetCheckService;
+        this.globalRetryCeiling = globalRetryCeiling;
+        this.defaultPriority = config.getPriority().getDefaultPriority();
     }
     
     @GetMapping("/{serviceName}")
@@ -35,32 +53,106 @@ public class RetryBudgetController {
         return ResponseEntity.ok(budget);
     }
     
+    /**
+     * Flat checks are answered from {@link BudgetCheckService}'s snapshot as precomputed JSON
+     */
     @GetMapping("/check/{serviceName}")
-    public ResponseEntity<Map<String, Object>> checkRetryAllowed(@PathVariable String serviceName) {
-        RetryDecision decision = enforcementAgent.checkRetryAllowed(serviceName);
-        RetryBudget budget = budgetControllerService.getBudget(serviceName);
+    public ResponseEntity<?> checkRetryAllowed(
+            @PathVariable String serviceName,
+            @RequestParam(required = false) RetryPriority priority,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String tenant) {
+        if (endpoint != null && !endpoint.isBlank()) {
+            return checkHierarchical(serviceName, endpoint, tenant, priority);
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(budgetCheckService.check(serviceName, priority));
+    }
+    
+    private ResponseEntity<RetryBudgetResponse> checkHierarchical(String serviceName, String endpoint,
+                                                                  String tenant, RetryPriority priority) {
+        RetryPriority effective = priority == null ? defaultPriority : priority;
+        RetryCheck check = enforcementAgent.check(serviceName, endpoint, tenant, effective);
+        RetryBudget budget = check.budget();
+        
+        return ResponseEntity.ok(RetryBudgetResponse.builder()
+                .serviceName(serviceName)
+                .budgetKey(budget == null ? serviceName : budget.getServiceName())
+                .priority(priority)
+                .decision(check.decision())
+                .allowed(check.decision() == RetryDecision.ALLOW)
+                .remainingBudget(budget == null ? 0 : budget.getRemainingBudget())
+                .healthStatus(budget == null ? null : budget.getHealthStatus())
+                .build());
+    }
+    
+    @PostMapping("/consume/{serviceName}")
+    public ResponseEntity<Map<String, String>> consumeBudget(
+            @PathVariable String serviceName,
+            @RequestParam(required = false) RetryPriority priority,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String tenant) {
+        boolean consumed;
+        if (endpoint != null && !endpoint.isBlank()) {
+            consumed = enforcementAgent.consumeBudget(serviceName, endpoint, tenant, priority == null ? defaultPriority : priority);
+        } else if (priority == null) {
+            consumed = enforcementAgent.consumeBudget(serviceName);
+        } else {
+            consumed = enforcementAgent.consumeBudget(serviceName, priority);
+        }
+        budgetCheckService.invalidate(serviceName);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("serviceName", serviceName);
+        if (!consumed) {
+            response.put("message", "No retry budget left for service: " + serviceName);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+        
+        response.put("message", "Budget consumed for service: " + serviceName);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/hedge/{serviceName}")
+    public ResponseEntity<HedgeBudget> getHedgeBudget(@PathVariable String serviceName) {
+        HedgeBudget hedgeBudget = budgetControllerService.getHedgeBudget(serviceName);
+        return ResponseEntity.ok(hedgeBudget);
+    }
+    
+    @GetMapping("/hedge/check/{serviceName}")
+    public ResponseEntity<Map<String, Object>> checkHedgeAllowed(@PathVariable String serviceName) {
+        RetryDecision decision = enforcementAgent.checkHedgeAllowed(serviceName);
+        HedgeBudget hedgeBudget = budgetControllerService.getHedgeBudget(serviceName);
         
         Map<String, Object> response = new HashMap<>();
         response.put("serviceName", serviceName);
         response.put("decision", decision);
         response.put("allowed", decision == RetryDecision.ALLOW);
-        response.put("remainingBudget", budget.getRemainingBudget());
-        response.put("healthStatus", budget.getHealthStatus());
+        response.put("hedgeDelayMs", hedgeBudget.getHedgeDelayMs());
+        response.put("remainingHedges", hedgeBudget.getRemainingHedges());
+        response.put("healthStatus", hedgeBudget.getHealthStatus());
         
         return ResponseEntity.ok(response);
     }
     
-    @PostMapping("/consume/{serviceName}")
-    public ResponseEntity<Map<String, String>> consumeBudget(@PathVariable String serviceName) {
-        enforcementAgent.consumeBudget(serviceName);
+    @PostMapping("/hedge/consume/{serviceName}")
+    public ResponseEntity<Map<String, String>> consumeHedge(@PathVariable String serviceName) {
+        enforcementAgent.consumeHedge(serviceName);
         
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Budget consumed for service: " + serviceName);
+        response.put("message", "Hedge budget consumed for service: " + serviceName);
         response.put("serviceName", serviceName);
         
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/ceiling/usage")
+    public ResponseEntity<Map<String, Object>> getCeilingUsage() {
+        return ResponseEntity.ok(globalRetryCeiling.getUsage());
+    }
+    
     @PostMapping("/update-all")
     public ResponseEntity<Map<String, String>> updateAllBudgets() {
         budgetControllerService.updateAllBudgets();
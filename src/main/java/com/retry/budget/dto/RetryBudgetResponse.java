@@ -1,5 +1,29 @@
 package com.retry.budget.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.enums.ServiceHealthStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class RetryBudgetResponse {
     
+    private String serviceName;
+    
+    // Key whose budget decided, only set for endpoint and tenant checks
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String budgetKey;
+    
+    private RetryPriority priority;
+    private RetryDecision decision;
+    private boolean allowed;
+    private int remainingBudget;
+    private ServiceHealthStatus healthStatus;
 }
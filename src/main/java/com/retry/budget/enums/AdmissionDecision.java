@@ -0,0 +1,16 @@
+package com.retry.budget.enums;
+
+public enum AdmissionDecision {
+    ADMIT("Request is admitted - within concurrency limit"),
+    REJECT("Request is rejected - concurrency limit reached");
+    
+    private final String description;
+    
+    AdmissionDecision(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,33 @@
+package com.retry.budget.enums;
+
+public enum CaptureEventType {
+    REQUEST(1, "A recorded request; value is its latency in ms and code its RequestOutcome"),
+    RETRY(2, "Recorded retries; value is the number of retries"),
+    DECISION(3, "A retry decision; code is the RetryDecision and priority the RetryPriority"),
+    NAME(4, "Defines a service name index for the rest of the segment");
+    
+    private final byte code;
+    private final String description;
+    
+    CaptureEventType(int code, String description) {
+        this.code = (byte) code;
+        this.description = description;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public static CaptureEventType fromCode(byte code) {
+        for (CaptureEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
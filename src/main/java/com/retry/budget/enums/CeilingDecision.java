@@ -0,0 +1,22 @@
+package com.retry.budget.enums;
+
+public enum CeilingDecision {
+    WITHIN_CEILING("Retry fits within the global and group ceilings"),
+    GLOBAL_EXHAUSTED("Retry is denied - global retry ceiling reached"),
+    GROUP_EXHAUSTED("Retry is denied - group retry ceiling reached"),
+    FAIR_SHARE_EXCEEDED("Retry is denied - service exceeded its weighted fair share");
+    
+    private final String description;
+    
+    CeilingDecision(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public boolean isAllowed() {
+        return this == WITHIN_CEILING;
+    }
+}
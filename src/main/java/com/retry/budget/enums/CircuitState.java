@@ -0,0 +1,17 @@
+package com.retry.budget.enums;
+
+public enum CircuitState {
+    CLOSED("Redis is healthy - calls go through"),
+    OPEN("Redis is failing - calls are answered from local state"),
+    HALF_OPEN("Probing Redis and replaying queued writes before closing");
+    
+    private final String description;
+    
+    CircuitState(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
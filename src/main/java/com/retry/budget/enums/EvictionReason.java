@@ -0,0 +1,17 @@
+package com.retry.budget.enums;
+
+public enum EvictionReason {
+    IDLE("No requests or decisions on this node within the idle timeout"),
+    CAPACITY("Least recently used service dropped to stay within the tracked-service cap"),
+    EXPIRED("Idle across the fleet - removed from shared storage and recompute scheduling");
+    
+    private final String description;
+    
+    EvictionReason(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
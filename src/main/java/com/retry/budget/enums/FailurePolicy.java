@@ -0,0 +1,16 @@
+package com.retry.budget.enums;
+
+public enum FailurePolicy {
+    FAIL_OPEN("Without shared state, retries are decided from local state alone"),
+    FAIL_CLOSED("Without shared state, retries are denied unless a local budget is known");
+    
+    private final String description;
+    
+    FailurePolicy(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
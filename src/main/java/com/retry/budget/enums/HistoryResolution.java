@@ -0,0 +1,32 @@
+package com.retry.budget.enums;
+
+public enum HistoryResolution {
+    ONE_SECOND("1s", 1_000),
+    TEN_SECONDS("10s", 10_000),
+    ONE_MINUTE("1m", 60_000);
+    
+    private final String label;
+    private final long millis;
+    
+    HistoryResolution(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public long getMillis() {
+        return millis;
+    }
+    
+    public static HistoryResolution fromLabel(String label) {
+        for (HistoryResolution resolution : values()) {
+            if (resolution.label.equalsIgnoreCase(label) || resolution.name().equalsIgnoreCase(label)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution '" + label + "', expected one of 1s, 10s, 1m");
+    }
+}
@@ -0,0 +1,19 @@
+package com.retry.budget.enums;
+
+public enum LatencyDistribution {
+    UNIFORM("Evenly spread between min-ms and max-ms"),
+    LOG_NORMAL("Log-normal around median-ms with spread sigma"),
+    PARETO("Heavy tail starting at scale-ms with tail index shape"),
+    BIMODAL("Log-normal around median-ms, or around slow-median-ms with probability slow-probability"),
+    POISSON_SPIKE("Log-normal around median-ms, plus spike-latency-ms during spikes arriving at spike-rate-per-second");
+    
+    private final String description;
+    
+    LatencyDistribution(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,16 @@
+package com.retry.budget.enums;
+
+public enum LimitAlgorithm {
+    GRADIENT("Scales the limit by the ratio of minimum RTT to sampled RTT"),
+    VEGAS("Grows or shrinks the limit by the estimated queue size");
+    
+    private final String description;
+    
+    LimitAlgorithm(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
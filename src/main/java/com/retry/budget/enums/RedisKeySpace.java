@@ -0,0 +1,24 @@
+package com.retry.budget.enums;
+
+public enum RedisKeySpace {
+    BUDGET("budget:", "Retry budget per service"),
+    METRICS("metrics:", "Aggregated request metrics per service"),
+    HEDGE("hedge:", "Hedge budget per service"),
+    SKETCH("sketch:", "Per-node latency sketches per service");
+    
+    private final String prefix;
+    private final String description;
+    
+    RedisKeySpace(String prefix, String description) {
+        this.prefix = prefix;
+        this.description = description;
+    }
+    
+    public String getPrefix() {
+        return prefix;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,82 @@
+package com.retry.budget.enums;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+public enum RequestOutcome {
+    SUCCESS("Completed normally", false),
+    TIMEOUT("No response within the deadline - retryable", true),
+    CONNECTION_REFUSED("Could not connect - retryable", true),
+    SERVER_ERROR("5xx response - retryable", true),
+    THROTTLED("429 response - retryable once the server sheds load", true),
+    CLIENT_ERROR("Non-retryable 4xx response - never consumes or justifies retry budget", false);
+    
+    private static final RequestOutcome[] VALUES = values();
+    
+    private final String description;
+    private final boolean retryable;
+    
+    RequestOutcome(String description, boolean retryable) {
+        this.description = description;
+        this.retryable = retryable;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public boolean isRetryable() {
+        return retryable;
+    }
+    
+    public boolean isFailure() {
+        return this != SUCCESS;
+    }
+    
+    public static RequestOutcome fromSuccess(boolean success) {
+        return success ? SUCCESS : SERVER_ERROR;
+    }
+    
+    public static RequestOutcome fromStatus(int status) {
+        if (status == 429) {
+            return THROTTLED;
+        } else if (status == 408 || status == 504) {
+            return TIMEOUT;
+        } else if (status >= 500) {
+            return SERVER_ERROR;
+        } else if (status >= 400) {
+            return CLIENT_ERROR;
+        }
+        return SUCCESS;
+    }
+    
+    /**
+     * Classify a failure by its cause chain; anything unrecognized counts as a server error
+     */
+    public static RequestOutcome fromThrowable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpConnectTimeoutException || cause instanceof ConnectException) {
+                return CONNECTION_REFUSED;
+            }
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException
+                    || cause instanceof TimeoutException) {
+                return TIMEOUT;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return SERVER_ERROR;
+    }
+    
+    public static RequestOutcome fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+    
+    public static int count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,18 @@
+package com.retry.budget.enums;
+
+public enum RetryPriority {
+    CRITICAL("Business-critical traffic - keeps retries under pressure"),
+    HIGH("Important traffic - sheds after lower classes"),
+    NORMAL("Default traffic class"),
+    BEST_EFFORT("Sheddable traffic - first to lose retries as the budget drains");
+    
+    private final String description;
+    
+    RetryPriority(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,111 @@
+package com.retry.budget.enums;
+
+/**
+ * Per-service counters resolved once per service and then reused from the service's slot
+ */
+public enum ServiceMeter {
+    REQUESTS_SUCCESS("retry.budget.requests.success"),
+    REQUESTS_FAILED("retry.budget.requests.failed"),
+    OUTCOME_SUCCESS("retry.budget.requests.outcome", "outcome", "SUCCESS"),
+    OUTCOME_TIMEOUT("retry.budget.requests.outcome", "outcome", "TIMEOUT"),
+    OUTCOME_CONNECTION_REFUSED("retry.budget.requests.outcome", "outcome", "CONNECTION_REFUSED"),
+    OUTCOME_SERVER_ERROR("retry.budget.requests.outcome", "outcome", "SERVER_ERROR"),
+    OUTCOME_THROTTLED("retry.budget.requests.outcome", "outcome", "THROTTLED"),
+    OUTCOME_CLIENT_ERROR("retry.budget.requests.outcome", "outcome", "CLIENT_ERROR"),
+    RETRIES("retry.budget.retries"),
+    CONSUMED("retry.budget.consumed"),
+    CONSUMED_CRITICAL("retry.budget.consumed.priority", "priority", "CRITICAL"),
+    CONSUMED_HIGH("retry.budget.consumed.priority", "priority", "HIGH"),
+    CONSUMED_NORMAL("retry.budget.consumed.priority", "priority", "NORMAL"),
+    CONSUMED_BEST_EFFORT("retry.budget.consumed.priority", "priority", "BEST_EFFORT"),
+    RELEASED("retry.budget.released"),
+    DECISION_ALLOW("retry.budget.decision.allow"),
+    DECISION_DEFER("retry.budget.decision.defer"),
+    DENY_CRITICAL("retry.budget.decision.deny.critical"),
+    DENY_EXCEEDED("retry.budget.decision.deny.exceeded"),
+    DENY_CEILING("retry.budget.decision.deny.ceiling"),
+    DENY_POOL("retry.budget.decision.deny.pool"),
+    DENY_UNAVAILABLE("retry.budget.decision.deny.unavailable"),
+    DENY_RESERVED_CRITICAL("retry.budget.decision.deny.reserved", "priority", "CRITICAL"),
+    DENY_RESERVED_HIGH("retry.budget.decision.deny.reserved", "priority", "HIGH"),
+    DENY_RESERVED_NORMAL("retry.budget.decision.deny.reserved", "priority", "NORMAL"),
+    DENY_RESERVED_BEST_EFFORT("retry.budget.decision.deny.reserved", "priority", "BEST_EFFORT"),
+    CEILING_DENY_GLOBAL_EXHAUSTED("retry.budget.ceiling.deny", "reason", "GLOBAL_EXHAUSTED"),
+    CEILING_DENY_GROUP_EXHAUSTED("retry.budget.ceiling.deny", "reason", "GROUP_EXHAUSTED"),
+    CEILING_DENY_FAIR_SHARE_EXCEEDED("retry.budget.ceiling.deny", "reason", "FAIR_SHARE_EXCEEDED"),
+    HEDGE_ALLOW("retry.budget.hedge.allow"),
+    HEDGE_DENY_CRITICAL("retry.budget.hedge.deny.critical"),
+    HEDGE_DENY_EXCEEDED("retry.budget.hedge.deny.exceeded"),
+    HEDGE_CONSUMED("retry.budget.hedge.consumed"),
+    ADMISSION_REJECT("retry.budget.admission.reject"),
+    LOCAL_OVERFLOW("retry.budget.local.overflow"),
+    THRESHOLD_CROSSINGS("retry.budget.threshold.crossings");
+    
+    private static final ServiceMeter[] BY_OUTCOME = new ServiceMeter[RequestOutcome.count()];
+    private static final ServiceMeter[] CONSUMED_BY_PRIORITY = new ServiceMeter[RetryPriority.values().length];
+    private static final ServiceMeter[] RESERVED_BY_PRIORITY = new ServiceMeter[RetryPriority.values().length];
+    private static final ServiceMeter[] BY_CEILING = new ServiceMeter[CeilingDecision.values().length];
+    
+    static {
+        for (RequestOutcome outcome : RequestOutcome.values()) {
+            BY_OUTCOME[outcome.ordinal()] = valueOf("OUTCOME_" + outcome.name());
+        }
+        for (RetryPriority priority : RetryPriority.values()) {
+            CONSUMED_BY_PRIORITY[priority.ordinal()] = valueOf("CONSUMED_" + priority.name());
+            RESERVED_BY_PRIORITY[priority.ordinal()] = valueOf("DENY_RESERVED_" + priority.name());
+        }
+        for (CeilingDecision decision : CeilingDecision.values()) {
+            if (!decision.isAllowed()) {
+                BY_CEILING[decision.ordinal()] = valueOf("CEILING_DENY_" + decision.name());
+            }
+        }
+    }
+    
+    private final String meterName;
+    private final String tagKey;
+    private final String tagValue;
+    
+    ServiceMeter(String meterName) {
+        this(meterName, null, null);
+    }
+    
+    ServiceMeter(String meterName, String tagKey, String tagValue) {
+        this.meterName = meterName;
+        this.tagKey = tagKey;
+        this.tagValue = tagValue;
+    }
+    
+    public String getMeterName() {
+        return meterName;
+    }
+    
+    /**
+     * Tag set next to {@code service}, or null for meters tagged by service alone
+     */
+    public String getTagKey() {
+        return tagKey;
+    }
+    
+    public String getTagValue() {
+        return tagValue;
+    }
+    
+    public static ServiceMeter outcome(RequestOutcome outcome) {
+        return BY_OUTCOME[outcome.ordinal()];
+    }
+    
+    public static ServiceMeter consumed(RetryPriority priority) {
+        return CONSUMED_BY_PRIORITY[priority.ordinal()];
+    }
+    
+    public static ServiceMeter deniedByReserve(RetryPriority priority) {
+        return RESERVED_BY_PRIORITY[priority.ordinal()];
+    }
+    
+    /**
+     * Slot counting ceiling denials for the decision's reason; null for a decision that allows
+     */
+    public static ServiceMeter ceilingDenied(CeilingDecision decision) {
+        return BY_CEILING[decision.ordinal()];
+    }
+}
@@ -0,0 +1,16 @@
+package com.retry.budget.enums;
+
+public enum StorageBackend {
+    REDIS("Shared state in Redis - required when several nodes enforce the same budgets"),
+    MEMORY("In-process state - single node, no external dependency");
+    
+    private final String description;
+    
+    StorageBackend(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,8 @@
+package com.retry.budget.event;
+
+/**
+ * Published when a service's forecast p95 or error rate moves across a threshold that changes its
+ * budget, typically before the current values do
+ */
+public record ForecastThresholdCrossedEvent(String serviceName) {
+}
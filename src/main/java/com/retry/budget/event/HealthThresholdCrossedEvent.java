@@ -0,0 +1,10 @@
+package com.retry.budget.event;
+
+import com.retry.budget.enums.ServiceHealthStatus;
+
+/**
+ * Published when a service's health, as classified against the configured p95, p99 and error-rate
+ * thresholds, changes between two consecutive samples
+ */
+public record HealthThresholdCrossedEvent(String serviceName, ServiceHealthStatus from, ServiceHealthStatus to) {
+}
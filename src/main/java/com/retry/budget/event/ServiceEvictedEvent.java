@@ -0,0 +1,10 @@
+package com.retry.budget.event;
+
+import com.retry.budget.enums.EvictionReason;
+
+/**
+ * Published when a service stops being tracked on this node; holders of per-service state drop
+ * theirs. Listeners run before the service's registry id is released.
+ */
+public record ServiceEvictedEvent(String serviceName, EvictionReason reason) {
+}
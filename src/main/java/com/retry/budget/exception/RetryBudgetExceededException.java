@@ -2,6 +2,8 @@ package com.retry.budget.exception;
 
 public class RetryBudgetExceededException extends RuntimeException {
     
+    private static final long serialVersionUID = 1L;
+    
     private final String serviceName;
     private final int remainingBudget;
     
@@ -0,0 +1,30 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One timed step of a backend profile's script. Setting an end value ramps linearly from the start
+ * value over the phase; leaving the error rate unset keeps the profile's own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackendPhase {
+    
+    private String name;
+    private long durationSeconds;
+    
+    @Builder.Default
+    private double latencyScale = 1.0;
+    private Double latencyScaleEnd;
+    
+    private Double errorRate;
+    private Double errorRateEnd;
+    
+    // Every request fails fast with 503
+    private boolean outage;
+}
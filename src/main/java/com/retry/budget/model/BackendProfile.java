@@ -0,0 +1,65 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.LatencyDistribution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Behavior of a simulated demo backend: a latency distribution, a base error rate, optional
+ * randomly arriving error bursts and an optional script of phases played from registration
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackendProfile {
+    
+    private String name;
+    
+    @Builder.Default
+    private LatencyDistribution distribution = LatencyDistribution.UNIFORM;
+    
+    // UNIFORM
+    private double minMs;
+    private double maxMs;
+    
+    // LOG_NORMAL, BIMODAL, POISSON_SPIKE
+    private double medianMs;
+    @Builder.Default
+    private double sigma = 0.5;
+    
+    // PARETO
+    private double scaleMs;
+    @Builder.Default
+    private double shape = 1.5;
+    
+    // BIMODAL
+    private double slowMedianMs;
+    private double slowProbability;
+    
+    // POISSON_SPIKE
+    private double spikeRatePerSecond;
+    private long spikeDurationMs;
+    private double spikeLatencyMs;
+    
+    @Builder.Default
+    private long maxLatencyMs = 30000;
+    
+    private double errorRate;
+    @Builder.Default
+    private int errorStatus = 500;
+    
+    // Error bursts arrive at burst-rate-per-second and raise the error rate for their duration
+    private double burstRatePerSecond;
+    private long burstDurationMs;
+    private double burstErrorRate;
+    
+    @Builder.Default
+    private List<BackendPhase> phases = new ArrayList<>();
+    private boolean repeatPhases;
+}
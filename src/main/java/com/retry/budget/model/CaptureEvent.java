@@ -0,0 +1,19 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.CaptureEventType;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+
+/**
+ * One event read back from a capture segment. {@code value} is the latency in ms for a REQUEST and
+ * the retry count for a RETRY; fields that do not apply to the type are null or zero.
+ */
+public record CaptureEvent(CaptureEventType type,
+                           long timestampMs,
+                           String serviceName,
+                           long value,
+                           RequestOutcome outcome,
+                           RetryDecision decision,
+                           RetryPriority priority) {
+}
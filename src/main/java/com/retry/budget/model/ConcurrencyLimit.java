@@ -0,0 +1,22 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.LimitAlgorithm;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimit {
+    
+    private String serviceName;
+    private LimitAlgorithm algorithm;
+    private int limit;
+    private int inFlight;
+    private double minRttMs;
+    private double sampleRttMs;
+    private long rejectedRequests;
+}
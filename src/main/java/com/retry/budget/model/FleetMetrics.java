@@ -0,0 +1,28 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fleet-wide view of a service, merged from every live node's sketch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetMetrics {
+    
+    private String serviceName;
+    private int nodes;
+    private long totalRequests;
+    private long failedRequests;
+    private long retryCount;
+    private long[] outcomeCounts;
+    private double errorRate;
+    private LatencyStats latencyStats;
+    private LocalDateTime mergedAt;
+}
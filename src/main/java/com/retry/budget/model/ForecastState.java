@@ -0,0 +1,25 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Holt trend state of one service's p95 and error rate; both series are always fed together
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastState {
+    
+    private String serviceName;
+    private double p95Level;
+    private double p95TrendPerSecond;
+    private double errorRateLevel;
+    private double errorRateTrendPerSecond;
+    private long lastUpdateMs;
+    private int samples;
+    private int band;
+}
@@ -0,0 +1,31 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.ServiceHealthStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One rolled-up point of a service's health history. Within a slot p50 and error rate are averaged,
+ * p95, p99, budgets and health keep the worst value seen, and request count is the latest total.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthSample {
+    
+    private LocalDateTime timestamp;
+    private int samples;
+    private double p50;
+    private double p95;
+    private double p99;
+    private double errorRate;
+    private long totalRequests;
+    private Integer allocatedBudget;
+    private Integer remainingBudget;
+    private ServiceHealthStatus healthStatus;
+}
@@ -0,0 +1,40 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.ServiceHealthStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class HedgeBudget {
+    
+    private String serviceName;
+    private long hedgeDelayMs;
+    private double delayPercentile;
+    private double maxHedgePercent;
+    private int allocatedHedges;
+    private int usedHedges;
+    private int remainingHedges;
+    private ServiceHealthStatus healthStatus;
+    private LocalDateTime lastCalculated;
+    private LocalDateTime expiresAt;
+    
+    public boolean canHedge() {
+        return remainingHedges > 0 &&
+               healthStatus != ServiceHealthStatus.CRITICAL &&
+               LocalDateTime.now().isBefore(expiresAt);
+    }
+    
+    public void consumeHedge() {
+        if (remainingHedges > 0) {
+            this.usedHedges++;
+            this.remainingHedges--;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency distribution summary in milliseconds
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyPercentiles {
+    
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+    private double mean;
+}
@@ -0,0 +1,23 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestReport {
+    
+    private LocalDateTime startedAt;
+    private int durationSeconds;
+    private double ratePerSecond;
+    private int concurrency;
+    private long elapsedMs;
+    private Map<String, ServiceLoadReport> services;
+}
@@ -0,0 +1,31 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One node's view of a service over the current and previous evaluation windows, published under
+ * a node-scoped entry so nodes never overwrite each other.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeMetricsSketch {
+    
+    private String serviceName;
+    private String nodeId;
+    private long windowStartMs;
+    private long publishedAtMs;
+    private long totalRequests;
+    private long failedRequests;
+    private long retryCount;
+    private long[] outcomeCounts;
+    private long[] latencyBuckets;
+    private long minLatencyMs;
+    private long maxLatencyMs;
+    private double latencySum;
+    private double latencySumOfSquares;
+}
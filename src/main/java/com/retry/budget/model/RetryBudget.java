@@ -1,6 +1,8 @@
 package com.retry.budget.model;
 
+import com.retry.budget.enums.RetryPriority;
 import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.util.PackedCounters;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,7 +11,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RetryBudget {
@@ -23,6 +25,7 @@ public class RetryBudget {
     private double errorFactor;
     private LocalDateTime lastCalculated;
     private LocalDateTime expiresAt;
+    private long priorityUsage;
     
     public boolean canRetry() {
         return remainingBudget > 0 && 
@@ -37,9 +40,29 @@ public class RetryBudget {
         }
     }
     
+    public void consumeBudget(RetryPriority priority) {
+        if (remainingBudget > 0) {
+            consumeBudget();
+            this.priorityUsage = PackedCounters.increment(priorityUsage, priority.ordinal());
+        }
+    }
+    
+    public void releaseBudget(RetryPriority priority) {
+        if (usedBudget > 0) {
+            this.usedBudget--;
+            this.remainingBudget++;
+            this.priorityUsage = PackedCounters.decrement(priorityUsage, priority.ordinal());
+        }
+    }
+    
+    public int usedByPriority(RetryPriority priority) {
+        return PackedCounters.get(priorityUsage, priority.ordinal());
+    }
+    
     public void resetBudget(int newBudget) {
         this.allocatedBudget = newBudget;
         this.usedBudget = 0;
+        this.priorityUsage = 0;
         this.remainingBudget = newBudget;
         this.lastCalculated = LocalDateTime.now();
     }
@@ -0,0 +1,11 @@
+package com.retry.budget.model;
+
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.RetryDecision;
+
+/**
+ * A retry decision together with the budget and ceiling it was made against. Budget and ceiling
+ * are null when the decision was reached without reading them.
+ */
+public record RetryCheck(RetryDecision decision, RetryBudget budget, CeilingDecision ceiling) {
+}
@@ -0,0 +1,35 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of one service's share of a load test. {@code latency} is measured from when each
+ * request was scheduled to start, so time spent waiting behind slow requests is included;
+ * {@code serviceTime} is measured from when it was actually sent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceLoadReport {
+    
+    private String serviceName;
+    private double targetRatePerSecond;
+    private long scheduled;
+    private long sent;
+    private long completed;
+    // Scheduled but never sent because no concurrency slot freed up before the run ended
+    private long unsent;
+    private double throughputPerSecond;
+    private long successes;
+    private long retries;
+    private Map<String, Long> decisions;
+    private LatencyPercentiles latency;
+    private LatencyPercentiles serviceTime;
+    private double maxSendLagMs;
+}
@@ -1,5 +1,6 @@
 package com.retry.budget.model;
 
+import com.retry.budget.enums.RequestOutcome;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,7 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ServiceMetrics {
@@ -22,6 +23,11 @@ public class ServiceMetrics {
     private long retryCount;
     private double errorRate;
     
+    /**
+     * Requests per {@link RequestOutcome}, indexed by ordinal
+     */
+    private long[] outcomeCounts;
+    
     @Builder.Default
     private List<Long> latencies = new ArrayList<>();
     
@@ -42,6 +48,13 @@ public class ServiceMetrics {
         }
     }
     
+    public ServiceMetrics copy() {
+        return toBuilder()
+                .latencies(latencies == null ? new ArrayList<>() : new ArrayList<>(latencies))
+                .outcomeCounts(outcomeCounts == null ? null : outcomeCounts.clone())
+                .build();
+    }
+    
     public void incrementTotalRequests() {
         this.totalRequests++;
     }
@@ -54,10 +67,29 @@ public class ServiceMetrics {
         this.failedRequests++;
     }
     
+    public void incrementOutcome(RequestOutcome outcome) {
+        if (this.outcomeCounts == null || this.outcomeCounts.length < RequestOutcome.count()) {
+            // State written before outcomes were tracked: attribute earlier failures to server errors
+            long[] counts = new long[RequestOutcome.count()];
+            if (this.outcomeCounts != null) {
+                System.arraycopy(this.outcomeCounts, 0, counts, 0, this.outcomeCounts.length);
+            } else {
+                counts[RequestOutcome.SUCCESS.ordinal()] = successfulRequests;
+                counts[RequestOutcome.SERVER_ERROR.ordinal()] = failedRequests;
+            }
+            this.outcomeCounts = counts;
+        }
+        this.outcomeCounts[outcome.ordinal()]++;
+    }
+    
     public void incrementRetryCount() {
         this.retryCount++;
     }
     
+    public void addRetries(long retries) {
+        this.retryCount += retries;
+    }
+    
     public void calculateErrorRate() {
         if (totalRequests > 0) {
             this.errorRate = (double) failedRequests / totalRequests * 100.0;
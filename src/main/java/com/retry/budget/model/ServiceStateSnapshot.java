@@ -0,0 +1,19 @@
+package com.retry.budget.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceStateSnapshot {
+    
+    private String serviceName;
+    private RetryBudget budget;
+    private ServiceMetrics metrics;
+    private ConcurrencyLimit concurrencyLimit;
+    private ForecastState forecast;
+}
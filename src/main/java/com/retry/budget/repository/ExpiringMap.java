@@ -0,0 +1,105 @@
+package com.retry.budget.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Concurrent map whose entries expire a fixed time after they were written, matching the key TTLs
+ * of the Redis backend. Expired entries are dropped when read and swept every few thousand writes,
+ * so no background thread is needed.
+ */
+final class ExpiringMap<V> {
+
+    private static final int SWEEP_EVERY_WRITES = 4096;
+
+    private final ConcurrentHashMap<String, Timed<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger writes = new AtomicInteger();
+    private final long ttlNanos;
+
+    ExpiringMap(long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    V get(String key) {
+        Timed<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    void put(String key, V value) {
+        entries.put(key, new Timed<>(value, System.nanoTime() + ttlNanos));
+
+        if (writes.incrementAndGet() % SWEEP_EVERY_WRITES == 0) {
+            sweep();
+        }
+    }
+
+    void putIfAbsent(String key, V value) {
+        if (get(key) == null) {
+            put(key, value);
+        }
+    }
+
+    /**
+     * Replace the live value under the key's lock; {@code update} sees null when the entry is absent
+     * or expired, and the result starts a fresh TTL
+     */
+    V update(String key, UnaryOperator<V> update) {
+        long now = System.nanoTime();
+        Timed<V> updated = entries.compute(key, (k, entry) -> new Timed<>(
+                update.apply(entry == null || entry.isExpired(now) ? null : entry.value()), now + ttlNanos));
+
+        if (writes.incrementAndGet() % SWEEP_EVERY_WRITES == 0) {
+            sweep();
+        }
+        return updated.value();
+    }
+
+    void remove(String key) {
+        entries.remove(key);
+    }
+
+    boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    Set<String> keys() {
+        long now = System.nanoTime();
+        return entries.entrySet().stream()
+                .filter(e -> !e.getValue().isExpired(now))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    List<V> values() {
+        long now = System.nanoTime();
+        return entries.values().stream()
+                .filter(e -> !e.isExpired(now))
+                .map(Timed::value)
+                .toList();
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private record Timed<V>(V value, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.HedgeBudget;
+
+public interface HedgeBudgetRepository {
+    
+    void saveHedgeBudget(HedgeBudget budget);
+    
+    HedgeBudget getHedgeBudget(String serviceName);
+    
+    void deleteHedgeBudget(String serviceName);
+    
+    /**
+     * Drop the copy held in this node's memory; shared storage is left alone
+     */
+    void forgetLocal(String serviceName);
+}
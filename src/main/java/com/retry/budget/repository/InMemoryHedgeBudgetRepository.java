@@ -0,0 +1,38 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.HedgeBudget;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.TimeUnit;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryHedgeBudgetRepository implements HedgeBudgetRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final ExpiringMap<HedgeBudget> hedgeBudgets = new ExpiringMap<>(TTL_SECONDS, TimeUnit.SECONDS);
+    
+    @Override
+    public void saveHedgeBudget(HedgeBudget budget) {
+        hedgeBudgets.put(budget.getServiceName(), budget.toBuilder().build());
+    }
+    
+    @Override
+    public HedgeBudget getHedgeBudget(String serviceName) {
+        HedgeBudget budget = hedgeBudgets.get(serviceName);
+        return budget == null ? null : budget.toBuilder().build();
+    }
+    
+    @Override
+    public void deleteHedgeBudget(String serviceName) {
+        hedgeBudgets.remove(serviceName);
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        // This node's memory is the storage
+        hedgeBudgets.remove(serviceName);
+    }
+}
@@ -0,0 +1,32 @@
+package com.retry.budget.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryMembershipRepository implements MembershipRepository {
+    
+    private final Map<String, Long> heartbeats = new ConcurrentHashMap<>();
+    
+    @Override
+    public void heartbeat(String nodeId, long nowMs) {
+        heartbeats.put(nodeId, nowMs);
+    }
+    
+    @Override
+    public Set<String> getLiveNodes(long nowMs, long ttlMs) {
+        heartbeats.values().removeIf(lastSeen -> nowMs - lastSeen > ttlMs);
+        return heartbeats.keySet().stream().collect(Collectors.toUnmodifiableSet());
+    }
+    
+    @Override
+    public void leave(String nodeId) {
+        heartbeats.remove(nodeId);
+    }
+}
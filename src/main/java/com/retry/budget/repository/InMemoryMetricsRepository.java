@@ -0,0 +1,63 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.ServiceMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-node metrics store. Like {@link InMemoryRetryBudgetRepository}, reads hand out copies,
+ * including the latency sample list.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryMetricsRepository implements MetricsRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final ExpiringMap<ServiceMetrics> metricsByService = new ExpiringMap<>(TTL_SECONDS, TimeUnit.SECONDS);
+    
+    @Override
+    public void saveMetrics(ServiceMetrics metrics) {
+        metricsByService.put(metrics.getServiceName(), metrics);
+    }
+    
+    @Override
+    public ServiceMetrics getMetrics(String serviceName) {
+        ServiceMetrics metrics = metricsByService.get(serviceName);
+        return metrics == null ? null : metrics.copy();
+    }
+    
+    @Override
+    public ServiceMetrics updateMetrics(String serviceName, UnaryOperator<ServiceMetrics> update) {
+        return metricsByService.update(serviceName, stored -> update.apply(stored == null ? null : stored.copy())).copy();
+    }
+    
+    @Override
+    public void deleteMetrics(String serviceName) {
+        metricsByService.remove(serviceName);
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        // This node's memory is the storage
+        metricsByService.remove(serviceName);
+    }
+    
+    @Override
+    public Collection<ServiceMetrics> getLocalMetrics() {
+        return metricsByService.values().stream().map(ServiceMetrics::copy).toList();
+    }
+    
+    @Override
+    public void restoreMetrics(ServiceMetrics metrics) {
+        metricsByService.putIfAbsent(metrics.getServiceName(), metrics);
+    }
+    
+    boolean contains(String serviceName) {
+        return metricsByService.containsKey(serviceName);
+    }
+}
@@ -0,0 +1,37 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.NodeMetricsSketch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryNodeSketchRepository implements NodeSketchRepository {
+    
+    private final Map<String, Map<String, NodeMetricsSketch>> sketches = new ConcurrentHashMap<>();
+    
+    @Override
+    public void publish(NodeMetricsSketch sketch) {
+        sketches.computeIfAbsent(sketch.getServiceName(), name -> new ConcurrentHashMap<>())
+                .put(sketch.getNodeId(), sketch);
+    }
+    
+    @Override
+    public List<NodeMetricsSketch> getSketches(String serviceName) {
+        Map<String, NodeMetricsSketch> byNode = sketches.get(serviceName);
+        return byNode == null ? List.of() : List.copyOf(byNode.values());
+    }
+    
+    @Override
+    public void removeSketches(String serviceName, Collection<String> nodeIds) {
+        Map<String, NodeMetricsSketch> byNode = sketches.get(serviceName);
+        if (byNode != null) {
+            nodeIds.forEach(byNode::remove);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.ServiceMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive view of {@link InMemoryMetricsRepository}; every operation completes immediately.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryReactiveMetricsRepository implements ReactiveMetricsRepository {
+    
+    private final InMemoryMetricsRepository metricsRepository;
+    
+    public InMemoryReactiveMetricsRepository(InMemoryMetricsRepository metricsRepository) {
+        this.metricsRepository = metricsRepository;
+    }
+    
+    @Override
+    public Mono<Boolean> saveMetrics(ServiceMetrics metrics) {
+        metricsRepository.saveMetrics(metrics);
+        return Mono.just(Boolean.TRUE);
+    }
+    
+    @Override
+    public Mono<ServiceMetrics> getMetrics(String serviceName) {
+        return Mono.fromSupplier(() -> metricsRepository.getMetrics(serviceName));
+    }
+    
+    @Override
+    public Mono<Long> deleteMetrics(String serviceName) {
+        boolean existed = metricsRepository.contains(serviceName);
+        metricsRepository.deleteMetrics(serviceName);
+        return Mono.just(existed ? 1L : 0L);
+    }
+}
@@ -0,0 +1,38 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.RetryBudget;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive view of {@link InMemoryRetryBudgetRepository}; every operation completes immediately.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryReactiveRetryBudgetRepository implements ReactiveRetryBudgetRepository {
+    
+    private final InMemoryRetryBudgetRepository budgetRepository;
+    
+    public InMemoryReactiveRetryBudgetRepository(InMemoryRetryBudgetRepository budgetRepository) {
+        this.budgetRepository = budgetRepository;
+    }
+    
+    @Override
+    public Mono<Boolean> saveBudget(RetryBudget budget) {
+        budgetRepository.saveBudget(budget);
+        return Mono.just(Boolean.TRUE);
+    }
+    
+    @Override
+    public Mono<RetryBudget> getBudget(String serviceName) {
+        return Mono.fromSupplier(() -> budgetRepository.getBudget(serviceName));
+    }
+    
+    @Override
+    public Mono<Long> deleteBudget(String serviceName) {
+        boolean existed = budgetRepository.hasLastKnown(serviceName);
+        budgetRepository.deleteBudget(serviceName);
+        return Mono.just(existed ? 1L : 0L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.RetryBudget;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-node budget store. Writes keep copies and reads hand out copies, so callers can mutate and
+ * save a budget exactly as they would one serialized to Redis without racing each other on the
+ * stored instance.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryRetryBudgetRepository implements RetryBudgetRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final ExpiringMap<RetryBudget> budgets = new ExpiringMap<>(TTL_SECONDS, TimeUnit.SECONDS);
+    
+    @Override
+    public void saveBudget(RetryBudget budget) {
+        budgets.put(budget.getServiceName(), budget.toBuilder().build());
+    }
+    
+    @Override
+    public RetryBudget getBudget(String serviceName) {
+        RetryBudget budget = budgets.get(serviceName);
+        return budget == null ? null : budget.toBuilder().build();
+    }
+    
+    @Override
+    public void deleteBudget(String serviceName) {
+        budgets.remove(serviceName);
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        // This node's memory is the storage
+        budgets.remove(serviceName);
+    }
+    
+    @Override
+    public Set<String> getAllServiceNames() {
+        return budgets.keys();
+    }
+    
+    @Override
+    public boolean hasLastKnown(String serviceName) {
+        return budgets.containsKey(serviceName);
+    }
+    
+    @Override
+    public Collection<RetryBudget> getLocalBudgets() {
+        return budgets.values().stream().map(budget -> budget.toBuilder().build()).toList();
+    }
+    
+    @Override
+    public void restoreBudget(RetryBudget budget) {
+        budgets.putIfAbsent(budget.getServiceName(), budget.toBuilder().build());
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.CeilingDecision;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-node ceiling counters with the same semantics as the Redis script. Only the current window
+ * is kept; the first evaluation in a new window starts from zero.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "memory")
+public class InMemoryRetryCeilingRepository implements RetryCeilingRepository {
+
+    private WindowCounters current = new WindowCounters(-1);
+
+    @Override
+    public synchronized CeilingDecision evaluate(long window, String serviceName, String group, int globalCap, int groupCap,
+                                                 double weight, double enforceAboveFraction, int permits, long ttlSeconds) {
+        WindowCounters counters = countersFor(window);
+
+        if (counters.weights.putIfAbsent(serviceName, weight) == null) {
+            counters.weightSum += weight;
+        }
+
+        long need = Math.max(permits, 1);
+        if (counters.global + need > globalCap) {
+            return CeilingDecision.GLOBAL_EXHAUSTED;
+        }
+
+        if (group != null && counters.groups.getOrDefault(group, 0L) + need > groupCap) {
+            return CeilingDecision.GROUP_EXHAUSTED;
+        }
+
+        if (counters.global >= globalCap * enforceAboveFraction) {
+            double share = globalCap * weight / counters.weightSum;
+            if (counters.services.getOrDefault(serviceName, 0L) + need > share) {
+                return CeilingDecision.FAIR_SHARE_EXCEEDED;
+            }
+        }
+
+        if (permits > 0) {
+            counters.global += permits;
+            counters.services.merge(serviceName, (long) permits, Long::sum);
+            if (group != null) {
+                counters.groups.merge(group, (long) permits, Long::sum);
+            }
+        }
+
+        return CeilingDecision.WITHIN_CEILING;
+    }
+
+    @Override
+    public Mono<CeilingDecision> evaluateAsync(long window, String serviceName, String group, int globalCap, int groupCap,
+                                               double weight, double enforceAboveFraction, int permits, long ttlSeconds) {
+        return Mono.fromSupplier(() -> evaluate(window, serviceName, group, globalCap, groupCap,
+                weight, enforceAboveFraction, permits, ttlSeconds));
+    }
+
+    @Override
+    public synchronized Map<Object, Object> getUsage(long window) {
+        Map<Object, Object> usage = new HashMap<>();
+        if (current.window != window) {
+            return usage;
+        }
+
+        // Same field layout as the Redis hash so callers see one format
+        usage.put("global", String.valueOf(current.global));
+        usage.put("weights", String.valueOf(current.weightSum));
+        current.services.forEach((service, used) -> usage.put("svc:" + service, String.valueOf(used)));
+        current.groups.forEach((group, used) -> usage.put("grp:" + group, String.valueOf(used)));
+        current.weights.forEach((service, weight) -> usage.put("w:" + service, String.valueOf(weight)));
+
+        return usage;
+    }
+
+    private WindowCounters countersFor(long window) {
+        if (current.window != window) {
+            current = new WindowCounters(window);
+        }
+        return current;
+    }
+
+    private static final class WindowCounters {
+        private final long window;
+        private final Map<String, Long> services = new HashMap<>();
+        private final Map<String, Long> groups = new HashMap<>();
+        private final Map<String, Double> weights = new HashMap<>();
+        private long global;
+        private double weightSum;
+
+        private WindowCounters(long window) {
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.retry.budget.repository;
+
+import java.util.Set;
+
+/**
+ * Liveness of the nodes sharing this deployment, kept alive by periodic heartbeats
+ */
+public interface MembershipRepository {
+    
+    void heartbeat(String nodeId, long nowMs);
+    
+    /**
+     * Nodes whose last heartbeat is younger than the ttl; empty when membership is unavailable
+     */
+    Set<String> getLiveNodes(long nowMs, long ttlMs);
+    
+    void leave(String nodeId);
+}
@@ -1,35 +1,31 @@
 package com.retry.budget.repository;
 
 import com.retry.budget.model.ServiceMetrics;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Repository;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
 
-@Repository
-public class MetricsRepository {
+public interface MetricsRepository {
     
-    private static final String METRICS_KEY_PREFIX = "metrics:";
-    private static final long TTL_SECONDS = 300;
+    void saveMetrics(ServiceMetrics metrics);
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    ServiceMetrics getMetrics(String serviceName);
     
-    public MetricsRepository(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
-    }
+    /**
+     * Read, change and write the stored metrics as one atomic step, so writers on different nodes
+     * add to each other instead of overwriting. {@code update} gets a private copy, or null when
+     * nothing is stored, and may run more than once.
+     */
+    ServiceMetrics updateMetrics(String serviceName, UnaryOperator<ServiceMetrics> update);
     
-    public void saveMetrics(ServiceMetrics metrics) {
-        String key = METRICS_KEY_PREFIX + metrics.getServiceName();
-        redisTemplate.opsForValue().set(key, metrics, TTL_SECONDS, TimeUnit.SECONDS);
-    }
+    void deleteMetrics(String serviceName);
     
-    public ServiceMetrics getMetrics(String serviceName) {
-        String key = METRICS_KEY_PREFIX + serviceName;
-        return (ServiceMetrics) redisTemplate.opsForValue().get(key);
-    }
+    /**
+     * Drop the copy held in this node's memory; shared storage is left alone
+     */
+    void forgetLocal(String serviceName);
     
-    public void deleteMetrics(String serviceName) {
-        String key = METRICS_KEY_PREFIX + serviceName;
-        redisTemplate.delete(key);
-    }
-}
\ No newline at end of file
+    Collection<ServiceMetrics> getLocalMetrics();
+    
+    void restoreMetrics(ServiceMetrics metrics);
+}
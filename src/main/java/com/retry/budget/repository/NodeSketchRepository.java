@@ -0,0 +1,18 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.NodeMetricsSketch;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-node metric sketches, one entry per service and node
+ */
+public interface NodeSketchRepository {
+    
+    void publish(NodeMetricsSketch sketch);
+    
+    List<NodeMetricsSketch> getSketches(String serviceName);
+    
+    void removeSketches(String serviceName, Collection<String> nodeIds);
+}
@@ -0,0 +1,13 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.ServiceMetrics;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveMetricsRepository {
+    
+    Mono<Boolean> saveMetrics(ServiceMetrics metrics);
+    
+    Mono<ServiceMetrics> getMetrics(String serviceName);
+    
+    Mono<Long> deleteMetrics(String serviceName);
+}
@@ -0,0 +1,13 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.model.RetryBudget;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRetryBudgetRepository {
+    
+    Mono<Boolean> saveBudget(RetryBudget budget);
+    
+    Mono<RetryBudget> getBudget(String serviceName);
+    
+    Mono<Long> deleteBudget(String serviceName);
+}
@@ -0,0 +1,218 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CircuitState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Guards every Redis call made by the repositories. Consecutive failures, or calls slower than the
+ * per-call timeout, open the breaker; while it is open callers get their local fallback at once and
+ * failed writes are queued per key. A scheduled probe replays the queue once Redis answers again
+ * and only then closes the breaker, so requests never wait on a recovering server.
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisFaultInjector faultInjector;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    // Only the latest write per key is kept; every guarded key holds a whole value
+    private final Map<String, Runnable> pendingWrites = new ConcurrentHashMap<>();
+
+    public RedisCircuitBreaker(StringRedisTemplate stringRedisTemplate,
+                               RedisFaultInjector faultInjector,
+                               RetryBudgetConfig config,
+                               MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.faultInjector = faultInjector;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("retry.budget.degraded.state", state, s -> s.get().ordinal())
+                .register(meterRegistry);
+        Gauge.builder("retry.budget.degraded.queued.writes", pendingWrites, Map::size)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> command, Supplier<T> fallback) {
+        if (!config.getDegraded().isEnabled()) {
+            return command.get();
+        }
+
+        if (state.get() != CircuitState.CLOSED) {
+            return fallback(fallback);
+        }
+
+        long start = System.nanoTime();
+        try {
+            faultInjector.beforeCall();
+            T result = command.get();
+            recordSuccess(start);
+            return result;
+        } catch (DataAccessException e) {
+            recordFailure(e);
+            return fallback(fallback);
+        }
+    }
+
+    public <T> Mono<T> callAsync(Mono<T> command, Supplier<T> fallback) {
+        if (!config.getDegraded().isEnabled()) {
+            return command;
+        }
+
+        return Mono.defer(() -> {
+            if (state.get() != CircuitState.CLOSED) {
+                return Mono.fromSupplier(() -> fallback(fallback));
+            }
+
+            long start = System.nanoTime();
+            return faultInjector.inject(command)
+                    .timeout(Duration.ofMillis(config.getDegraded().getCallTimeoutMs()))
+                    .doOnSuccess(ignored -> recordSuccess(start))
+                    .onErrorResume(this::isRedisFailure, e -> {
+                        recordFailure(e);
+                        return Mono.fromSupplier(() -> fallback(fallback));
+                    });
+        });
+    }
+
+    /**
+     * Run a write, queueing {@code replay} under {@code key} if it cannot reach Redis
+     */
+    public void write(String key, Runnable command, Runnable replay) {
+        call(() -> {
+            command.run();
+            return Boolean.TRUE;
+        }, () -> {
+            enqueue(key, replay);
+            return Boolean.FALSE;
+        });
+    }
+
+    public Mono<Boolean> writeAsync(String key, Mono<Boolean> command, Runnable replay) {
+        return callAsync(command, () -> {
+            enqueue(key, replay);
+            return Boolean.FALSE;
+        });
+    }
+
+    public boolean isOpen() {
+        return config.getDegraded().isEnabled() && state.get() != CircuitState.CLOSED;
+    }
+
+    public CircuitState getState() {
+        return state.get();
+    }
+
+    public int getQueuedWrites() {
+        return pendingWrites.size();
+    }
+
+    @Scheduled(fixedDelayString = "${retry.budget.degraded.probe-interval-ms:1000}")
+    public void probe() {
+        if (state.get() != CircuitState.OPEN
+                || System.currentTimeMillis() - openedAt < config.getDegraded().getOpenDurationMs()) {
+            return;
+        }
+
+        state.set(CircuitState.HALF_OPEN);
+        try {
+            faultInjector.beforeCall();
+            stringRedisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+
+            int replayed = reconcile();
+            consecutiveFailures.set(0);
+            state.set(CircuitState.CLOSED);
+            // Catch writes that were queued by callers racing the state change
+            replayed += reconcile();
+
+            logger.info("Redis reachable again, circuit closed after replaying {} queued writes", replayed);
+        } catch (DataAccessException e) {
+            openedAt = System.currentTimeMillis();
+            state.set(CircuitState.OPEN);
+            logger.warn("Redis probe failed, circuit stays open: {}", e.getMessage());
+        }
+    }
+
+    private int reconcile() {
+        int replayed = 0;
+        for (Map.Entry<String, Runnable> entry : pendingWrites.entrySet()) {
+            try {
+                faultInjector.beforeCall();
+                entry.getValue().run();
+                replayed++;
+            } catch (DataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                logger.warn("Dropping queued write for {}: {}", entry.getKey(), e.getMessage());
+            }
+            pendingWrites.remove(entry.getKey(), entry.getValue());
+        }
+        meterRegistry.counter("retry.budget.degraded.writes.reconciled").increment(replayed);
+        return replayed;
+    }
+
+    private void enqueue(String key, Runnable replay) {
+        if (pendingWrites.size() >= config.getDegraded().getMaxQueuedWrites() && !pendingWrites.containsKey(key)) {
+            meterRegistry.counter("retry.budget.degraded.writes.dropped").increment();
+            return;
+        }
+        pendingWrites.put(key, replay);
+    }
+
+    private <T> T fallback(Supplier<T> fallback) {
+        meterRegistry.counter("retry.budget.degraded.fallback").increment();
+        return fallback.get();
+    }
+
+    private void recordSuccess(long startNanos) {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        if (elapsedMs > config.getDegraded().getCallTimeoutMs()) {
+            // The answer is still used, but a slow Redis counts against the breaker like a failed one
+            recordFailure(null);
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void recordFailure(Throwable cause) {
+        meterRegistry.counter("retry.budget.degraded.failures").increment();
+
+        if (consecutiveFailures.incrementAndGet() >= config.getDegraded().getFailureThreshold()
+                && state.compareAndSet(CircuitState.CLOSED, CircuitState.OPEN)) {
+            openedAt = System.currentTimeMillis();
+            logger.warn("Redis circuit opened after {} consecutive failures: {}", consecutiveFailures.get(),
+                    cause == null ? "slow responses" : cause.getMessage());
+        }
+    }
+
+    private boolean isRedisFailure(Throwable e) {
+        return e instanceof DataAccessException || e instanceof TimeoutException;
+    }
+}
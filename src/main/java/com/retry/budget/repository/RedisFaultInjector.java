@@ -0,0 +1,96 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a misbehaving Redis. When enabled, every guarded call first passes through
+ * here and can be made to fail, stall or time out the same way Lettuce would report it, so the
+ * degraded mode can be exercised without touching the real server.
+ */
+@Component
+public class RedisFaultInjector {
+
+    private final RetryBudgetConfig config;
+
+    private volatile boolean down;
+    private volatile long latencyMs;
+    private volatile double failureRate;
+
+    public RedisFaultInjector(RetryBudgetConfig config) {
+        this.config = config;
+    }
+
+    public void beforeCall() {
+        if (!config.getDegraded().isFaultInjectionEnabled()) {
+            return;
+        }
+
+        if (down) {
+            throw new RedisConnectionFailureException("Injected fault: Redis unavailable");
+        }
+
+        if (latencyMs > 0) {
+            long timeoutMs = config.getDegraded().getCallTimeoutMs();
+            sleep(Math.min(latencyMs, timeoutMs));
+            if (latencyMs >= timeoutMs) {
+                throw new QueryTimeoutException("Injected fault: Redis command timed out after " + timeoutMs + "ms");
+            }
+        }
+
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new QueryTimeoutException("Injected fault: Redis command failed");
+        }
+    }
+
+    public <T> Mono<T> inject(Mono<T> command) {
+        if (!config.getDegraded().isFaultInjectionEnabled()) {
+            return command;
+        }
+
+        if (down) {
+            return Mono.error(new RedisConnectionFailureException("Injected fault: Redis unavailable"));
+        }
+
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return Mono.error(new QueryTimeoutException("Injected fault: Redis command failed"));
+        }
+
+        return latencyMs > 0 ? command.delaySubscription(Duration.ofMillis(latencyMs)) : command;
+    }
+
+    public void configure(boolean down, long latencyMs, double failureRate) {
+        this.down = down;
+        this.latencyMs = Math.max(0, latencyMs);
+        this.failureRate = Math.max(0.0, Math.min(1.0, failureRate));
+    }
+
+    public void clear() {
+        configure(false, 0, 0.0);
+    }
+
+    public Map<String, Object> getFaults() {
+        Map<String, Object> faults = new HashMap<>();
+        faults.put("enabled", config.getDegraded().isFaultInjectionEnabled());
+        faults.put("down", down);
+        faults.put("latencyMs", latencyMs);
+        faults.put("failureRate", failureRate);
+        return faults;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
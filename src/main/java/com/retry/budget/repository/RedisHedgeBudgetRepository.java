@@ -0,0 +1,79 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.HedgeBudget;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisHedgeBudgetRepository implements HedgeBudgetRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    private final Map<String, HedgeBudget> lastKnown = new ConcurrentHashMap<>();
+    
+    public RedisHedgeBudgetRepository(RedisTemplate<String, Object> redisTemplate,
+                                      RedisCircuitBreaker circuitBreaker,
+                                      ServiceRegistry serviceRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+    }
+    
+    @Override
+    public void saveHedgeBudget(HedgeBudget budget) {
+        String key = keyFor(budget.getServiceName());
+        lastKnown.put(budget.getServiceName(), budget);
+        circuitBreaker.write(key,
+                () -> redisTemplate.opsForValue().set(key, budget, TTL_SECONDS, TimeUnit.SECONDS),
+                () -> reconcile(budget));
+    }
+    
+    @Override
+    public HedgeBudget getHedgeBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.call(() -> {
+            HedgeBudget budget = (HedgeBudget) redisTemplate.opsForValue().get(key);
+            if (budget != null) {
+                lastKnown.put(serviceName, budget);
+            }
+            return budget;
+        }, () -> lastKnown.get(serviceName));
+    }
+    
+    @Override
+    public void deleteHedgeBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        lastKnown.remove(serviceName);
+        circuitBreaker.write(key, () -> redisTemplate.delete(key), () -> redisTemplate.delete(key));
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        lastKnown.remove(serviceName);
+    }
+    
+    private void reconcile(HedgeBudget budget) {
+        String key = keyFor(budget.getServiceName());
+        HedgeBudget remote = (HedgeBudget) redisTemplate.opsForValue().get(key);
+        
+        if (remote == null || remote.getLastCalculated() == null || budget.getLastCalculated() == null
+                || !remote.getLastCalculated().isAfter(budget.getLastCalculated())) {
+            redisTemplate.opsForValue().set(key, budget, TTL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.HEDGE);
+    }
+}
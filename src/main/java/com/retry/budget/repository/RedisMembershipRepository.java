@@ -0,0 +1,46 @@
+package com.retry.budget.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+/**
+ * Heartbeats are scores in one sorted set keyed by node id, so listing live members is a single
+ * range query and members that died without leaving are pruned by score on the next read.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisMembershipRepository implements MembershipRepository {
+    
+    private static final String MEMBERS_KEY = "cluster:members";
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    
+    public RedisMembershipRepository(StringRedisTemplate stringRedisTemplate,
+                                     RedisCircuitBreaker circuitBreaker) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    @Override
+    public void heartbeat(String nodeId, long nowMs) {
+        circuitBreaker.call(() -> stringRedisTemplate.opsForZSet().add(MEMBERS_KEY, nodeId, nowMs), () -> Boolean.FALSE);
+    }
+    
+    @Override
+    public Set<String> getLiveNodes(long nowMs, long ttlMs) {
+        return circuitBreaker.call(() -> {
+            stringRedisTemplate.opsForZSet().removeRangeByScore(MEMBERS_KEY, Double.NEGATIVE_INFINITY, nowMs - ttlMs);
+            Set<String> members = stringRedisTemplate.opsForZSet().range(MEMBERS_KEY, 0, -1);
+            return members == null ? Set.<String>of() : members;
+        }, Set::of);
+    }
+    
+    @Override
+    public void leave(String nodeId) {
+        circuitBreaker.call(() -> stringRedisTemplate.opsForZSet().remove(MEMBERS_KEY, nodeId), () -> 0L);
+    }
+}
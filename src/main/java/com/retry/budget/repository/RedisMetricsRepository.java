@@ -0,0 +1,174 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisMetricsRepository implements MetricsRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    
+    // Last metrics seen or written per service; recording keeps accumulating here during an outage
+    private final Map<String, ServiceMetrics> lastKnown = new ConcurrentHashMap<>();
+    
+    // Services restored from a snapshot whose state has not been found in Redis yet
+    private final Set<String> seeded = ConcurrentHashMap.newKeySet();
+    
+    public RedisMetricsRepository(RedisTemplate<String, Object> redisTemplate,
+                                  RedisCircuitBreaker circuitBreaker,
+                                  ServiceRegistry serviceRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+    }
+    
+    @Override
+    public void saveMetrics(ServiceMetrics metrics) {
+        String key = keyFor(metrics.getServiceName());
+        remember(metrics);
+        circuitBreaker.write(key,
+                () -> redisTemplate.opsForValue().set(key, metrics, TTL_SECONDS, TimeUnit.SECONDS),
+                () -> reconcile(metrics));
+    }
+    
+    @Override
+    public ServiceMetrics getMetrics(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.call(() -> {
+            ServiceMetrics metrics = (ServiceMetrics) redisTemplate.opsForValue().get(key);
+            if (metrics != null) {
+                seeded.remove(serviceName);
+                remember(metrics);
+                return metrics;
+            }
+            // Answer the first miss from a restored snapshot; the caller writes it back to Redis
+            return seeded.remove(serviceName) ? lastKnown(serviceName) : null;
+        }, () -> lastKnown(serviceName));
+    }
+    
+    /**
+     * Optimistic update: WATCH the key, apply the change to what was read and commit with MULTI/EXEC,
+     * starting over when another writer got in between. During an outage the change is applied to
+     * the last known copy and replayed like any other write.
+     */
+    @Override
+    public ServiceMetrics updateMetrics(String serviceName, UnaryOperator<ServiceMetrics> update) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.call(() -> {
+            for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+                ServiceMetrics updated = redisTemplate.execute(compareAndSet(serviceName, key, update));
+                if (updated != null) {
+                    remember(updated);
+                    return updated;
+                }
+            }
+            throw new IllegalStateException("Metrics for " + serviceName + " kept changing during "
+                    + MAX_UPDATE_ATTEMPTS + " update attempts");
+        }, () -> {
+            ServiceMetrics updated = update.apply(lastKnown(serviceName));
+            saveMetrics(updated);
+            return updated;
+        });
+    }
+    
+    @Override
+    public void deleteMetrics(String serviceName) {
+        String key = keyFor(serviceName);
+        lastKnown.remove(serviceName);
+        circuitBreaker.write(key, () -> redisTemplate.delete(key), () -> redisTemplate.delete(key));
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        lastKnown.remove(serviceName);
+        seeded.remove(serviceName);
+    }
+    
+    @Override
+    public Collection<ServiceMetrics> getLocalMetrics() {
+        return lastKnown.values().stream().map(ServiceMetrics::copy).toList();
+    }
+    
+    @Override
+    public void restoreMetrics(ServiceMetrics metrics) {
+        if (lastKnown.putIfAbsent(metrics.getServiceName(), metrics) == null) {
+            seeded.add(metrics.getServiceName());
+        }
+    }
+    
+    ServiceMetrics lastKnown(String serviceName) {
+        ServiceMetrics metrics = lastKnown.get(serviceName);
+        return metrics == null ? null : metrics.copy();
+    }
+    
+    void remember(ServiceMetrics metrics) {
+        lastKnown.put(metrics.getServiceName(), metrics.copy());
+    }
+    
+    /**
+     * Replay metrics recorded during an outage unless Redis has since seen more requests
+     */
+    void reconcile(ServiceMetrics metrics) {
+        String key = keyFor(metrics.getServiceName());
+        ServiceMetrics remote = (ServiceMetrics) redisTemplate.opsForValue().get(key);
+        
+        if (remote == null || remote.getTotalRequests() <= metrics.getTotalRequests()) {
+            redisTemplate.opsForValue().set(key, metrics, TTL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * One WATCH/MULTI/EXEC round; null when EXEC was aborted because the key changed
+     */
+    private SessionCallback<ServiceMetrics> compareAndSet(String serviceName, String key,
+                                                          UnaryOperator<ServiceMetrics> update) {
+        return new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> ServiceMetrics execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redis = (RedisOperations<String, Object>) operations;
+                redis.watch(key);
+                
+                ServiceMetrics stored = (ServiceMetrics) redis.opsForValue().get(key);
+                if (stored == null && seeded.contains(serviceName)) {
+                    stored = lastKnown(serviceName);
+                }
+                ServiceMetrics updated = update.apply(stored);
+                
+                redis.multi();
+                redis.opsForValue().set(key, updated, TTL_SECONDS, TimeUnit.SECONDS);
+                List<Object> results = redis.exec();
+                if (results == null || results.isEmpty()) {
+                    return null;
+                }
+                seeded.remove(serviceName);
+                return updated;
+            }
+        };
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.METRICS);
+    }
+}
@@ -0,0 +1,69 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.NodeMetricsSketch;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sketches live in one hash per service with a field per node. Each node only ever writes its own
+ * field, so publishing is a blind overwrite with no read-modify-write, and a merge is one HVALS.
+ * Sketches are republished every interval, so failed publishes are dropped rather than queued.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisNodeSketchRepository implements NodeSketchRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    
+    public RedisNodeSketchRepository(RedisTemplate<String, Object> redisTemplate,
+                                     RedisCircuitBreaker circuitBreaker,
+                                     ServiceRegistry serviceRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+    }
+    
+    @Override
+    public void publish(NodeMetricsSketch sketch) {
+        String key = keyFor(sketch.getServiceName());
+        circuitBreaker.call(() -> {
+            hashOps().put(key, sketch.getNodeId(), sketch);
+            return redisTemplate.expire(key, TTL_SECONDS, TimeUnit.SECONDS);
+        }, () -> Boolean.FALSE);
+    }
+    
+    @Override
+    public List<NodeMetricsSketch> getSketches(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.call(() -> hashOps().values(key), List::of);
+    }
+    
+    @Override
+    public void removeSketches(String serviceName, Collection<String> nodeIds) {
+        if (nodeIds.isEmpty()) {
+            return;
+        }
+        String key = keyFor(serviceName);
+        circuitBreaker.call(() -> hashOps().delete(key, nodeIds.toArray()), () -> 0L);
+    }
+    
+    private HashOperations<String, String, NodeMetricsSketch> hashOps() {
+        return redisTemplate.opsForHash();
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.SKETCH);
+    }
+}
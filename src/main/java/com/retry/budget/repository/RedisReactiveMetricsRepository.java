@@ -0,0 +1,66 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking counterpart of {@link RedisMetricsRepository}. Commands are written to Lettuce's shared,
+ * multiplexed connection, so concurrent callers are pipelined rather than queued on a pool.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisReactiveMetricsRepository implements ReactiveMetricsRepository {
+    
+    private static final Duration TTL = Duration.ofSeconds(300);
+    
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    private final RedisMetricsRepository metricsRepository;
+    
+    public RedisReactiveMetricsRepository(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                          RedisCircuitBreaker circuitBreaker,
+                                          RedisMetricsRepository metricsRepository,
+                                          ServiceRegistry serviceRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+        this.metricsRepository = metricsRepository;
+    }
+    
+    @Override
+    public Mono<Boolean> saveMetrics(ServiceMetrics metrics) {
+        String key = keyFor(metrics.getServiceName());
+        metricsRepository.remember(metrics);
+        return circuitBreaker.writeAsync(key,
+                reactiveRedisTemplate.opsForValue().set(key, metrics, TTL),
+                () -> metricsRepository.reconcile(metrics));
+    }
+    
+    @Override
+    public Mono<ServiceMetrics> getMetrics(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.callAsync(
+                reactiveRedisTemplate.opsForValue().get(key)
+                        .cast(ServiceMetrics.class)
+                        .doOnNext(metricsRepository::remember),
+                () -> metricsRepository.lastKnown(serviceName));
+    }
+    
+    @Override
+    public Mono<Long> deleteMetrics(String serviceName) {
+        String key = keyFor(serviceName);
+        return reactiveRedisTemplate.delete(key);
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.METRICS);
+    }
+}
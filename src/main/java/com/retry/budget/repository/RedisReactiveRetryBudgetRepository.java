@@ -0,0 +1,66 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking counterpart of {@link RedisRetryBudgetRepository}, sharing its key layout and its
+ * last-known budgets for when the circuit to Redis is open.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisReactiveRetryBudgetRepository implements ReactiveRetryBudgetRepository {
+    
+    private static final Duration TTL = Duration.ofSeconds(300);
+    
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    private final RedisRetryBudgetRepository budgetRepository;
+    
+    public RedisReactiveRetryBudgetRepository(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                              RedisCircuitBreaker circuitBreaker,
+                                              RedisRetryBudgetRepository budgetRepository,
+                                              ServiceRegistry serviceRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+        this.budgetRepository = budgetRepository;
+    }
+    
+    @Override
+    public Mono<Boolean> saveBudget(RetryBudget budget) {
+        String key = keyFor(budget.getServiceName());
+        budgetRepository.remember(budget);
+        return circuitBreaker.writeAsync(key,
+                reactiveRedisTemplate.opsForValue().set(key, budget, TTL),
+                () -> budgetRepository.reconcile(budget));
+    }
+    
+    @Override
+    public Mono<RetryBudget> getBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.callAsync(
+                reactiveRedisTemplate.opsForValue().get(key)
+                        .cast(RetryBudget.class)
+                        .doOnNext(budgetRepository::remember),
+                () -> budgetRepository.lastKnown(serviceName));
+    }
+    
+    @Override
+    public Mono<Long> deleteBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        return reactiveRedisTemplate.delete(key);
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.BUDGET);
+    }
+}
@@ -0,0 +1,139 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisRetryBudgetRepository implements RetryBudgetRepository {
+    
+    private static final long TTL_SECONDS = 300;
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ServiceRegistry serviceRegistry;
+    
+    // Last budget seen or written per service, served while Redis is unreachable
+    private final Map<String, RetryBudget> lastKnown = new ConcurrentHashMap<>();
+    
+    // Services restored from a snapshot whose state has not been found in Redis yet
+    private final Set<String> seeded = ConcurrentHashMap.newKeySet();
+    
+    public RedisRetryBudgetRepository(RedisTemplate<String, Object> redisTemplate,
+                                      RedisCircuitBreaker circuitBreaker,
+                                      ServiceRegistry serviceRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.serviceRegistry = serviceRegistry;
+    }
+    
+    @Override
+    public void saveBudget(RetryBudget budget) {
+        String key = keyFor(budget.getServiceName());
+        remember(budget);
+        circuitBreaker.write(key,
+                () -> redisTemplate.opsForValue().set(key, budget, TTL_SECONDS, TimeUnit.SECONDS),
+                () -> reconcile(budget));
+    }
+    
+    @Override
+    public RetryBudget getBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        return circuitBreaker.call(() -> {
+            RetryBudget budget = (RetryBudget) redisTemplate.opsForValue().get(key);
+            if (budget != null) {
+                seeded.remove(serviceName);
+                remember(budget);
+                return budget;
+            }
+            // Answer the first miss from a restored snapshot; the caller writes it back to Redis
+            return seeded.remove(serviceName) ? lastKnown(serviceName) : null;
+        }, () -> lastKnown(serviceName));
+    }
+    
+    @Override
+    public void deleteBudget(String serviceName) {
+        String key = keyFor(serviceName);
+        lastKnown.remove(serviceName);
+        circuitBreaker.write(key, () -> redisTemplate.delete(key), () -> redisTemplate.delete(key));
+    }
+    
+    @Override
+    public void forgetLocal(String serviceName) {
+        lastKnown.remove(serviceName);
+        seeded.remove(serviceName);
+    }
+    
+    @Override
+    public Set<String> getAllServiceNames() {
+        return circuitBreaker.call(() -> {
+            Set<String> keys = redisTemplate.keys(RedisKeySpace.BUDGET.getPrefix() + "*");
+            return keys.stream()
+                    .map(key -> key.substring(RedisKeySpace.BUDGET.getPrefix().length()))
+                    .collect(Collectors.toSet());
+        }, () -> new HashSet<>(lastKnown.keySet()));
+    }
+    
+    @Override
+    public boolean hasLastKnown(String serviceName) {
+        return lastKnown.containsKey(serviceName);
+    }
+    
+    @Override
+    public Collection<RetryBudget> getLocalBudgets() {
+        return lastKnown.values().stream().map(budget -> budget.toBuilder().build()).toList();
+    }
+    
+    @Override
+    public void restoreBudget(RetryBudget budget) {
+        if (lastKnown.putIfAbsent(budget.getServiceName(), budget) == null) {
+            seeded.add(budget.getServiceName());
+        }
+    }
+    
+    RetryBudget lastKnown(String serviceName) {
+        RetryBudget budget = lastKnown.get(serviceName);
+        return budget == null ? null : budget.toBuilder().build();
+    }
+    
+    void remember(RetryBudget budget) {
+        lastKnown.put(budget.getServiceName(), budget.toBuilder().build());
+    }
+    
+    /**
+     * Replay a budget written during an outage. A budget recalculated elsewhere in the meantime wins;
+     * for the same allocation the higher usage is kept so no node's consumption is forgotten.
+     */
+    void reconcile(RetryBudget budget) {
+        String key = keyFor(budget.getServiceName());
+        RetryBudget remote = (RetryBudget) redisTemplate.opsForValue().get(key);
+        
+        if (remote != null && remote.getLastCalculated() != null && budget.getLastCalculated() != null) {
+            if (remote.getLastCalculated().isAfter(budget.getLastCalculated())) {
+                return;
+            }
+            if (remote.getLastCalculated().isEqual(budget.getLastCalculated())
+                    && remote.getUsedBudget() > budget.getUsedBudget()) {
+                return;
+            }
+        }
+        
+        redisTemplate.opsForValue().set(key, budget, TTL_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    private String keyFor(String serviceName) {
+        return serviceRegistry.intern(serviceName).key(RedisKeySpace.BUDGET);
+    }
+}
@@ -0,0 +1,137 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.FailurePolicy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ceiling counters shared across nodes: one Redis hash per window, checked (and incremented by the
+ * given permits) atomically by one script call. A request is allowed only if all of its permits fit
+ * under every cap; a check without permits asks whether one more would.
+ * While the circuit to Redis is open the ceiling cannot be evaluated, so the configured failure
+ * policy decides; permits taken during an outage are not replayed since their window has passed.
+ */
+@Repository
+@ConditionalOnProperty(name = "retry.budget.storage.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisRetryCeilingRepository implements RetryCeilingRepository {
+    
+    private static final String CEILING_KEY_PREFIX = "ceiling:";
+    
+    private static final RedisScript<Long> CEILING_SCRIPT = new DefaultRedisScript<>("""
+            local key = KEYS[1]
+            local service = ARGV[1]
+            local group = ARGV[2]
+            local globalCap = tonumber(ARGV[3])
+            local groupCap = tonumber(ARGV[4])
+            local weight = tonumber(ARGV[5])
+            local enforceAbove = tonumber(ARGV[6])
+            if redis.call('HSETNX', key, 'w:' .. service, weight) == 1 then
+                redis.call('HINCRBYFLOAT', key, 'weights', weight)
+                redis.call('EXPIRE', key, tonumber(ARGV[8]))
+            end
+            local permits = tonumber(ARGV[7])
+            local need = math.max(permits, 1)
+            local globalUsed = tonumber(redis.call('HGET', key, 'global') or '0')
+            if globalUsed + need > globalCap then
+                return 1
+            end
+            if group ~= '' then
+                local groupUsed = tonumber(redis.call('HGET', key, 'grp:' .. group) or '0')
+                if groupUsed + need > groupCap then
+                    return 2
+                end
+            end
+            if globalUsed >= globalCap * enforceAbove then
+                local share = globalCap * weight / tonumber(redis.call('HGET', key, 'weights'))
+                local serviceUsed = tonumber(redis.call('HGET', key, 'svc:' .. service) or '0')
+                if serviceUsed + need > share then
+                    return 3
+                end
+            end
+            if permits > 0 then
+                redis.call('HINCRBY', key, 'global', permits)
+                redis.call('HINCRBY', key, 'svc:' .. service, permits)
+                if group ~= '' then
+                    redis.call('HINCRBY', key, 'grp:' .. group, permits)
+                end
+            end
+            return 0
+            """, Long.class);
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RetryBudgetConfig config;
+    
+    public RedisRetryCeilingRepository(StringRedisTemplate stringRedisTemplate,
+                                       ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                       RedisCircuitBreaker circuitBreaker,
+                                       RetryBudgetConfig config) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.config = config;
+    }
+    
+    @Override
+    public CeilingDecision evaluate(long window, String serviceName, String group, int globalCap, int groupCap,
+                                    double weight, double enforceAboveFraction, int permits, long ttlSeconds) {
+        return circuitBreaker.call(() -> toDecision(stringRedisTemplate.execute(CEILING_SCRIPT,
+                        List.of(CEILING_KEY_PREFIX + window),
+                        scriptArgs(serviceName, group, globalCap, groupCap, weight, enforceAboveFraction, permits, ttlSeconds))),
+                this::unavailableDecision);
+    }
+    
+    @Override
+    public Mono<CeilingDecision> evaluateAsync(long window, String serviceName, String group, int globalCap, int groupCap,
+                                               double weight, double enforceAboveFraction, int permits, long ttlSeconds) {
+        return circuitBreaker.callAsync(reactiveStringRedisTemplate.execute(CEILING_SCRIPT,
+                                List.of(CEILING_KEY_PREFIX + window),
+                                List.of(scriptArgs(serviceName, group, globalCap, groupCap, weight, enforceAboveFraction, permits, ttlSeconds)))
+                        .next()
+                        .map(this::toDecision)
+                        .defaultIfEmpty(CeilingDecision.WITHIN_CEILING),
+                this::unavailableDecision);
+    }
+    
+    @Override
+    public Map<Object, Object> getUsage(long window) {
+        return circuitBreaker.call(() -> stringRedisTemplate.opsForHash().entries(CEILING_KEY_PREFIX + window),
+                HashMap::new);
+    }
+    
+    private Object[] scriptArgs(String serviceName, String group, int globalCap, int groupCap,
+                                double weight, double enforceAboveFraction, int permits, long ttlSeconds) {
+        return new Object[]{
+                serviceName,
+                group == null ? "" : group,
+                String.valueOf(globalCap),
+                String.valueOf(groupCap),
+                String.valueOf(weight),
+                String.valueOf(enforceAboveFraction),
+                String.valueOf(permits),
+                String.valueOf(ttlSeconds)
+        };
+    }
+    
+    private CeilingDecision toDecision(Long code) {
+        return CeilingDecision.values()[code == null ? 0 : code.intValue()];
+    }
+    
+    private CeilingDecision unavailableDecision() {
+        return config.getDegraded().getFailurePolicy() == FailurePolicy.FAIL_CLOSED
+                ? CeilingDecision.GLOBAL_EXHAUSTED
+                : CeilingDecision.WITHIN_CEILING;
+    }
+}
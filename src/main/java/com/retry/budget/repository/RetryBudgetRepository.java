@@ -1,44 +1,42 @@
 package com.retry.budget.repository;
 
 import com.retry.budget.model.RetryBudget;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
-@Repository
-public class RetryBudgetRepository {
-    
-    private static final String BUDGET_KEY_PREFIX = "budget:";
-    private static final long TTL_SECONDS = 300;
-    
-    private final RedisTemplate<String, Object> redisTemplate;
-    
-    public RetryBudgetRepository(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
-    }
-    
-    public void saveBudget(RetryBudget budget) {
-        String key = BUDGET_KEY_PREFIX + budget.getServiceName();
-        redisTemplate.opsForValue().set(key, budget, TTL_SECONDS, TimeUnit.SECONDS);
-    }
-    
-    public RetryBudget getBudget(String serviceName) {
-        String key = BUDGET_KEY_PREFIX + serviceName;
-        return (RetryBudget) redisTemplate.opsForValue().get(key);
-    }
-    
-    public void deleteBudget(String serviceName) {
-        String key = BUDGET_KEY_PREFIX + serviceName;
-        redisTemplate.delete(key);
-    }
-    
-    public Set<String> getAllServiceNames() {
-        Set<String> keys = redisTemplate.keys(BUDGET_KEY_PREFIX + "*");
-        return keys.stream()
-                .map(key -> key.replace(BUDGET_KEY_PREFIX, ""))
-                .collect(Collectors.toSet());
-    }
-}
\ No newline at end of file
+/**
+ * Storage for per-service retry budgets. The backend is chosen with
+ * {@code retry.budget.storage.backend}: {@code redis} (shared, the default) or {@code memory}
+ * (single node, no external dependency).
+ */
+public interface RetryBudgetRepository {
+    
+    void saveBudget(RetryBudget budget);
+    
+    RetryBudget getBudget(String serviceName);
+    
+    void deleteBudget(String serviceName);
+    
+    Set<String> getAllServiceNames();
+    
+    /**
+     * Whether a budget for the service is held locally, regardless of the state of the backend
+     */
+    boolean hasLastKnown(String serviceName);
+    
+    /**
+     * Drop the copy held in this node's memory; shared storage is left alone
+     */
+    void forgetLocal(String serviceName);
+    
+    /**
+     * Budgets held by this node, for snapshotting
+     */
+    Collection<RetryBudget> getLocalBudgets();
+    
+    /**
+     * Seed a budget from a snapshot; state already present in the backend takes precedence
+     */
+    void restoreBudget(RetryBudget budget);
+}
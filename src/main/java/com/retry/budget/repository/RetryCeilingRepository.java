@@ -0,0 +1,21 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.CeilingDecision;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Global, per-group and per-service retry counters for one ceiling window. An evaluation checks
+ * every ceiling and, when all pass, takes the given permits as one atomic step.
+ */
+public interface RetryCeilingRepository {
+    
+    CeilingDecision evaluate(long window, String serviceName, String group, int globalCap, int groupCap,
+                             double weight, double enforceAboveFraction, int permits, long ttlSeconds);
+    
+    Mono<CeilingDecision> evaluateAsync(long window, String serviceName, String group, int globalCap, int groupCap,
+                                        double weight, double enforceAboveFraction, int permits, long ttlSeconds);
+    
+    Map<Object, Object> getUsage(long window);
+}
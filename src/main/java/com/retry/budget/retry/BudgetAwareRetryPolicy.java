@@ -0,0 +1,142 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.service.BudgetEnforcementAgent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.classify.BinaryExceptionClassifier;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.context.RetryContextSupport;
+
+/**
+ * Spring Retry policy that delegates the retry decision to the BudgetEnforcementAgent.
+ * Each granted retry reserves one unit of budget as it is granted, so concurrent loops cannot
+ * all pass the check before any of them consumes. RetryTemplate asks again for the same failure
+ * right before the next attempt, which marks the reservation as used; one still unused when the
+ * loop closes (the back-off was interrupted) is given back.
+ */
+@Slf4j
+public class BudgetAwareRetryPolicy implements RetryPolicy {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BudgetEnforcementAgent budgetEnforcementAgent;
+    private final String serviceName;
+    private final RetryPriority priority;
+    private final int maxRetries;
+    private final BinaryExceptionClassifier retryableClassifier;
+
+    public BudgetAwareRetryPolicy(BudgetEnforcementAgent budgetEnforcementAgent,
+                                  String serviceName,
+                                  RetryPriority priority,
+                                  int maxRetries) {
+        this(budgetEnforcementAgent, serviceName, priority, maxRetries, new BinaryExceptionClassifier(true));
+    }
+
+    public BudgetAwareRetryPolicy(BudgetEnforcementAgent budgetEnforcementAgent,
+                                  String serviceName,
+                                  RetryPriority priority,
+                                  int maxRetries,
+                                  BinaryExceptionClassifier retryableClassifier) {
+        this.budgetEnforcementAgent = budgetEnforcementAgent;
+        this.serviceName = serviceName;
+        this.priority = priority;
+        this.maxRetries = maxRetries;
+        this.retryableClassifier = retryableClassifier;
+    }
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        BudgetRetryContext budgetContext = (BudgetRetryContext) context;
+        int failures = budgetContext.getRetryCount();
+
+        if (failures == 0) {
+            return true;
+        }
+
+        if (failures == budgetContext.retriesGranted) {
+            budgetContext.pendingReservation = false;
+            return true;
+        }
+
+        if (failures == budgetContext.deniedAt) {
+            return false;
+        }
+
+        // A new failure means the attempt behind the previous grant ran
+        budgetContext.pendingReservation = false;
+
+        if (failures > maxRetries || !retryableClassifier.classify(budgetContext.getLastThrowable())) {
+            return false;
+        }
+
+        budgetContext.decision = budgetEnforcementAgent.reserveRetry(serviceName, priority);
+        if (budgetContext.decision == RetryDecision.DENY) {
+            budgetContext.deniedAt = failures;
+            return false;
+        }
+
+        budgetContext.retriesGranted = failures;
+        budgetContext.pendingReservation = true;
+        return true;
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        return new BudgetRetryContext(parent, serviceName);
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        BudgetRetryContext budgetContext = (BudgetRetryContext) context;
+        if (!budgetContext.pendingReservation) {
+            return;
+        }
+
+        budgetContext.pendingReservation = false;
+        try {
+            budgetEnforcementAgent.releaseRetry(serviceName, priority, 1);
+        } catch (Exception e) {
+            log.warn("Error releasing retry budget for service {}: {}", serviceName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        ((BudgetRetryContext) context).registerThrowable(throwable);
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return maxRetries + 1;
+    }
+
+    public static class BudgetRetryContext extends RetryContextSupport {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String serviceName;
+        private RetryDecision decision;
+        private int retriesGranted;
+        private int deniedAt;
+        private boolean pendingReservation;
+
+        public BudgetRetryContext(RetryContext parent, String serviceName) {
+            super(parent);
+            this.serviceName = serviceName;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public RetryDecision getDecision() {
+            return decision;
+        }
+
+        public int getRetriesGranted() {
+            return retriesGranted;
+        }
+    }
+}
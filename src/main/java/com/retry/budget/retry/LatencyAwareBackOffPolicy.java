@@ -0,0 +1,65 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.enums.RetryDecision;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+
+/**
+ * Exponential backoff whose base delay is the service's live median latency. Latency stats are
+ * only fetched on the first backoff of a loop, so successful calls never touch the store.
+ */
+public class LatencyAwareBackOffPolicy implements BackOffPolicy {
+
+    private final LatencyBackoff latencyBackoff;
+    private final String serviceName;
+    private Sleeper sleeper = new ThreadWaitSleeper();
+
+    public LatencyAwareBackOffPolicy(LatencyBackoff latencyBackoff, String serviceName) {
+        this.latencyBackoff = latencyBackoff;
+        this.serviceName = serviceName;
+    }
+
+    public void setSleeper(Sleeper sleeper) {
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new LatencyBackOffContext(context);
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+        LatencyBackOffContext context = (LatencyBackOffContext) backOffContext;
+
+        if (context.baseDelayMs < 0) {
+            context.baseDelayMs = latencyBackoff.baseDelayMs(serviceName, 0);
+        }
+
+        boolean deferred = context.retryContext instanceof BudgetAwareRetryPolicy.BudgetRetryContext budgetContext
+                && budgetContext.getDecision() == RetryDecision.DEFER;
+        try {
+            sleeper.sleep(latencyBackoff.delayMs(context.baseDelayMs, context.backOffs++, deferred));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackOffInterruptedException("Thread interrupted while sleeping", e);
+        }
+    }
+
+    private static final class LatencyBackOffContext implements BackOffContext {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RetryContext retryContext;
+        private long baseDelayMs = -1;
+        private int backOffs;
+
+        private LatencyBackOffContext(RetryContext retryContext) {
+            this.retryContext = retryContext;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.service.LatencyAnalyzer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff delays shared by {@link LatencyAwareBackOffPolicy} and the {@code @RetryBudgeted} aspect:
+ * exponential growth from the service's live median latency, doubled on DEFER, capped at
+ * {@code backoff.max-ms} and jittered over the upper half of the ceiling.
+ */
+@Component
+public class LatencyBackoff {
+
+    private final LatencyAnalyzer latencyAnalyzer;
+    private final RetryBudgetConfig.Backoff settings;
+
+    public LatencyBackoff(LatencyAnalyzer latencyAnalyzer, RetryBudgetConfig config) {
+        this.latencyAnalyzer = latencyAnalyzer;
+        this.settings = config.getBackoff();
+    }
+
+    /**
+     * @param floorMs lower bound on top of {@code backoff.min-ms}, e.g. a per-method backoff
+     */
+    public long baseDelayMs(String serviceName, long floorMs) {
+        long p50 = Math.round(latencyAnalyzer.analyzeLatency(serviceName).getP50());
+        return Math.max(Math.max(settings.getMinMs(), floorMs), p50);
+    }
+
+    public long delayMs(long baseDelayMs, int backOffs, boolean deferred) {
+        double delay = baseDelayMs * Math.pow(settings.getMultiplier(), backOffs);
+        if (deferred) {
+            delay *= 2;
+        }
+
+        long ceiling = Math.min(settings.getMaxMs(), Math.round(delay));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+}
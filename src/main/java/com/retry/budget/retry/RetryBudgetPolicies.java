@@ -0,0 +1,58 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.service.BudgetEnforcementAgent;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds Spring Retry templates and interceptors backed by the retry budget, e.g.
+ * {@code @Retryable(interceptor = "paymentRetryInterceptor")} with a bean created from
+ * {@link #interceptor(String)}.
+ */
+@Component
+public class RetryBudgetPolicies {
+
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    private final BudgetEnforcementAgent budgetEnforcementAgent;
+    private final LatencyBackoff latencyBackoff;
+    private final RetryBudgetConfig config;
+
+    public RetryBudgetPolicies(BudgetEnforcementAgent budgetEnforcementAgent,
+                               LatencyBackoff latencyBackoff,
+                               RetryBudgetConfig config) {
+        this.budgetEnforcementAgent = budgetEnforcementAgent;
+        this.latencyBackoff = latencyBackoff;
+        this.config = config;
+    }
+
+    public BudgetAwareRetryPolicy retryPolicy(String serviceName, RetryPriority priority, int maxRetries) {
+        return new BudgetAwareRetryPolicy(budgetEnforcementAgent, serviceName, priority, maxRetries);
+    }
+
+    public LatencyAwareBackOffPolicy backOffPolicy(String serviceName) {
+        return new LatencyAwareBackOffPolicy(latencyBackoff, serviceName);
+    }
+
+    public RetryTemplate retryTemplate(String serviceName) {
+        return retryTemplate(serviceName, config.getPriority().getDefaultPriority(), DEFAULT_MAX_RETRIES);
+    }
+
+    public RetryTemplate retryTemplate(String serviceName, RetryPriority priority, int maxRetries) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy(serviceName, priority, maxRetries));
+        retryTemplate.setBackOffPolicy(backOffPolicy(serviceName));
+        return retryTemplate;
+    }
+
+    public RetryOperationsInterceptor interceptor(String serviceName) {
+        return RetryInterceptorBuilder.stateless()
+                .retryOperations(retryTemplate(serviceName))
+                .label(serviceName)
+                .build();
+    }
+}
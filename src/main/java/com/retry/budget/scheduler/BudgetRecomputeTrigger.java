@@ -0,0 +1,101 @@
+package com.retry.budget.scheduler;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.event.ForecastThresholdCrossedEvent;
+import com.retry.budget.event.HealthThresholdCrossedEvent;
+import com.retry.budget.service.FleetMetricsService;
+import com.retry.budget.service.RetryBudgetControllerService;
+import com.retry.budget.service.ServiceOwnership;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes a single service's budget shortly after it crosses a health threshold. Crossings for
+ * a service that already has a recompute pending are absorbed, so a flapping service costs at most
+ * one recompute per debounce window, and a resize keeps what was already spent, so flapping never
+ * refills the budget. Only the node that owns the service recomputes it, as on the scheduled path;
+ * {@link BudgetUpdateScheduler} remains the safety net.
+ */
+@Component
+public class BudgetRecomputeTrigger {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetRecomputeTrigger.class);
+    
+    private final RetryBudgetControllerService budgetControllerService;
+    private final FleetMetricsService fleetMetricsService;
+    private final ServiceOwnership serviceOwnership;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "budget-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public BudgetRecomputeTrigger(RetryBudgetControllerService budgetControllerService,
+                                  FleetMetricsService fleetMetricsService,
+                                  ServiceOwnership serviceOwnership,
+                                  RetryBudgetConfig config,
+                                  MeterRegistry meterRegistry) {
+        this.budgetControllerService = budgetControllerService;
+        this.fleetMetricsService = fleetMetricsService;
+        this.serviceOwnership = serviceOwnership;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @EventListener
+    public void onThresholdCrossed(HealthThresholdCrossedEvent event) {
+        logger.debug("{} moved from {} to {}", event.serviceName(), event.from(), event.to());
+        schedule(event.serviceName());
+    }
+    
+    @EventListener
+    public void onForecastCrossed(ForecastThresholdCrossedEvent event) {
+        logger.debug("Forecast for {} crossed a budget threshold", event.serviceName());
+        schedule(event.serviceName());
+    }
+    
+    private void schedule(String serviceName) {
+        if (!config.getRecompute().isEnabled() || !serviceOwnership.isOwner(serviceName)) {
+            return;
+        }
+        
+        if (pending.add(serviceName)) {
+            executor.schedule(() -> recompute(serviceName),
+                    config.getRecompute().getDebounceMs(), TimeUnit.MILLISECONDS);
+        } else {
+            meterRegistry.counter("retry.budget.recompute.debounced").increment();
+        }
+    }
+    
+    private void recompute(String serviceName) {
+        pending.remove(serviceName);
+        long start = System.nanoTime();
+        
+        try {
+            fleetMetricsService.refresh(serviceName);
+            budgetControllerService.resizeBudget(serviceName);
+            meterRegistry.timer("retry.budget.recompute.triggered", "service", serviceName)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            logger.error("Triggered budget recompute failed for {}: {}", serviceName, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
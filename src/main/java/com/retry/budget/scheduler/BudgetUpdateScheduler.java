@@ -22,8 +22,8 @@ public class BudgetUpdateScheduler {
         logger.info("Starting scheduled budget update");
         
         try {
-            budgetControllerService.updateAllBudgets();
-            logger.info("Budget update completed successfully");
+            int updated = budgetControllerService.updateOwnedBudgets();
+            logger.info("Budget update completed successfully for {} owned services", updated);
         } catch (Exception e) {
             logger.error("Error during budget update: {}", e.getMessage(), e);
         }
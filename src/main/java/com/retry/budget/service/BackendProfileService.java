@@ -0,0 +1,246 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.LatencyDistribution;
+import com.retry.budget.model.BackendPhase;
+import com.retry.budget.model.BackendProfile;
+import com.retry.budget.util.LatencySampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated demo backends, seeded from {@code retry.budget.demo-backends} and registered or replaced
+ * over REST at runtime. Each request draws from the calling thread's own random generator; the only
+ * shared state per backend is its call counter and the start times of its spikes and bursts.
+ */
+@Slf4j
+@Service
+public class BackendProfileService {
+
+    private final Map<String, ActiveProfile> profiles = new ConcurrentHashMap<>();
+
+    public BackendProfileService(RetryBudgetConfig config) {
+        config.getDemoBackends().forEach((name, profile) -> {
+            profile.setName(name);
+            register(profile);
+        });
+    }
+
+    /**
+     * Register or replace a backend; its phase script starts over from now
+     */
+    public BackendProfile register(BackendProfile profile) {
+        validate(profile);
+        profiles.put(profile.getName(), new ActiveProfile(profile, System.currentTimeMillis()));
+        log.info("Registered demo backend {} ({}, {} phases)",
+            profile.getName(), profile.getDistribution(), profile.getPhases().size());
+        return profile;
+    }
+
+    public boolean remove(String name) {
+        return profiles.remove(name) != null;
+    }
+
+    public boolean contains(String name) {
+        return profiles.containsKey(name);
+    }
+
+    public Map<String, BackendProfile> getProfiles() {
+        Map<String, BackendProfile> result = new TreeMap<>();
+        profiles.forEach((name, active) -> result.put(name, active.profile));
+        return result;
+    }
+
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        profiles.forEach((name, active) -> result.put(name, active.calls.get()));
+        return result;
+    }
+
+    public void resetCounters() {
+        profiles.values().forEach(active -> active.calls.set(0));
+    }
+
+    /**
+     * Decide how the next call to a backend behaves
+     *
+     * @return null for an unknown backend
+     */
+    public Behavior next(String name) {
+        ActiveProfile active = profiles.get(name);
+        if (active == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BackendProfile profile = active.profile;
+        long callNumber = active.calls.incrementAndGet();
+
+        double latencyScale = 1.0;
+        double errorRate = profile.getErrorRate();
+        String phaseName = null;
+
+        PhasePosition position = active.phaseAt(now);
+        if (position != null) {
+            BackendPhase phase = position.phase();
+            double progress = position.progress();
+            phaseName = phase.getName();
+            if (phase.isOutage()) {
+                return new Behavior(phaseName, 0, 503, callNumber);
+            }
+            latencyScale = ramp(phase.getLatencyScale(), phase.getLatencyScaleEnd(), progress);
+            if (phase.getErrorRate() != null) {
+                errorRate = ramp(phase.getErrorRate(), phase.getErrorRateEnd(), progress);
+            }
+        }
+
+        if (active.bursts.active(now)) {
+            errorRate = Math.max(errorRate, profile.getBurstErrorRate());
+        }
+
+        double latency = LatencySampler.sample(profile, active.spikes.active(now), random) * latencyScale;
+        int status = random.nextDouble() < errorRate ? profile.getErrorStatus() : 200;
+        return new Behavior(phaseName, Math.round(Math.min(profile.getMaxLatencyMs(), latency)), status, callNumber);
+    }
+
+    private static double ramp(double start, Double end, double progress) {
+        return end == null ? start : start + (end - start) * progress;
+    }
+
+    private static void validate(BackendProfile profile) {
+        require(profile.getName() != null && !profile.getName().isBlank(), "name is required");
+        require(profile.getDistribution() != null, "distribution is required");
+        require(isRate(profile.getErrorRate()) && isRate(profile.getBurstErrorRate())
+            && isRate(profile.getSlowProbability()), "error rates and probabilities must be within [0, 1]");
+        require(profile.getErrorStatus() >= 400 && profile.getErrorStatus() <= 599, "error-status must be 4xx or 5xx");
+        require(profile.getMaxLatencyMs() > 0, "max-latency-ms must be positive");
+        require(profile.getSigma() >= 0, "sigma must not be negative");
+        require(profile.getBurstRatePerSecond() >= 0 && profile.getSpikeRatePerSecond() >= 0,
+            "spike and burst rates must not be negative");
+
+        LatencyDistribution distribution = profile.getDistribution();
+        if (distribution == LatencyDistribution.UNIFORM) {
+            require(profile.getMinMs() >= 0 && profile.getMaxMs() >= profile.getMinMs(), "need 0 <= min-ms <= max-ms");
+        } else if (distribution == LatencyDistribution.PARETO) {
+            require(profile.getScaleMs() > 0 && profile.getShape() > 0, "scale-ms and shape must be positive");
+        } else {
+            require(profile.getMedianMs() > 0, "median-ms must be positive");
+        }
+        if (distribution == LatencyDistribution.BIMODAL) {
+            require(profile.getSlowMedianMs() > 0, "slow-median-ms must be positive");
+        }
+
+        require(profile.getPhases() != null, "phases must be a list");
+        for (BackendPhase phase : profile.getPhases()) {
+            require(phase != null, "phases must not contain null entries");
+            require(phase.getDurationSeconds() > 0, "phase duration-seconds must be positive");
+            require(phase.getLatencyScale() >= 0 && (phase.getLatencyScaleEnd() == null || phase.getLatencyScaleEnd() >= 0),
+                "phase latency scales must not be negative");
+            require((phase.getErrorRate() == null || isRate(phase.getErrorRate()))
+                && (phase.getErrorRateEnd() == null || isRate(phase.getErrorRateEnd())),
+                "phase error rates must be within [0, 1]");
+        }
+    }
+
+    private static boolean isRate(double value) {
+        return value >= 0 && value <= 1;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException("Invalid backend profile: " + message);
+        }
+    }
+
+    /**
+     * How one call should behave; {@code phase} is null outside the phase script
+     */
+    public record Behavior(String phase, long latencyMs, int status, long callNumber) {
+
+        public boolean failed() {
+            return status >= 400;
+        }
+    }
+
+    private record PhasePosition(BackendPhase phase, double progress) {
+    }
+
+    private static final class ActiveProfile {
+        private final BackendProfile profile;
+        private final long startedAtMs;
+        private final long scriptMs;
+        private final AtomicLong calls = new AtomicLong();
+        private final Episodes spikes;
+        private final Episodes bursts;
+
+        private ActiveProfile(BackendProfile profile, long startedAtMs) {
+            this.profile = profile;
+            this.startedAtMs = startedAtMs;
+            this.scriptMs = profile.getPhases().stream().mapToLong(phase -> phase.getDurationSeconds() * 1000).sum();
+            this.spikes = new Episodes(profile.getDistribution() == LatencyDistribution.POISSON_SPIKE
+                ? profile.getSpikeRatePerSecond() : 0, profile.getSpikeDurationMs(), startedAtMs);
+            this.bursts = new Episodes(profile.getBurstRatePerSecond(), profile.getBurstDurationMs(), startedAtMs);
+        }
+
+        private PhasePosition phaseAt(long now) {
+            if (scriptMs == 0) {
+                return null;
+            }
+            long elapsed = now - startedAtMs;
+            if (elapsed >= scriptMs) {
+                if (!profile.isRepeatPhases()) {
+                    return null;
+                }
+                elapsed %= scriptMs;
+            }
+            for (BackendPhase phase : profile.getPhases()) {
+                long duration = phase.getDurationSeconds() * 1000;
+                if (elapsed < duration) {
+                    return new PhasePosition(phase, (double) elapsed / duration);
+                }
+                elapsed -= duration;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Episodes (latency spikes or error bursts) arriving as a Poisson process. Only the start of the
+     * upcoming episode is shared; whichever thread first sees it end draws the next arrival.
+     */
+    private static final class Episodes {
+        private final double ratePerSecond;
+        private final long durationMs;
+        private final AtomicLong startMs;
+
+        private Episodes(double ratePerSecond, long durationMs, long now) {
+            this.ratePerSecond = ratePerSecond;
+            this.durationMs = durationMs;
+            this.startMs = new AtomicLong(ratePerSecond > 0
+                ? now + LatencySampler.nextArrivalMs(ratePerSecond, ThreadLocalRandom.current())
+                : Long.MAX_VALUE);
+        }
+
+        private boolean active(long now) {
+            if (ratePerSecond <= 0) {
+                return false;
+            }
+            long start = startMs.get();
+            while (now >= start + durationMs) {
+                // Arrivals are memoryless, so after a quiet gap the next one can be drawn from now
+                long next = Math.max(start + durationMs, now)
+                    + LatencySampler.nextArrivalMs(ratePerSecond, ThreadLocalRandom.current());
+                startMs.compareAndSet(start, next);
+                start = startMs.get();
+            }
+            return now >= start;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.retry.budget.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.dto.RetryBudgetResponse;
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.RetryCheck;
+import com.retry.budget.util.ServiceRegistry;
+import com.retry.budget.util.ServiceSlots;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves flat retry checks from a per-service snapshot of the budget and ceiling decision, read
+ * from storage at most once per {@code check.snapshot-max-age-ms}. Decisions are still made per
+ * call against the snapshot, and the JSON for each priority and decision is serialized once per
+ * snapshot, so a check on a fresh snapshot reads no storage and builds no response objects.
+ */
+@Service
+public class BudgetCheckService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetCheckService.class);
+    
+    private static final RetryPriority[] PRIORITIES = RetryPriority.values();
+    private static final RetryDecision[] DECISIONS = RetryDecision.values();
+    
+    private final BudgetEnforcementAgent enforcementAgent;
+    private final ServiceRegistry serviceRegistry;
+    private final ObjectMapper objectMapper;
+    private final RetryBudgetConfig config;
+    private final ServiceSlots<Snapshot> snapshots;
+    
+    public BudgetCheckService(BudgetEnforcementAgent enforcementAgent,
+                              ServiceRegistry serviceRegistry,
+                              ObjectMapper objectMapper,
+                              RetryBudgetConfig config) {
+        this.enforcementAgent = enforcementAgent;
+        this.serviceRegistry = serviceRegistry;
+        this.snapshots = serviceRegistry.newSlots();
+        this.objectMapper = objectMapper;
+        this.config = config;
+    }
+    
+    /**
+     * Check whether a retry is allowed and return the serialized {@link RetryBudgetResponse}
+     *
+     * @param priority the requested priority, or null for the configured default
+     */
+    public byte[] check(String serviceName, RetryPriority priority) {
+        RetryPriority effective = priority == null ? config.getPriority().getDefaultPriority() : priority;
+        long now = System.nanoTime();
+        
+        Snapshot snapshot = snapshots.get(serviceRegistry.intern(serviceName));
+        RetryDecision decision;
+        if (snapshot != null && now - snapshot.loadedAtNanos <= config.getCheck().getSnapshotMaxAgeMs() * 1_000_000) {
+            decision = enforcementAgent.checkRetryAllowed(snapshot.budget, snapshot.ceiling, effective);
+        } else {
+            RetryCheck check = enforcementAgent.check(serviceName, effective);
+            if (check.budget() == null) {
+                return serialize(serviceName, priority, check.decision(), null);
+            }
+            snapshot = refresh(serviceName, snapshot, check, now);
+            decision = check.decision();
+        }
+        
+        return snapshot.body(this, serviceName, priority, decision);
+    }
+    
+    /**
+     * Drop the snapshot so the next check reads storage; called after budget is consumed
+     */
+    public void invalidate(String serviceName) {
+        snapshots.remove(serviceRegistry.intern(serviceName));
+    }
+    
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        invalidate(event.serviceName());
+    }
+    
+    /**
+     * Store a snapshot for the freshly read state, keeping the previous snapshot's serialized
+     * bodies when nothing that appears in them changed
+     */
+    private Snapshot refresh(String serviceName, Snapshot previous, RetryCheck check, long now) {
+        RetryBudget budget = check.budget();
+        byte[][][] bodies = previous != null && previous.sameResponse(budget)
+                ? previous.bodies
+                : new byte[PRIORITIES.length + 1][DECISIONS.length][];
+        
+        Snapshot snapshot = new Snapshot(budget, check.ceiling(), now, bodies);
+        snapshots.put(serviceRegistry.intern(serviceName), snapshot);
+        return snapshot;
+    }
+    
+    private byte[] serialize(String serviceName, RetryPriority priority, RetryDecision decision, RetryBudget budget) {
+        RetryBudgetResponse response = RetryBudgetResponse.builder()
+                .serviceName(serviceName)
+                .priority(priority)
+                .decision(decision)
+                .allowed(decision == RetryDecision.ALLOW)
+                .remainingBudget(budget == null ? 0 : budget.getRemainingBudget())
+                .healthStatus(budget == null ? null : budget.getHealthStatus())
+                .build();
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            logger.error("Error serializing retry check for {}: {}", serviceName, e.getMessage());
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Immutable apart from the lazily filled bodies; racing fills write identical bytes
+     */
+    private static final class Snapshot {
+        
+        private final RetryBudget budget;
+        private final CeilingDecision ceiling;
+        private final long loadedAtNanos;
+        private final byte[][][] bodies;
+        
+        Snapshot(RetryBudget budget, CeilingDecision ceiling, long loadedAtNanos, byte[][][] bodies) {
+            this.budget = budget;
+            this.ceiling = ceiling;
+            this.loadedAtNanos = loadedAtNanos;
+            this.bodies = bodies;
+        }
+        
+        byte[] body(BudgetCheckService owner, String serviceName, RetryPriority priority, RetryDecision decision) {
+            byte[][] byDecision = bodies[priority == null ? 0 : priority.ordinal() + 1];
+            byte[] body = byDecision[decision.ordinal()];
+            if (body == null) {
+                body = owner.serialize(serviceName, priority, decision, budget);
+                byDecision[decision.ordinal()] = body;
+            }
+            return body;
+        }
+        
+        boolean sameResponse(RetryBudget other) {
+            return budget.getRemainingBudget() == other.getRemainingBudget()
+                    && budget.getHealthStatus() == other.getHealthStatus();
+        }
+    }
+}
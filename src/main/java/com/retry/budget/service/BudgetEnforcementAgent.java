@@ -1,12 +1,73 @@
 package com.retry.budget.service;
 
+import com.retry.budget.enums.CeilingDecision;
 import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.RetryCheck;
+import reactor.core.publisher.Mono;
 
 public interface BudgetEnforcementAgent {
     
     RetryDecision checkRetryAllowed(String serviceName);
     
-    void consumeBudget(String serviceName);
+    RetryDecision checkRetryAllowed(String serviceName, RetryPriority priority);
+    
+    /**
+     * Same as {@link #checkRetryAllowed(String, RetryPriority)}, also returning what was read
+     */
+    RetryCheck check(String serviceName, RetryPriority priority);
+    
+    /**
+     * Decide against a budget, and optionally a ceiling decision, that the caller already holds;
+     * a null ceiling is checked live
+     */
+    RetryDecision checkRetryAllowed(RetryBudget budget, CeilingDecision ceiling, RetryPriority priority);
+    
+    /**
+     * Check against the endpoint and, when given, tenant budgets below the service; each child
+     * also draws from its parent's pool
+     */
+    RetryDecision checkRetryAllowed(String serviceName, String endpoint, String tenant, RetryPriority priority);
+    
+    /**
+     * Same as {@link #checkRetryAllowed(String, String, String, RetryPriority)}, also returning the
+     * budget of the key that decided: the one that denied, or the leaf when the retry is allowed
+     */
+    RetryCheck check(String serviceName, String endpoint, String tenant, RetryPriority priority);
+    
+    Mono<RetryDecision> checkRetryAllowedAsync(String serviceName);
+    
+    Mono<RetryDecision> checkRetryAllowedAsync(String serviceName, RetryPriority priority);
+    
+    /**
+     * Check and take one unit of budget in a single step, so concurrent callers cannot all pass
+     * the check before any of them consumes
+     */
+    RetryDecision reserveRetry(String serviceName, RetryPriority priority);
+    
+    /**
+     * Give back units taken by {@link #reserveRetry} that ended up unused
+     */
+    void releaseRetry(String serviceName, RetryPriority priority, int retries);
+    
+    /**
+     * Consume budget for retries already decided on; false when the budget or the global ceiling
+     * no longer has room, in which case nothing is consumed and the retry must not be sent
+     */
+    boolean consumeBudget(String serviceName);
+    
+    boolean consumeBudget(String serviceName, RetryPriority priority);
+    
+    boolean consumeBudget(String serviceName, RetryPriority priority, int retries);
+    
+    boolean consumeBudget(String serviceName, String endpoint, String tenant, RetryPriority priority);
     
     boolean isServiceHealthy(String serviceName);
+    
+    RetryDecision checkHedgeAllowed(String serviceName);
+    
+    void consumeHedge(String serviceName);
+    
+    long getHedgeDelayMs(String serviceName);
 }
\ No newline at end of file
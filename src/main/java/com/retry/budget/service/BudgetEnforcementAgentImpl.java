@@ -1,58 +1,380 @@
 package com.retry.budget.service;
 
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.FailurePolicy;
 import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
 import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.enums.ServiceMeter;
+import com.retry.budget.model.HedgeBudget;
 import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.RetryCheck;
+import com.retry.budget.repository.HedgeBudgetRepository;
+import com.retry.budget.repository.RedisCircuitBreaker;
 import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.BudgetKeys;
+import com.retry.budget.util.ServiceRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class BudgetEnforcementAgentImpl implements BudgetEnforcementAgent {
     
+    private static final int LOCK_STRIPES = 64;
+    
     private final RetryBudgetControllerService budgetControllerService;
     private final RetryBudgetRepository budgetRepository;
+    private final HedgeBudgetRepository hedgeBudgetRepository;
+    private final GlobalRetryCeiling globalRetryCeiling;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final BudgetCalculator budgetCalculator;
+    private final RetryBudgetConfig config;
     private final MeterRegistry meterRegistry;
+    private final BudgetKeyIndex budgetKeyIndex;
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceActivityTracker activityTracker;
+    private final TrafficCaptureService trafficCapture;
+    
+    // Serialises read-consume-save of a budget on this node; striped so services do not contend
+    private final Object[] budgetLocks = new Object[LOCK_STRIPES];
     
     public BudgetEnforcementAgentImpl(RetryBudgetControllerService budgetControllerService,
                                       RetryBudgetRepository budgetRepository,
-                                      MeterRegistry meterRegistry) {
+                                      HedgeBudgetRepository hedgeBudgetRepository,
+                                      GlobalRetryCeiling globalRetryCeiling,
+                                      RedisCircuitBreaker circuitBreaker,
+                                      BudgetCalculator budgetCalculator,
+                                      RetryBudgetConfig config,
+                                      MeterRegistry meterRegistry,
+                                      BudgetKeyIndex budgetKeyIndex,
+                                      ServiceRegistry serviceRegistry,
+                                      ServiceActivityTracker activityTracker,
+                                      TrafficCaptureService trafficCapture) {
         this.budgetControllerService = budgetControllerService;
         this.budgetRepository = budgetRepository;
+        this.hedgeBudgetRepository = hedgeBudgetRepository;
+        this.globalRetryCeiling = globalRetryCeiling;
+        this.circuitBreaker = circuitBreaker;
+        this.budgetCalculator = budgetCalculator;
+        this.config = config;
         this.meterRegistry = meterRegistry;
+        this.budgetKeyIndex = budgetKeyIndex;
+        this.serviceRegistry = serviceRegistry;
+        this.activityTracker = activityTracker;
+        this.trafficCapture = trafficCapture;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            budgetLocks[i] = new Object();
+        }
     }
     
     @Override
     public RetryDecision checkRetryAllowed(String serviceName) {
+        return checkRetryAllowed(serviceName, config.getPriority().getDefaultPriority());
+    }
+    
+    @Override
+    public RetryDecision checkRetryAllowed(String serviceName, RetryPriority priority) {
+        return check(serviceName, priority).decision();
+    }
+    
+    @Override
+    public RetryCheck check(String serviceName, RetryPriority priority) {
+        activityTracker.touch(serviceName);
+        if (deniedWhileUnavailable(serviceName)) {
+            return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), null, null);
+        }
+        
         RetryBudget budget = budgetControllerService.getBudget(serviceName);
         
+        if (checkBudget(serviceName, budget, priority) == RetryDecision.DENY) {
+            return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), budget, null);
+        }
+        
+        CeilingDecision ceiling = globalRetryCeiling.checkCeiling(serviceName);
+        return new RetryCheck(decided(serviceName, priority, checkCeilingAndHealth(serviceName, budget, ceiling)),
+                budget, ceiling);
+    }
+    
+    @Override
+    public RetryDecision checkRetryAllowed(RetryBudget budget, CeilingDecision ceiling, RetryPriority priority) {
+        String serviceName = budget.getServiceName();
+        activityTracker.touch(serviceName);
+        if (deniedWhileUnavailable(serviceName)) {
+            return decided(serviceName, priority, RetryDecision.DENY);
+        }
+        
+        if (checkBudget(serviceName, budget, priority) == RetryDecision.DENY) {
+            return decided(serviceName, priority, RetryDecision.DENY);
+        }
+        
+        return decided(serviceName, priority, checkCeilingAndHealth(serviceName, budget,
+                ceiling != null ? ceiling : globalRetryCeiling.checkCeiling(serviceName)));
+    }
+    
+    @Override
+    public RetryDecision checkRetryAllowed(String serviceName, String endpoint, String tenant, RetryPriority priority) {
+        return check(serviceName, endpoint, tenant, priority).decision();
+    }
+    
+    @Override
+    public RetryCheck check(String serviceName, String endpoint, String tenant, RetryPriority priority) {
+        activityTracker.touch(serviceName);
+        List<String> chain = budgetKeyIndex.resolve(serviceName, endpoint, tenant, false);
+        if (chain.isEmpty()) {
+            return check(serviceName, priority);
+        }
+        
+        if (deniedWhileUnavailable(serviceName)) {
+            return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), null, null);
+        }
+        
+        // Children never spend the service's own count, so a slow sibling cannot drain it for everyone,
+        // but each level answers to its parent's health and draws from a pool sized by the parent
+        RetryBudget parent = budgetControllerService.getBudget(serviceName);
+        RetryBudget weakest = parent;
+        for (String key : chain) {
+            if (parent.getHealthStatus() == ServiceHealthStatus.CRITICAL) {
+                serviceRegistry.counter(serviceName, ServiceMeter.DENY_CRITICAL).increment();
+                return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), parent, null);
+            }
+            
+            RetryBudget budget = budgetControllerService.getBudget(key);
+            if (checkBudget(key, budget, priority) == RetryDecision.DENY) {
+                return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), budget, null);
+            }
+            
+            String pool = BudgetKeys.pool(BudgetKeys.parentOf(key));
+            if (budgetControllerService.getBudget(pool).getRemainingBudget() <= 0) {
+                serviceRegistry.counter(serviceName, ServiceMeter.DENY_POOL).increment();
+                return new RetryCheck(decided(serviceName, priority, RetryDecision.DENY), budget, null);
+            }
+            
+            if (budget.getHealthStatus().compareTo(weakest.getHealthStatus()) > 0) {
+                weakest = budget;
+            }
+            parent = budget;
+        }
+        
+        CeilingDecision ceiling = globalRetryCeiling.checkCeiling(serviceName);
+        return new RetryCheck(decided(serviceName, priority, checkCeilingAndHealth(serviceName, weakest, ceiling)),
+                parent, ceiling);
+    }
+    
+    @Override
+    public Mono<RetryDecision> checkRetryAllowedAsync(String serviceName) {
+        return checkRetryAllowedAsync(serviceName, config.getPriority().getDefaultPriority());
+    }
+    
+    @Override
+    public Mono<RetryDecision> checkRetryAllowedAsync(String serviceName, RetryPriority priority) {
+        activityTracker.touch(serviceName);
+        if (deniedWhileUnavailable(serviceName)) {
+            return Mono.just(decided(serviceName, priority, RetryDecision.DENY));
+        }
+        
+        return budgetControllerService.getBudgetAsync(serviceName)
+                .flatMap(budget -> {
+                    if (checkBudget(serviceName, budget, priority) == RetryDecision.DENY) {
+                        return Mono.just(RetryDecision.DENY);
+                    }
+                    return globalRetryCeiling.checkCeilingAsync(serviceName)
+                            .map(ceiling -> checkCeilingAndHealth(serviceName, budget, ceiling));
+                })
+                .map(decision -> decided(serviceName, priority, decision));
+    }
+    
+    /**
+     * With Redis unreachable and no budget known locally, only the failure policy can answer
+     */
+    private boolean deniedWhileUnavailable(String serviceName) {
+        if (config.getDegraded().getFailurePolicy() == FailurePolicy.FAIL_CLOSED
+                && circuitBreaker.isOpen()
+                && !budgetRepository.hasLastKnown(serviceName)) {
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_UNAVAILABLE).increment();
+            return true;
+        }
+        return false;
+    }
+    
+    private RetryDecision decided(String serviceName, RetryPriority priority, RetryDecision decision) {
+        trafficCapture.recordDecision(serviceName, priority, decision);
+        return decision;
+    }
+    
+    private RetryDecision checkBudget(String serviceName, RetryBudget budget, RetryPriority priority) {
         if (budget.getHealthStatus() == ServiceHealthStatus.CRITICAL) {
-            meterRegistry.counter("retry.budget.decision.deny.critical", "service", serviceName).increment();
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_CRITICAL).increment();
             return RetryDecision.DENY;
         }
         
         if (budget.getRemainingBudget() <= 0) {
-            meterRegistry.counter("retry.budget.decision.deny.exceeded", "service", serviceName).increment();
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_EXCEEDED).increment();
+            return RetryDecision.DENY;
+        }
+        
+        if (budget.getRemainingBudget() <= budgetCalculator.calculateReservedBudget(budget.getAllocatedBudget(), priority)) {
+            serviceRegistry.counter(serviceName, ServiceMeter.deniedByReserve(priority)).increment();
+            return RetryDecision.DENY;
+        }
+        
+        return RetryDecision.ALLOW;
+    }
+    
+    private RetryDecision checkCeilingAndHealth(String serviceName, RetryBudget budget, CeilingDecision ceiling) {
+        if (!ceiling.isAllowed()) {
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_CEILING).increment();
             return RetryDecision.DENY;
         }
         
         if (budget.getHealthStatus() == ServiceHealthStatus.DEGRADED) {
-            meterRegistry.counter("retry.budget.decision.defer", "service", serviceName).increment();
+            serviceRegistry.counter(serviceName, ServiceMeter.DECISION_DEFER).increment();
             return RetryDecision.DEFER;
         }
         
-        meterRegistry.counter("retry.budget.decision.allow", "service", serviceName).increment();
+        serviceRegistry.counter(serviceName, ServiceMeter.DECISION_ALLOW).increment();
         return RetryDecision.ALLOW;
     }
     
     @Override
-    public void consumeBudget(String serviceName) {
-        RetryBudget budget = budgetControllerService.getBudget(serviceName);
-        budget.consumeBudget();
-        budgetRepository.saveBudget(budget);
+    public RetryDecision reserveRetry(String serviceName, RetryPriority priority) {
+        activityTracker.touch(serviceName);
+        if (deniedWhileUnavailable(serviceName)) {
+            return decided(serviceName, priority, RetryDecision.DENY);
+        }
+        
+        synchronized (lockFor(serviceName)) {
+            RetryBudget budget = budgetControllerService.getBudget(serviceName);
+            if (checkBudget(serviceName, budget, priority) == RetryDecision.DENY) {
+                return decided(serviceName, priority, RetryDecision.DENY);
+            }
+            
+            // acquire only takes a ceiling permit when it allows, so a denial here leaves nothing to undo
+            RetryDecision decision = checkCeilingAndHealth(serviceName, budget, globalRetryCeiling.acquire(serviceName));
+            if (decision == RetryDecision.DENY) {
+                return decided(serviceName, priority, RetryDecision.DENY);
+            }
+            
+            budget.consumeBudget(priority);
+            budgetRepository.saveBudget(budget);
+            serviceRegistry.counter(serviceName, ServiceMeter.CONSUMED).increment();
+            serviceRegistry.counter(serviceName, ServiceMeter.consumed(priority)).increment();
+            return decided(serviceName, priority, decision);
+        }
+    }
+    
+    @Override
+    public void releaseRetry(String serviceName, RetryPriority priority, int retries) {
+        synchronized (lockFor(serviceName)) {
+            RetryBudget budget = budgetControllerService.getBudget(serviceName);
+            for (int i = 0; i < retries; i++) {
+                budget.releaseBudget(priority);
+            }
+            budgetRepository.saveBudget(budget);
+        }
+        serviceRegistry.counter(serviceName, ServiceMeter.RELEASED).increment(retries);
+    }
+    
+    private Object lockFor(String serviceName) {
+        return budgetLocks[Math.floorMod(serviceName.hashCode(), LOCK_STRIPES)];
+    }
+    
+    @Override
+    public boolean consumeBudget(String serviceName) {
+        return consumeBudget(serviceName, config.getPriority().getDefaultPriority());
+    }
+    
+    @Override
+    public boolean consumeBudget(String serviceName, RetryPriority priority) {
+        return consumeBudget(serviceName, priority, 1);
+    }
+    
+    @Override
+    public boolean consumeBudget(String serviceName, RetryPriority priority, int retries) {
+        activityTracker.touch(serviceName);
+        RetryBudget budget;
+        synchronized (lockFor(serviceName)) {
+            budget = budgetControllerService.getBudget(serviceName);
+            if (budget.getRemainingBudget() < retries) {
+                serviceRegistry.counter(serviceName, ServiceMeter.DENY_EXCEEDED).increment();
+                return false;
+            }
+            if (!globalRetryCeiling.acquire(serviceName, retries).isAllowed()) {
+                serviceRegistry.counter(serviceName, ServiceMeter.DENY_CEILING).increment();
+                return false;
+            }
+            for (int i = 0; i < retries; i++) {
+                budget.consumeBudget(priority);
+            }
+            budgetRepository.saveBudget(budget);
+        }
         
-        meterRegistry.counter("retry.budget.consumed", "service", serviceName).increment();
+        serviceRegistry.counter(serviceName, ServiceMeter.CONSUMED).increment(retries);
+        serviceRegistry.counter(serviceName, ServiceMeter.consumed(priority)).increment(retries);
         meterRegistry.gauge("retry.budget.remaining", budget.getRemainingBudget());
+        return true;
+    }
+    
+    @Override
+    public boolean consumeBudget(String serviceName, String endpoint, String tenant, RetryPriority priority) {
+        activityTracker.touch(serviceName);
+        List<String> chain = budgetKeyIndex.resolve(serviceName, endpoint, tenant, false);
+        if (chain.isEmpty()) {
+            return consumeBudget(serviceName, priority);
+        }
+        
+        if (budgetControllerService.getBudget(serviceName).getHealthStatus() == ServiceHealthStatus.CRITICAL) {
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_CRITICAL).increment();
+            return false;
+        }
+        
+        List<String> consumed = new ArrayList<>();
+        for (String key : chain) {
+            String pool = BudgetKeys.pool(BudgetKeys.parentOf(key));
+            if (!consumeOne(key, priority, consumed) || !consumeOne(pool, priority, consumed)) {
+                serviceRegistry.counter(serviceName, ServiceMeter.DENY_EXCEEDED).increment();
+                release(consumed, priority);
+                return false;
+            }
+        }
+        
+        if (!globalRetryCeiling.acquire(serviceName, 1).isAllowed()) {
+            serviceRegistry.counter(serviceName, ServiceMeter.DENY_CEILING).increment();
+            release(consumed, priority);
+            return false;
+        }
+        
+        serviceRegistry.counter(serviceName, ServiceMeter.CONSUMED).increment();
+        serviceRegistry.counter(serviceName, ServiceMeter.consumed(priority)).increment();
+        return true;
+    }
+    
+    private boolean consumeOne(String key, RetryPriority priority, List<String> consumed) {
+        synchronized (lockFor(key)) {
+            RetryBudget budget = budgetControllerService.getBudget(key);
+            if (budget.getRemainingBudget() <= 0) {
+                return false;
+            }
+            budget.consumeBudget(priority);
+            budgetRepository.saveBudget(budget);
+        }
+        consumed.add(key);
+        return true;
+    }
+    
+    private void release(List<String> keys, RetryPriority priority) {
+        for (String key : keys) {
+            synchronized (lockFor(key)) {
+                RetryBudget budget = budgetControllerService.getBudget(key);
+                budget.releaseBudget(priority);
+                budgetRepository.saveBudget(budget);
+            }
+        }
     }
     
     @Override
@@ -60,4 +382,41 @@ public class BudgetEnforcementAgentImpl implements BudgetEnforcementAgent {
         RetryBudget budget = budgetControllerService.getBudget(serviceName);
         return budget.getHealthStatus() == ServiceHealthStatus.HEALTHY;
     }
+    
+    @Override
+    public RetryDecision checkHedgeAllowed(String serviceName) {
+        HedgeBudget hedgeBudget = budgetControllerService.getHedgeBudget(serviceName);
+        
+        if (hedgeBudget.getHealthStatus() == ServiceHealthStatus.CRITICAL) {
+            serviceRegistry.counter(serviceName, ServiceMeter.HEDGE_DENY_CRITICAL).increment();
+            return RetryDecision.DENY;
+        }
+        
+        if (hedgeBudget.getRemainingHedges() <= 0) {
+            serviceRegistry.counter(serviceName, ServiceMeter.HEDGE_DENY_EXCEEDED).increment();
+            return RetryDecision.DENY;
+        }
+        
+        serviceRegistry.counter(serviceName, ServiceMeter.HEDGE_ALLOW).increment();
+        return RetryDecision.ALLOW;
+    }
+    
+    @Override
+    public void consumeHedge(String serviceName) {
+        synchronized (lockFor(serviceName)) {
+            HedgeBudget hedgeBudget = budgetControllerService.getHedgeBudget(serviceName);
+            if (hedgeBudget.getRemainingHedges() <= 0) {
+                return;
+            }
+            hedgeBudget.consumeHedge();
+            hedgeBudgetRepository.saveHedgeBudget(hedgeBudget);
+        }
+        
+        serviceRegistry.counter(serviceName, ServiceMeter.HEDGE_CONSUMED).increment();
+    }
+    
+    @Override
+    public long getHedgeDelayMs(String serviceName) {
+        return budgetControllerService.getHedgeBudget(serviceName).getHedgeDelayMs();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.BudgetKeys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded index of endpoint and tenant keys. A child gets its own budget only after
+ * {@code promote-after-requests} requests, and only while its parent has fewer than
+ * {@code max-children-per-parent} promoted children; until then it shares the parent's overflow
+ * key. The index is an LRU capped at {@code max-tracked-keys}; evicted keys are deleted from
+ * storage in the background, so memory and storage key counts stay bounded however many tenants
+ * appear without the request that caused the eviction paying for the deletes.
+ */
+@Service
+public class BudgetKeyIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetKeyIndex.class);
+    
+    private final RetryBudgetRepository budgetRepository;
+    private final MetricsRepository metricsRepository;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LinkedHashMap<String, TrackedKey> keys = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Integer> promotedChildren = new HashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "budget-key-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public BudgetKeyIndex(RetryBudgetRepository budgetRepository,
+                          MetricsRepository metricsRepository,
+                          RetryBudgetConfig config,
+                          MeterRegistry meterRegistry) {
+        this.budgetRepository = budgetRepository;
+        this.metricsRepository = metricsRepository;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        
+        Gauge.builder("retry.budget.hierarchy.tracked.keys", this, BudgetKeyIndex::size).register(meterRegistry);
+    }
+    
+    /**
+     * Effective keys below the service, outermost first: the endpoint key or its overflow, then the
+     * tenant key or its overflow when a tenant is given. Requests count towards promotion only when
+     * {@code countRequest} is set, so budget checks do not promote keys on their own.
+     */
+    public List<String> resolve(String serviceName, String endpoint, String tenant, boolean countRequest) {
+        List<String> chain = new ArrayList<>(2);
+        if (endpoint == null || endpoint.isBlank()) {
+            return chain;
+        }
+        
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            String endpointKey = resolveChild(serviceName, endpoint, countRequest, evicted);
+            chain.add(endpointKey);
+            if (tenant != null && !tenant.isBlank() && !BudgetKeys.isOverflow(endpointKey)) {
+                chain.add(resolveChild(endpointKey, tenant, countRequest, evicted));
+            }
+        }
+        
+        if (!evicted.isEmpty()) {
+            executor.execute(() -> evicted.forEach(this::forget));
+        }
+        return chain;
+    }
+    
+    public synchronized int size() {
+        return keys.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private String resolveChild(String parent, String segment, boolean countRequest, List<String> evicted) {
+        String key = BudgetKeys.child(parent, segment);
+        TrackedKey tracked = keys.get(key);
+        
+        if (tracked == null) {
+            if (!countRequest) {
+                return BudgetKeys.overflow(parent);
+            }
+            evictIfFull(evicted);
+            tracked = new TrackedKey(parent);
+            keys.put(key, tracked);
+        }
+        
+        if (countRequest && !tracked.promoted) {
+            tracked.requests++;
+            int siblings = promotedChildren.getOrDefault(parent, 0);
+            if (tracked.requests >= config.getHierarchy().getPromoteAfterRequests()
+                    && siblings < config.getHierarchy().getMaxChildrenPerParent()) {
+                tracked.promoted = true;
+                promotedChildren.put(parent, siblings + 1);
+                meterRegistry.counter("retry.budget.hierarchy.promoted").increment();
+            }
+        }
+        
+        return tracked.promoted ? key : BudgetKeys.overflow(parent);
+    }
+    
+    private void evictIfFull(List<String> evicted) {
+        Iterator<Map.Entry<String, TrackedKey>> eldest = keys.entrySet().iterator();
+        while (keys.size() >= config.getHierarchy().getMaxTrackedKeys() && eldest.hasNext()) {
+            Map.Entry<String, TrackedKey> entry = eldest.next();
+            eldest.remove();
+            
+            TrackedKey tracked = entry.getValue();
+            if (tracked.promoted) {
+                promotedChildren.computeIfPresent(tracked.parent, (parent, count) -> count > 1 ? count - 1 : null);
+                evicted.add(entry.getKey());
+            }
+            meterRegistry.counter("retry.budget.hierarchy.evicted").increment();
+        }
+    }
+    
+    /**
+     * Drop an evicted key's state along with the pool and overflow it parented
+     */
+    private void forget(String key) {
+        try {
+            budgetRepository.deleteBudget(key);
+            metricsRepository.deleteMetrics(key);
+            budgetRepository.deleteBudget(BudgetKeys.pool(key));
+            budgetRepository.deleteBudget(BudgetKeys.overflow(key));
+            metricsRepository.deleteMetrics(BudgetKeys.overflow(key));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete evicted budget key {}: {}", key, e.getMessage());
+        }
+    }
+    
+    private static final class TrackedKey {
+        
+        private final String parent;
+        private long requests;
+        private boolean promoted;
+        
+        TrackedKey(String parent) {
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.retry.budget.service;
+
+import com.retry.budget.enums.AdmissionDecision;
+import com.retry.budget.model.ConcurrencyLimit;
+
+import java.util.Collection;
+
+public interface ConcurrencyLimiter {
+    
+    AdmissionDecision tryAcquire(String serviceName);
+    
+    void release(String serviceName);
+    
+    void onSample(String serviceName, long latencyMs, boolean success);
+    
+    ConcurrencyLimit getLimit(String serviceName);
+    
+    Collection<ConcurrencyLimit> getLimits();
+    
+    /**
+     * Start a service from a previously learned limit and baseline RTT instead of the initial limit
+     */
+    void restoreLimit(String serviceName, int limit, double minRttMs);
+}
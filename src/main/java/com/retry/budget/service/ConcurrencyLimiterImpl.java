@@ -0,0 +1,194 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.AdmissionDecision;
+import com.retry.budget.enums.LimitAlgorithm;
+import com.retry.budget.enums.ServiceMeter;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.model.ConcurrencyLimit;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ConcurrencyLimiterImpl implements ConcurrencyLimiter {
+
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ServiceRegistry serviceRegistry;
+    private final Map<String, LimiterState> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterImpl(RetryBudgetConfig config, MeterRegistry meterRegistry, ServiceRegistry serviceRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public AdmissionDecision tryAcquire(String serviceName) {
+        if (!config.getConcurrency().isEnabled()) {
+            return AdmissionDecision.ADMIT;
+        }
+
+        LimiterState state = stateFor(serviceName);
+
+        while (true) {
+            int current = state.inFlight.get();
+            if (current >= (int) state.limit) {
+                state.rejected.increment();
+                serviceRegistry.counter(serviceName, ServiceMeter.ADMISSION_REJECT).increment();
+                return AdmissionDecision.REJECT;
+            }
+            if (state.inFlight.compareAndSet(current, current + 1)) {
+                return AdmissionDecision.ADMIT;
+            }
+        }
+    }
+
+    @Override
+    public void release(String serviceName) {
+        if (!config.getConcurrency().isEnabled()) {
+            return;
+        }
+
+        LimiterState state = limiters.get(serviceName);
+        if (state != null) {
+            state.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        }
+    }
+
+    @Override
+    public void onSample(String serviceName, long latencyMs, boolean success) {
+        if (!config.getConcurrency().isEnabled()) {
+            return;
+        }
+
+        LimiterState state = stateFor(serviceName);
+        RetryBudgetConfig.Concurrency settings = config.getConcurrency();
+        double rtt = Math.max(1, latencyMs);
+
+        synchronized (state) {
+            if (++state.samplesSinceReset >= settings.getMinRttResetSamples()) {
+                // Re-probe the baseline so a permanent latency shift is not mistaken for queueing
+                state.minRtt = rtt;
+                state.samplesSinceReset = 0;
+            } else {
+                state.minRtt = Math.min(state.minRtt, rtt);
+            }
+            state.sampleRtt = state.sampleRtt == 0 ? rtt : state.sampleRtt * 0.9 + rtt * 0.1;
+
+            double newLimit = settings.getAlgorithm() == LimitAlgorithm.VEGAS
+                    ? vegasLimit(state, success, settings)
+                    : gradientLimit(state, settings);
+
+            newLimit = state.limit * (1 - settings.getSmoothing()) + newLimit * settings.getSmoothing();
+            state.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), newLimit));
+        }
+    }
+
+    @Override
+    public ConcurrencyLimit getLimit(String serviceName) {
+        return toLimit(serviceName, stateFor(serviceName));
+    }
+
+    @Override
+    public Collection<ConcurrencyLimit> getLimits() {
+        return limiters.entrySet().stream()
+                .map(entry -> toLimit(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public void restoreLimit(String serviceName, int limit, double minRttMs) {
+        RetryBudgetConfig.Concurrency settings = config.getConcurrency();
+        LimiterState state = stateFor(serviceName);
+
+        synchronized (state) {
+            state.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), limit));
+            if (minRttMs > 0) {
+                state.minRtt = minRttMs;
+            }
+        }
+    }
+
+    private ConcurrencyLimit toLimit(String serviceName, LimiterState state) {
+        return ConcurrencyLimit.builder()
+                .serviceName(serviceName)
+                .algorithm(config.getConcurrency().getAlgorithm())
+                .limit((int) state.limit)
+                .inFlight(state.inFlight.get())
+                .minRttMs(state.minRtt == Double.MAX_VALUE ? 0 : state.minRtt)
+                .sampleRttMs(state.sampleRtt)
+                .rejectedRequests(state.rejected.sum())
+                .build();
+    }
+
+    private double gradientLimit(LimiterState state, RetryBudgetConfig.Concurrency settings) {
+        double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * state.minRtt / state.sampleRtt));
+
+        // Only grow when the limit is actually being exercised, otherwise an idle service drifts to max
+        if (gradient >= 1.0 && state.inFlight.get() < state.limit / 2) {
+            return state.limit;
+        }
+
+        double queueSize = Math.sqrt(state.limit);
+        return state.limit * gradient + queueSize;
+    }
+
+    private double vegasLimit(LimiterState state, boolean success, RetryBudgetConfig.Concurrency settings) {
+        if (!success) {
+            return state.limit - settings.getVegasBeta();
+        }
+
+        double queueSize = state.limit * (1 - state.minRtt / state.sampleRtt);
+
+        if (queueSize <= settings.getVegasAlpha()) {
+            return state.limit + Math.max(1, Math.log10(state.limit));
+        } else if (queueSize >= settings.getVegasBeta()) {
+            return state.limit - Math.max(1, Math.log10(state.limit));
+        }
+        return state.limit;
+    }
+
+    /**
+     * A limiter with requests still in flight is kept so their releases are not lost
+     */
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        limiters.computeIfPresent(event.serviceName(), (name, state) -> state.inFlight.get() > 0 ? state : null);
+    }
+
+    private LimiterState stateFor(String serviceName) {
+        return limiters.computeIfAbsent(serviceName, name -> {
+            LimiterState state = new LimiterState(config.getConcurrency().getInitialLimit());
+            Gauge.builder("retry.budget.concurrency.limit", state, s -> s.limit)
+                    .tag("service", name)
+                    .register(meterRegistry);
+            Gauge.builder("retry.budget.concurrency.inflight", state.inFlight, AtomicInteger::get)
+                    .tag("service", name)
+                    .register(meterRegistry);
+            return state;
+        });
+    }
+
+    private static final class LimiterState {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder rejected = new LongAdder();
+        private volatile double limit;
+        private double minRtt = Double.MAX_VALUE;
+        private double sampleRtt;
+        private int samplesSinceReset;
+
+        private LimiterState(int initialLimit) {
+            this.limit = initialLimit;
+        }
+    }
+}
@@ -1,120 +1,211 @@
 package com.retry.budget.service;
 
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.AdmissionDecision;
+import com.retry.budget.enums.RequestOutcome;
 import com.retry.budget.enums.RetryDecision;
-import com.retry.budget.exception.RetryBudgetExceededException;
-import lombok.RequiredArgsConstructor;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.util.ServiceRegistry;
+import com.retry.budget.util.ServiceSlots;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DemoClientService {
 
     private final BudgetEnforcementAgent budgetEnforcementAgent;
     private final MetricsAggregator metricsAggregator;
-    private final RestClient restClient = RestClient.create();
+    private final LocalMetricsAggregator localMetricsAggregator;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final RetryBudgetConfig.DemoClient settings;
+    private final ServiceRegistry serviceRegistry;
+    private final RetryPriority defaultPriority;
+
+    // Budget decisions still block on the store, so they run on a small dedicated pool
+    private final ExecutorService decisionExecutor;
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final Map<String, Semaphore> inFlight = new ConcurrentHashMap<>();
 
     // Store recent logs for dashboard
-    private final Map<String, List<RequestLog>> requestLogs = new ConcurrentHashMap<>();
+    private final ServiceSlots<List<RequestLog>> requestLogs;
     private static final int MAX_LOGS_PER_SERVICE = 100;
+    private static final int MAX_RETRIES = 3;
+
+    public DemoClientService(BudgetEnforcementAgent budgetEnforcementAgent,
+                             MetricsAggregator metricsAggregator,
+                             LocalMetricsAggregator localMetricsAggregator,
+                             ConcurrencyLimiter concurrencyLimiter,
+                             RetryBudgetConfig config,
+                             ServiceRegistry serviceRegistry) {
+        this.budgetEnforcementAgent = budgetEnforcementAgent;
+        this.metricsAggregator = metricsAggregator;
+        this.localMetricsAggregator = localMetricsAggregator;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.settings = config.getDemoClient();
+        this.serviceRegistry = serviceRegistry;
+        this.requestLogs = serviceRegistry.newSlots();
+        this.defaultPriority = config.getPriority().getDefaultPriority();
+
+        this.decisionExecutor = Executors.newFixedThreadPool(settings.getDecisionThreads());
+        this.httpExecutor = Executors.newFixedThreadPool(settings.getHttpThreads());
+        this.httpClient = HttpClient.newBuilder()
+            .executor(httpExecutor)
+            .connectTimeout(Duration.ofMillis(settings.getRequestTimeoutMs()))
+            .build();
+    }
 
     /**
-     * Make a request to a service with retry budget awareness
+     * Make a request to a service with retry budget awareness, blocking until it completes
      */
     public RequestResult makeRequest(String serviceName, String endpoint) {
-        long startTime = System.currentTimeMillis();
-        int retryCount = 0;
-        List<String> attemptLogs = new ArrayList<>();
+        return makeRequestAsync(serviceName, endpoint).join();
+    }
 
-        while (retryCount <= 3) {
-            try {
-                // Check if retry is allowed
-                RetryDecision decision = budgetEnforcementAgent.checkRetryAllowed(serviceName);
+    /**
+     * Make a request without holding a thread: attempts are sent with the async HTTP client
+     * and backoffs are scheduled instead of slept
+     */
+    public CompletableFuture<RequestResult> makeRequestAsync(String serviceName, String endpoint) {
+        Semaphore permits = inFlight.computeIfAbsent(serviceName,
+            name -> new Semaphore(settings.getMaxInFlightPerService()));
 
-                if (decision == RetryDecision.DENY) {
-                    String msg = String.format("Retry denied for %s - budget exceeded", serviceName);
-                    log.warn(msg);
-                    attemptLogs.add(msg);
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.completedFuture(reject(serviceName, "IN_FLIGHT_LIMIT",
+                String.format("Request to %s rejected - %d requests already in flight",
+                    serviceName, settings.getMaxInFlightPerService())));
+        }
 
-                    long duration = System.currentTimeMillis() - startTime;
-                    logRequest(serviceName, false, duration, retryCount, "BUDGET_EXCEEDED", attemptLogs);
+        if (concurrencyLimiter.tryAcquire(serviceName) == AdmissionDecision.REJECT) {
+            permits.release();
+            return CompletableFuture.completedFuture(reject(serviceName, "CONCURRENCY_LIMITED",
+                String.format("Request to %s rejected - concurrency limit reached", serviceName)));
+        }
 
-                    throw new RetryBudgetExceededException(serviceName, retryCount);
-                }
+        // Every stage runs through call.run, so any failure completes the call and releases here
+        RetryingCall call = new RetryingCall(serviceName, endpoint);
+        CompletableFuture<RequestResult> done = call.result.whenComplete((result, error) -> {
+            concurrencyLimiter.release(serviceName);
+            permits.release();
+        });
 
-                if (decision == RetryDecision.DEFER && retryCount > 0) {
-                    String msg = String.format("Retry deferred for %s - service degraded", serviceName);
-                    log.info(msg);
-                    attemptLogs.add(msg);
-                    Thread.sleep(100 * (retryCount + 1)); // Exponential backoff
-                }
+        call.run(() -> sendAttempt(call));
+        return done;
+    }
 
-                // Make the actual request
-                long requestStart = System.currentTimeMillis();
-                String response = restClient.get()
-                    .uri("http://localhost:8080" + endpoint)
-                    .retrieve()
-                    .body(String.class);
+    private void sendAttempt(RetryingCall call) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.getBaseUrl() + call.endpoint))
+            .timeout(Duration.ofMillis(settings.getRequestTimeoutMs()))
+            .GET()
+            .build();
 
+        long requestStart = System.currentTimeMillis();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> call.run(() -> {
                 long requestDuration = System.currentTimeMillis() - requestStart;
 
-                // Record successful request
-                metricsAggregator.recordRequest(serviceName, requestDuration, true);
-
-                if (retryCount > 0) {
-                    budgetEnforcementAgent.consumeBudget(serviceName);
-                    metricsAggregator.recordRetry(serviceName);
+                if (error == null && response.statusCode() < 400) {
+                    onSuccess(call, response.body(), requestDuration);
+                } else {
+                    String reason = error != null ? error.getMessage() : "HTTP " + response.statusCode();
+                    RequestOutcome outcome = error != null
+                        ? RequestOutcome.fromThrowable(error)
+                        : RequestOutcome.fromStatus(response.statusCode());
+                    onFailure(call, reason, outcome, requestDuration);
                 }
+            }));
+    }
 
-                String successMsg = String.format("Request to %s succeeded (attempt %d, latency: %dms)",
-                    serviceName, retryCount + 1, requestDuration);
-                log.info(successMsg);
-                attemptLogs.add(successMsg);
+    private void onSuccess(RetryingCall call, String response, long requestDuration) {
+        localMetricsAggregator.record(call.serviceName, requestDuration, true);
 
-                long totalDuration = System.currentTimeMillis() - startTime;
-                logRequest(serviceName, true, totalDuration, retryCount, "SUCCESS", attemptLogs);
+        String successMsg = String.format("Request to %s succeeded (attempt %d, latency: %dms)",
+            call.serviceName, call.retryCount + 1, requestDuration);
+        log.debug(successMsg);
+        call.attemptLogs.add(successMsg);
 
-                return new RequestResult(true, response, retryCount, totalDuration, attemptLogs);
+        call.complete(true, response, "SUCCESS");
+    }
 
-            } catch (Exception e) {
-                long requestDuration = System.currentTimeMillis() - startTime;
+    private void onFailure(RetryingCall call, String reason, RequestOutcome outcome, long requestDuration) {
+        localMetricsAggregator.record(call.serviceName, requestDuration, outcome);
 
-                String errorMsg = String.format("Request to %s failed (attempt %d): %s",
-                    serviceName, retryCount + 1, e.getMessage());
-                log.error(errorMsg);
-                attemptLogs.add(errorMsg);
+        String errorMsg = String.format("Request to %s failed (attempt %d): %s",
+            call.serviceName, call.retryCount + 1, reason);
+        log.debug(errorMsg);
+        call.attemptLogs.add(errorMsg);
 
-                // Record failed request
-                metricsAggregator.recordRequest(serviceName, requestDuration, false);
+        if (!outcome.isRetryable()) {
+            call.complete(false, null, "NON_RETRYABLE");
+            return;
+        }
 
-                if (retryCount < 3) {
-                    retryCount++;
-                    try {
-                        Thread.sleep(50 * retryCount); // Small delay between retries
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    // Max retries reached
-                    long totalDuration = System.currentTimeMillis() - startTime;
-                    logRequest(serviceName, false, totalDuration, retryCount, "MAX_RETRIES", attemptLogs);
-                    return new RequestResult(false, null, retryCount, totalDuration, attemptLogs);
+        if (call.retryCount >= MAX_RETRIES) {
+            call.complete(false, null, "MAX_RETRIES");
+            return;
+        }
+
+        CompletableFuture.supplyAsync(() -> budgetEnforcementAgent.reserveRetry(call.serviceName, defaultPriority), decisionExecutor)
+            .whenComplete((decision, error) -> call.run(() -> {
+                if (error != null) {
+                    call.attemptLogs.add("Retry check failed: " + error.getMessage());
+                    call.complete(false, null, "FAILED");
+                    return;
                 }
-            }
+                scheduleRetry(call, decision);
+            }));
+    }
+
+    private void scheduleRetry(RetryingCall call, RetryDecision decision) {
+        if (decision == RetryDecision.DENY) {
+            String msg = String.format("Retry denied for %s - budget exceeded", call.serviceName);
+            log.warn(msg);
+            call.attemptLogs.add(msg);
+            call.complete(false, null, "BUDGET_EXCEEDED");
+            return;
+        }
+
+        call.retryCount++;
+        long delayMs = 50L * call.retryCount; // Small delay between retries
+
+        if (decision == RetryDecision.DEFER) {
+            String msg = String.format("Retry deferred for %s - service degraded", call.serviceName);
+            log.info(msg);
+            call.attemptLogs.add(msg);
+            delayMs = 100L * (call.retryCount + 1); // Exponential backoff
         }
 
-        long totalDuration = System.currentTimeMillis() - startTime;
-        logRequest(serviceName, false, totalDuration, retryCount, "FAILED", attemptLogs);
-        return new RequestResult(false, null, retryCount, totalDuration, attemptLogs);
+        metricsAggregator.recordRetry(call.serviceName);
+
+        // Hand over to the HTTP pool ourselves so a rejected submit fails the call instead of vanishing
+        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS)
+            .execute(() -> call.run(() -> httpExecutor.execute(() -> call.run(() -> sendAttempt(call)))));
+    }
+
+    private RequestResult reject(String serviceName, String status, String msg) {
+        log.warn(msg);
+        List<String> attemptLogs = List.of(msg);
+        logRequest(serviceName, false, 0, 0, status, attemptLogs);
+        return new RequestResult(false, null, 0, 0, status, attemptLogs);
     }
 
     /**
@@ -132,8 +223,7 @@ public class DemoClientService {
             new ArrayList<>(logs)
         );
 
-        requestLogs.computeIfAbsent(serviceName, k -> new ArrayList<>());
-        List<RequestLog> logs_list = requestLogs.get(serviceName);
+        List<RequestLog> logs_list = requestLogs.computeIfAbsent(serviceRegistry.intern(serviceName), id -> new ArrayList<>());
 
         synchronized (logs_list) {
             logs_list.add(0, log); // Add to beginning
@@ -147,14 +237,17 @@ public class DemoClientService {
      * Get recent logs for a service
      */
     public List<RequestLog> getRecentLogs(String serviceName) {
-        return requestLogs.getOrDefault(serviceName, new ArrayList<>());
+        List<RequestLog> logs = requestLogs.get(serviceRegistry.intern(serviceName));
+        return logs != null ? logs : new ArrayList<>();
     }
 
     /**
      * Get all recent logs
      */
     public Map<String, List<RequestLog>> getAllRecentLogs() {
-        return new ConcurrentHashMap<>(requestLogs);
+        Map<String, List<RequestLog>> logs = new ConcurrentHashMap<>();
+        requestLogs.forEach(serviceRegistry, (serviceId, serviceLogs) -> logs.put(serviceId.name(), serviceLogs));
+        return logs;
     }
 
     /**
@@ -164,12 +257,51 @@ public class DemoClientService {
         requestLogs.clear();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        decisionExecutor.shutdown();
+        httpExecutor.shutdown();
+    }
+
+    /**
+     * State of one logical request across its attempts; only one attempt runs at a time
+     */
+    private final class RetryingCall {
+        private final String serviceName;
+        private final String endpoint;
+        private final long startTime = System.currentTimeMillis();
+        private final List<String> attemptLogs = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<RequestResult> result = new CompletableFuture<>();
+        private volatile int retryCount;
+
+        private RetryingCall(String serviceName, String endpoint) {
+            this.serviceName = serviceName;
+            this.endpoint = endpoint;
+        }
+
+        private void run(Runnable stage) {
+            try {
+                stage.run();
+            } catch (Throwable e) {
+                log.warn("Request to {} failed in the client: {}", serviceName, e.toString());
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void complete(boolean success, String response, String status) {
+            long totalDuration = System.currentTimeMillis() - startTime;
+            logRequest(serviceName, success, totalDuration, retryCount, status, attemptLogs);
+            result.complete(new RequestResult(success, response, retryCount, totalDuration, status, new ArrayList<>(attemptLogs)));
+        }
+    }
+
     // DTOs
     public record RequestResult(
         boolean success,
         String response,
         int retryCount,
         long totalDuration,
+        String status,
         List<String> attemptLogs
     ) {}
 
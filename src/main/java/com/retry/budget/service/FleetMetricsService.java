@@ -0,0 +1,307 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.model.FleetMetrics;
+import com.retry.budget.model.LatencyStats;
+import com.retry.budget.model.NodeMetricsSketch;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.repository.NodeSketchRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.LatencyHistogram;
+import com.retry.budget.util.ServiceRegistry;
+import com.retry.budget.util.ServiceSlots;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combines every node's view of a service into one fleet-wide view. Each node keeps a mergeable
+ * histogram and counters per service over a current and previous tumbling window, publishes them
+ * as a sketch under its own node id, and periodically merges all live sketches. Budgets read the
+ * cached merge, so the decision path never waits on shared storage.
+ */
+@Service
+public class FleetMetricsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FleetMetricsService.class);
+    
+    private final NodeSketchRepository sketchRepository;
+    private final RetryBudgetRepository budgetRepository;
+    private final NodeIdentity nodeIdentity;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final BudgetCalculator budgetCalculator;
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceSlots<NodeWindows> localWindows;
+    private final Map<String, FleetMetrics> merged = new ConcurrentHashMap<>();
+    
+    public FleetMetricsService(NodeSketchRepository sketchRepository,
+                               RetryBudgetRepository budgetRepository,
+                               NodeIdentity nodeIdentity,
+                               RetryBudgetConfig config,
+                               MeterRegistry meterRegistry,
+                               BudgetCalculator budgetCalculator,
+                               ServiceRegistry serviceRegistry) {
+        this.sketchRepository = sketchRepository;
+        this.budgetRepository = budgetRepository;
+        this.nodeIdentity = nodeIdentity;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.budgetCalculator = budgetCalculator;
+        this.serviceRegistry = serviceRegistry;
+        this.localWindows = serviceRegistry.newSlots();
+    }
+    
+    /**
+     * Record one sample and return this node's own view of the service over the current and
+     * previous window, so health can be classified on the sample itself without shared storage
+     */
+    public NodeView recordRequest(String serviceName, long latencyMs, RequestOutcome outcome) {
+        return windowsFor(serviceName).record(System.currentTimeMillis(), latencyMs, outcome);
+    }
+    
+    public void recordRetry(String serviceName) {
+        recordRetries(serviceName, 1);
+    }
+    
+    public void recordRetries(String serviceName, int count) {
+        windowsFor(serviceName).recordRetries(System.currentTimeMillis(), count);
+    }
+    
+    /**
+     * Last merged fleet view, or null when nothing has been merged for the service yet
+     */
+    public FleetMetrics getFleetMetrics(String serviceName) {
+        return merged.get(serviceName);
+    }
+    
+    /**
+     * Publish this node's sketch for one service and re-merge it, so a recompute triggered between
+     * scheduled rounds sees this node's latest samples
+     */
+    public FleetMetrics refresh(String serviceName) {
+        long now = System.currentTimeMillis();
+        NodeWindows windows = localWindows.get(serviceRegistry.intern(serviceName));
+        if (windows != null) {
+            sketchRepository.publish(windows.toSketch(serviceName, nodeIdentity.getNodeId(), now));
+        }
+        return merge(serviceName, now);
+    }
+    
+    /**
+     * Stop publishing for an evicted service and withdraw this node's sketch from the merge
+     */
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        String serviceName = event.serviceName();
+        merged.remove(serviceName);
+        if (localWindows.remove(serviceRegistry.intern(serviceName)) != null) {
+            sketchRepository.removeSketches(serviceName, List.of(nodeIdentity.getNodeId()));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${retry.budget.cluster.sketch-publish-interval-ms:5000}",
+            initialDelayString = "${retry.budget.cluster.sketch-publish-interval-ms:5000}")
+    public void publishAndMerge() {
+        long now = System.currentTimeMillis();
+        
+        Set<String> services = new HashSet<>();
+        localWindows.forEach(serviceRegistry, (serviceId, windows) -> {
+            services.add(serviceId.name());
+            try {
+                sketchRepository.publish(windows.toSketch(serviceId.name(), nodeIdentity.getNodeId(), now));
+            } catch (Exception e) {
+                logger.warn("Failed to publish sketch for {}: {}", serviceId.name(), e.getMessage());
+            }
+        });
+        
+        for (RetryBudget budget : budgetRepository.getLocalBudgets()) {
+            services.add(budget.getServiceName());
+        }
+        for (String serviceName : services) {
+            try {
+                merge(serviceName, now);
+            } catch (Exception e) {
+                logger.warn("Failed to merge sketches for {}: {}", serviceName, e.getMessage());
+            }
+        }
+    }
+    
+    private FleetMetrics merge(String serviceName, long now) {
+        long staleAfterMs = config.getCluster().getSketchStaleAfterMs();
+        long oldestWindowMs = windowStart(now) - windowMs();
+        
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = 0;
+        long failed = 0;
+        long retries = 0;
+        long[] outcomeCounts = new long[RequestOutcome.count()];
+        int nodes = 0;
+        List<String> stale = new ArrayList<>();
+        
+        for (NodeMetricsSketch sketch : sketchRepository.getSketches(serviceName)) {
+            if (now - sketch.getPublishedAtMs() > staleAfterMs) {
+                stale.add(sketch.getNodeId());
+                continue;
+            }
+            if (sketch.getWindowStartMs() < oldestWindowMs) {
+                continue;
+            }
+            
+            histogram.merge(new LatencyHistogram(sketch.getLatencyBuckets(), sketch.getMinLatencyMs(),
+                    sketch.getMaxLatencyMs(), sketch.getLatencySum(), sketch.getLatencySumOfSquares()));
+            total += sketch.getTotalRequests();
+            failed += sketch.getFailedRequests();
+            retries += sketch.getRetryCount();
+            addOutcomes(outcomeCounts, sketch.getOutcomeCounts());
+            nodes++;
+        }
+        
+        if (!stale.isEmpty()) {
+            sketchRepository.removeSketches(serviceName, stale);
+            meterRegistry.counter("retry.budget.fleet.stale.sketches").increment(stale.size());
+            logger.debug("Dropped {} stale sketches for {}", stale.size(), serviceName);
+        }
+        
+        FleetMetrics fleet = FleetMetrics.builder()
+                .serviceName(serviceName)
+                .nodes(nodes)
+                .totalRequests(total)
+                .failedRequests(failed)
+                .retryCount(retries)
+                .outcomeCounts(outcomeCounts)
+                .errorRate(budgetCalculator.calculateErrorRate(total, outcomeCounts))
+                .latencyStats(histogram.toLatencyStats())
+                .mergedAt(LocalDateTime.now())
+                .build();
+        merged.put(serviceName, fleet);
+        return fleet;
+    }
+    
+    private static void addOutcomes(long[] into, long[] counts) {
+        if (counts == null) {
+            return;
+        }
+        for (int i = 0; i < counts.length && i < into.length; i++) {
+            into[i] += counts[i];
+        }
+    }
+    
+    private NodeWindows windowsFor(String serviceName) {
+        return localWindows.computeIfAbsent(serviceRegistry.intern(serviceName), id -> new NodeWindows());
+    }
+    
+    private long windowMs() {
+        return config.getEvaluationWindowSeconds() * 1000L;
+    }
+    
+    private long windowStart(long now) {
+        return now - now % windowMs();
+    }
+    
+    public record NodeView(LatencyStats latencyStats, double errorRate) {
+    }
+    
+    /**
+     * Current and previous tumbling windows; a sketch always covers both so a window rollover does
+     * not momentarily empty the fleet view. The two are also kept summed, rebuilt once per rollover,
+     * so reading them on every sample does not merge histograms.
+     */
+    private final class NodeWindows {
+        
+        private Window current = new Window(0);
+        private Window previous = new Window(0);
+        private LatencyHistogram recent = new LatencyHistogram();
+        private long[] recentOutcomes = new long[RequestOutcome.count()];
+        private long recentTotal;
+        
+        synchronized NodeView record(long now, long latencyMs, RequestOutcome outcome) {
+            Window window = roll(now);
+            window.histogram.record(latencyMs);
+            window.total++;
+            window.outcomes[outcome.ordinal()]++;
+            if (outcome.isFailure()) {
+                window.failed++;
+            }
+            
+            recent.record(latencyMs);
+            recentOutcomes[outcome.ordinal()]++;
+            recentTotal++;
+            return new NodeView(recent.toLatencyStats(), budgetCalculator.calculateErrorRate(recentTotal, recentOutcomes));
+        }
+        
+        synchronized void recordRetries(long now, int count) {
+            roll(now).retries += count;
+        }
+        
+        synchronized NodeMetricsSketch toSketch(String serviceName, String nodeId, long now) {
+            Window window = roll(now);
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.merge(previous.histogram);
+            histogram.merge(window.histogram);
+            long[] outcomes = previous.outcomes.clone();
+            addOutcomes(outcomes, window.outcomes);
+            
+            return NodeMetricsSketch.builder()
+                    .serviceName(serviceName)
+                    .nodeId(nodeId)
+                    .windowStartMs(window.startMs)
+                    .publishedAtMs(now)
+                    .totalRequests(previous.total + window.total)
+                    .failedRequests(previous.failed + window.failed)
+                    .retryCount(previous.retries + window.retries)
+                    .outcomeCounts(outcomes)
+                    .latencyBuckets(histogram.getCounts())
+                    .minLatencyMs(histogram.getMin())
+                    .maxLatencyMs(histogram.getMax())
+                    .latencySum(histogram.getSum())
+                    .latencySumOfSquares(histogram.getSumOfSquares())
+                    .build();
+        }
+        
+        private Window roll(long now) {
+            long start = windowStart(now);
+            if (current.startMs == start) {
+                return current;
+            }
+            
+            previous = current.startMs == start - windowMs() ? current : new Window(start - windowMs());
+            current = new Window(start);
+            
+            recent = new LatencyHistogram();
+            recent.merge(previous.histogram);
+            recentOutcomes = previous.outcomes.clone();
+            recentTotal = previous.total;
+            return current;
+        }
+    }
+    
+    private static final class Window {
+        
+        private final long startMs;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final long[] outcomes = new long[RequestOutcome.count()];
+        private long total;
+        private long failed;
+        private long retries;
+        
+        Window(long startMs) {
+            this.startMs = startMs;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.retry.budget.service;
+
+import com.retry.budget.enums.CeilingDecision;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface GlobalRetryCeiling {
+    
+    CeilingDecision checkCeiling(String serviceName);
+    
+    Mono<CeilingDecision> checkCeilingAsync(String serviceName);
+    
+    CeilingDecision acquire(String serviceName);
+    
+    CeilingDecision acquire(String serviceName, int permits);
+    
+    Map<String, Object> getUsage();
+}
@@ -0,0 +1,121 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.ServiceMeter;
+import com.retry.budget.repository.RetryCeilingRepository;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class GlobalRetryCeilingImpl implements GlobalRetryCeiling {
+
+    private final RetryCeilingRepository ceilingRepository;
+    private final RetryBudgetConfig config;
+    private final ServiceRegistry serviceRegistry;
+    private final Map<String, String> serviceGroups = new HashMap<>();
+
+    public GlobalRetryCeilingImpl(RetryCeilingRepository ceilingRepository,
+                                  RetryBudgetConfig config,
+                                  ServiceRegistry serviceRegistry) {
+        this.ceilingRepository = ceilingRepository;
+        this.config = config;
+        this.serviceRegistry = serviceRegistry;
+
+        config.getCeiling().getGroups().forEach((group, settings) ->
+                settings.getServices().forEach(service -> serviceGroups.put(service, group)));
+    }
+
+    @Override
+    public CeilingDecision checkCeiling(String serviceName) {
+        return evaluate(serviceName, 0);
+    }
+
+    @Override
+    public CeilingDecision acquire(String serviceName) {
+        return evaluate(serviceName, 1);
+    }
+
+    @Override
+    public CeilingDecision acquire(String serviceName, int permits) {
+        return evaluate(serviceName, permits);
+    }
+
+    @Override
+    public Map<String, Object> getUsage() {
+        RetryBudgetConfig.Ceiling ceiling = config.getCeiling();
+
+        Map<String, Object> usage = new HashMap<>();
+        usage.put("window", currentWindow());
+        usage.put("globalRetriesPerWindow", ceiling.getGlobalRetriesPerWindow());
+        usage.put("windowSeconds", ceiling.getWindowSeconds());
+        usage.put("counters", ceilingRepository.getUsage(currentWindow()));
+
+        return usage;
+    }
+
+    @Override
+    public Mono<CeilingDecision> checkCeilingAsync(String serviceName) {
+        RetryBudgetConfig.Ceiling ceiling = config.getCeiling();
+        if (!ceiling.isEnabled()) {
+            return Mono.just(CeilingDecision.WITHIN_CEILING);
+        }
+
+        String group = serviceGroups.get(serviceName);
+        return ceilingRepository.evaluateAsync(
+                        currentWindow(),
+                        serviceName,
+                        group,
+                        ceiling.getGlobalRetriesPerWindow(),
+                        groupCap(group),
+                        weight(serviceName),
+                        ceiling.getFairShareEnforceAbovePercent() / 100.0,
+                        0,
+                        ceiling.getWindowSeconds() * 2L)
+                .doOnNext(decision -> recordDenial(serviceName, decision));
+    }
+
+    private CeilingDecision evaluate(String serviceName, int permits) {
+        RetryBudgetConfig.Ceiling ceiling = config.getCeiling();
+        if (!ceiling.isEnabled()) {
+            return CeilingDecision.WITHIN_CEILING;
+        }
+
+        String group = serviceGroups.get(serviceName);
+        CeilingDecision decision = ceilingRepository.evaluate(
+                currentWindow(),
+                serviceName,
+                group,
+                ceiling.getGlobalRetriesPerWindow(),
+                groupCap(group),
+                weight(serviceName),
+                ceiling.getFairShareEnforceAbovePercent() / 100.0,
+                permits,
+                ceiling.getWindowSeconds() * 2L);
+
+        recordDenial(serviceName, decision);
+        return decision;
+    }
+
+    private void recordDenial(String serviceName, CeilingDecision decision) {
+        if (!decision.isAllowed()) {
+            serviceRegistry.counter(serviceName, ServiceMeter.ceilingDenied(decision)).increment();
+        }
+    }
+
+    private int groupCap(String group) {
+        return group == null ? 0 : config.getCeiling().getGroups().get(group).getRetriesPerWindow();
+    }
+
+    private double weight(String serviceName) {
+        return config.getCeiling().getServiceWeights().getOrDefault(serviceName, 1.0);
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / 1000 / config.getCeiling().getWindowSeconds();
+    }
+}
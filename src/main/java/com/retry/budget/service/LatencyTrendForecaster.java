@@ -0,0 +1,140 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.ForecastState;
+import com.retry.budget.util.HoltTrend;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a Holt trend of each service's p95 and error rate, sampled at most once per
+ * {@code sample-interval-ms}, and forecasts them {@code horizon-seconds} ahead. Forecasts only
+ * ever tighten a budget: while a metric is falling the current value is used instead.
+ */
+@Service
+public class LatencyTrendForecaster {
+    
+    private final RetryBudgetConfig config;
+    private final Map<String, Trends> trends = new ConcurrentHashMap<>();
+    
+    public LatencyTrendForecaster(RetryBudgetConfig config) {
+        this.config = config;
+    }
+    
+    /**
+     * Feed the latest window values; returns true when the forecast moved across a budget threshold
+     */
+    public boolean observe(String serviceName, double p95, double errorRate, long nowMs) {
+        RetryBudgetConfig.Forecast settings = config.getForecast();
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        
+        Trends series = trends.computeIfAbsent(serviceName, name -> new Trends(settings));
+        synchronized (series) {
+            if (series.p95.getSamples() > 0 && nowMs - series.p95.getLastUpdateMs() < settings.getSampleIntervalMs()) {
+                return false;
+            }
+            
+            series.p95.update(p95, nowMs);
+            series.errorRate.update(errorRate, nowMs);
+            
+            int band = band(forecast(series.p95, p95, nowMs), forecast(series.errorRate, errorRate, nowMs));
+            boolean crossed = band != series.band;
+            series.band = band;
+            return crossed;
+        }
+    }
+    
+    public double forecastP95(String serviceName, double currentP95) {
+        Trends series = trends.get(serviceName);
+        if (series == null) {
+            return currentP95;
+        }
+        synchronized (series) {
+            return forecast(series.p95, currentP95, System.currentTimeMillis());
+        }
+    }
+    
+    public double forecastErrorRate(String serviceName, double currentErrorRate) {
+        Trends series = trends.get(serviceName);
+        if (series == null) {
+            return currentErrorRate;
+        }
+        synchronized (series) {
+            return forecast(series.errorRate, currentErrorRate, System.currentTimeMillis());
+        }
+    }
+    
+    public void reset(String serviceName) {
+        trends.remove(serviceName);
+    }
+    
+    public List<ForecastState> getStates() {
+        List<ForecastState> states = new ArrayList<>(trends.size());
+        trends.forEach((serviceName, series) -> {
+            synchronized (series) {
+                states.add(ForecastState.builder()
+                        .serviceName(serviceName)
+                        .p95Level(series.p95.getLevel())
+                        .p95TrendPerSecond(series.p95.getTrendPerSecond())
+                        .errorRateLevel(series.errorRate.getLevel())
+                        .errorRateTrendPerSecond(series.errorRate.getTrendPerSecond())
+                        .lastUpdateMs(series.p95.getLastUpdateMs())
+                        .samples(series.p95.getSamples())
+                        .band(series.band)
+                        .build());
+            }
+        });
+        return states;
+    }
+    
+    /**
+     * Seed a service's trends from a snapshot; a service already observed since startup keeps its own
+     */
+    public void restore(ForecastState state) {
+        Trends series = new Trends(config.getForecast());
+        series.p95.restore(state.getP95Level(), state.getP95TrendPerSecond(), state.getLastUpdateMs(), state.getSamples());
+        series.errorRate.restore(state.getErrorRateLevel(), state.getErrorRateTrendPerSecond(),
+                state.getLastUpdateMs(), state.getSamples());
+        series.band = state.getBand();
+        trends.putIfAbsent(state.getServiceName(), series);
+    }
+    
+    private double forecast(HoltTrend trend, double current, long nowMs) {
+        RetryBudgetConfig.Forecast settings = config.getForecast();
+        long horizonMs = settings.getHorizonSeconds() * 1000L;
+        
+        // A trend that is no longer fed says nothing about the future
+        if (!settings.isEnabled() || trend.getSamples() < settings.getMinSamples()
+                || nowMs - trend.getLastUpdateMs() > horizonMs) {
+            return current;
+        }
+        
+        return Math.max(current, trend.forecast(settings.getHorizonSeconds()));
+    }
+    
+    private int band(double p95, double errorRate) {
+        RetryBudgetConfig.LatencyThresholds latency = config.getLatencyThresholds();
+        int latencyBand = p95 <= latency.getHealthyP95Ms() ? 0 : p95 < latency.getDegradedP95Ms() ? 1 : 2;
+        RetryBudgetConfig.ErrorRateThresholds errors = config.getErrorRateThresholds();
+        int errorBand = errorRate < errors.getWarningPercent() ? 0 : errorRate < errors.getCriticalPercent() ? 1 : 2;
+        return latencyBand * 3 + errorBand;
+    }
+    
+    private static final class Trends {
+        
+        private final HoltTrend p95;
+        private final HoltTrend errorRate;
+        private int band;
+        
+        Trends(RetryBudgetConfig.Forecast settings) {
+            this.p95 = new HoltTrend(settings.getLevelSmoothing(), settings.getTrendSmoothing());
+            this.errorRate = new HoltTrend(settings.getLevelSmoothing(), settings.getTrendSmoothing());
+        }
+    }
+}
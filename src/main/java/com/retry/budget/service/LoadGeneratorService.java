@@ -0,0 +1,252 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.LatencyPercentiles;
+import com.retry.budget.model.LoadTestReport;
+import com.retry.budget.model.ServiceLoadReport;
+import com.retry.budget.util.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the demo services. Each service gets a thread that starts requests
+ * on a fixed schedule at the target rate, whether or not earlier requests have returned, so a slow
+ * backend cannot throttle the load it is measured under. Latency is taken from each request's
+ * scheduled start rather than its actual send: when the concurrency limit holds a request back,
+ * the wait shows up in the percentiles instead of silently lowering the offered rate.
+ */
+@Slf4j
+@Service
+public class LoadGeneratorService {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final DemoClientService demoClientService;
+    private final RetryBudgetConfig.DemoClient settings;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoadGeneratorService(DemoClientService demoClientService, RetryBudgetConfig config) {
+        this.demoClientService = demoClientService;
+        this.settings = config.getDemoClient();
+    }
+
+    /**
+     * Drive every service at {@code ratePerSecond} for the duration with at most {@code concurrency}
+     * requests in flight per service; the future completes once every sent request has finished,
+     * or after {@code demo-client.load-drain-timeout-ms} with whatever is still in flight left out
+     */
+    public CompletableFuture<LoadTestReport> run(List<String> serviceNames, double ratePerSecond,
+                                                 int concurrency, int durationSeconds) {
+        if (ratePerSecond <= 0 || ratePerSecond > settings.getMaxLoadRatePerSecond()) {
+            throw new IllegalArgumentException("Rate must be in (0, " + settings.getMaxLoadRatePerSecond() + "]");
+        }
+        if (concurrency <= 0 || concurrency > settings.getMaxInFlightPerService()) {
+            throw new IllegalArgumentException("Concurrency must be in [1, " + settings.getMaxInFlightPerService() + "]");
+        }
+        if (durationSeconds <= 0 || durationSeconds > settings.getMaxLoadDurationSeconds()) {
+            throw new IllegalArgumentException("Duration must be in [1, " + settings.getMaxLoadDurationSeconds() + "] seconds");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A load test is already running");
+        }
+
+        boolean started = false;
+        try {
+            CompletableFuture<LoadTestReport> report = start(serviceNames, ratePerSecond, concurrency, durationSeconds);
+            started = true;
+            return report;
+        } finally {
+            if (!started) {
+                running.set(false);
+            }
+        }
+    }
+
+    private CompletableFuture<LoadTestReport> start(List<String> serviceNames, double ratePerSecond,
+                                                    int concurrency, int durationSeconds) {
+        log.info("Starting load test: {} req/s per service, concurrency {}, {}s, services {}",
+            ratePerSecond, concurrency, durationSeconds, serviceNames);
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long end = start + durationSeconds * NANOS_PER_SECOND;
+        long drainDeadline = end + TimeUnit.MILLISECONDS.toNanos(settings.getLoadDrainTimeoutMs());
+        long period = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+
+        Map<String, ServiceRun> runs = new LinkedHashMap<>();
+        CompletableFuture<?>[] finished = new CompletableFuture<?>[serviceNames.size()];
+        for (int i = 0; i < serviceNames.size(); i++) {
+            ServiceRun run = new ServiceRun(serviceNames.get(i), concurrency);
+            runs.put(run.serviceName, run);
+            finished[i] = run.finished;
+
+            Thread thread = new Thread(() -> run.drive(start, end, drainDeadline, period), "load-" + run.serviceName);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        return CompletableFuture.allOf(finished)
+            .handle((ignored, error) -> {
+                try {
+                    return report(runs, startedAt, start, ratePerSecond, concurrency, durationSeconds);
+                } finally {
+                    running.set(false);
+                }
+            });
+    }
+
+    private LoadTestReport report(Map<String, ServiceRun> runs, LocalDateTime startedAt, long start,
+                                  double ratePerSecond, int concurrency, int durationSeconds) {
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, ServiceLoadReport> reports = new LinkedHashMap<>();
+        runs.forEach((name, run) -> reports.put(name, run.report(ratePerSecond, elapsed)));
+
+        log.info("Load test finished after {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return LoadTestReport.builder()
+            .startedAt(startedAt)
+            .durationSeconds(durationSeconds)
+            .ratePerSecond(ratePerSecond)
+            .concurrency(concurrency)
+            .elapsedMs(TimeUnit.NANOSECONDS.toMillis(elapsed))
+            .services(reports)
+            .build();
+    }
+
+    private static LatencyPercentiles percentiles(LatencyHistogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return LatencyPercentiles.builder().build();
+        }
+        return LatencyPercentiles.builder()
+            .p50(histogram.percentile(50) / 1000.0)
+            .p90(histogram.percentile(90) / 1000.0)
+            .p99(histogram.percentile(99) / 1000.0)
+            .p999(histogram.percentile(99.9) / 1000.0)
+            .max(histogram.getMax() / 1000.0)
+            .mean(histogram.getSum() / histogram.getTotalCount() / 1000.0)
+            .build();
+    }
+
+    /**
+     * One service's schedule and results; histograms are in microseconds and guarded by the run
+     */
+    private final class ServiceRun {
+        private final String serviceName;
+        private final String endpoint;
+        private final int concurrency;
+        private final Semaphore permits;
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final Map<String, Long> decisions = new TreeMap<>();
+        private long scheduled;
+        private long sent;
+        private long unsent;
+        private long completed;
+        private long successes;
+        private long retries;
+        private long maxSendLagNanos;
+
+        private ServiceRun(String serviceName, int concurrency) {
+            this.serviceName = serviceName;
+            this.endpoint = "/api/demo/backend/" + serviceName;
+            this.concurrency = concurrency;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        private void drive(long start, long end, long drainDeadline, long period) {
+            try {
+                for (long intended = start; intended < end; intended += period) {
+                    long wait;
+                    while ((wait = intended - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    if (!permits.tryAcquire(Math.max(0, end - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                        long remaining = (end - intended + period - 1) / period;
+                        synchronized (this) {
+                            scheduled += remaining;
+                            unsent += remaining;
+                        }
+                        break;
+                    }
+                    send(intended);
+                }
+
+                // Every in-flight request holds a permit, so holding them all means the run is drained
+                long drainWait = Math.max(0, drainDeadline - System.nanoTime());
+                if (!permits.tryAcquire(concurrency, drainWait, TimeUnit.NANOSECONDS)) {
+                    log.warn("Load test for {} stopped waiting with {} requests still in flight",
+                        serviceName, concurrency - permits.availablePermits());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finished.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                log.error("Load generation for {} failed: {}", serviceName, e.getMessage());
+                finished.completeExceptionally(e);
+            } finally {
+                finished.complete(null);
+            }
+        }
+
+        private void send(long intended) {
+            long actual = System.nanoTime();
+            synchronized (this) {
+                scheduled++;
+                sent++;
+                maxSendLagNanos = Math.max(maxSendLagNanos, actual - intended);
+            }
+
+            demoClientService.makeRequestAsync(serviceName, endpoint)
+                .whenComplete((result, error) -> {
+                    long now = System.nanoTime();
+                    synchronized (this) {
+                        completed++;
+                        latency.record(TimeUnit.NANOSECONDS.toMicros(now - intended));
+                        serviceTime.record(TimeUnit.NANOSECONDS.toMicros(now - actual));
+                        if (error != null) {
+                            decisions.merge("ERROR", 1L, Long::sum);
+                        } else {
+                            decisions.merge(result.status(), 1L, Long::sum);
+                            retries += result.retryCount();
+                            if (result.success()) {
+                                successes++;
+                            }
+                        }
+                    }
+                    permits.release();
+                });
+        }
+
+        private synchronized ServiceLoadReport report(double ratePerSecond, long elapsedNanos) {
+            return ServiceLoadReport.builder()
+                .serviceName(serviceName)
+                .targetRatePerSecond(ratePerSecond)
+                .scheduled(scheduled)
+                .sent(sent)
+                .completed(completed)
+                .unsent(unsent)
+                .throughputPerSecond(elapsedNanos > 0 ? completed * (double) NANOS_PER_SECOND / elapsedNanos : 0)
+                .successes(successes)
+                .retries(retries)
+                .decisions(new TreeMap<>(decisions))
+                .latency(percentiles(latency))
+                .serviceTime(percentiles(serviceTime))
+                .maxSendLagMs(maxSendLagNanos / 1_000_000.0)
+                .build();
+        }
+    }
+}
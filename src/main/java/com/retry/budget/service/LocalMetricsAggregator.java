@@ -0,0 +1,135 @@
+package com.retry.budget.service;
+
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.ServiceMeter;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.util.ServiceId;
+import com.retry.budget.util.ServiceRegistry;
+import com.retry.budget.util.ServiceSlots;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process buffer for request outcomes and retries. Each sample is observed right away, so the
+ * limiter and threshold checks see it on the caller's thread; only the write to the shared metrics
+ * is batched, flushed to the MetricsAggregator once per service.
+ */
+@Slf4j
+@Service
+public class LocalMetricsAggregator {
+
+    private static final int BUFFER_CAPACITY = 4096;
+
+    private final MetricsAggregator metricsAggregator;
+    private final ServiceRegistry serviceRegistry;
+    private final TrafficCaptureService trafficCapture;
+    private final ServiceSlots<SampleBuffer> buffers;
+
+    public LocalMetricsAggregator(MetricsAggregator metricsAggregator, ServiceRegistry serviceRegistry,
+                                  TrafficCaptureService trafficCapture) {
+        this.metricsAggregator = metricsAggregator;
+        this.serviceRegistry = serviceRegistry;
+        this.buffers = serviceRegistry.newSlots();
+        this.trafficCapture = trafficCapture;
+    }
+
+    public void record(String serviceName, long latencyMs, boolean success) {
+        record(serviceName, latencyMs, RequestOutcome.fromSuccess(success));
+    }
+
+    public void record(String serviceName, long latencyMs, RequestOutcome outcome) {
+        trafficCapture.recordRequest(serviceName, latencyMs, outcome);
+        recordUncaptured(serviceName, latencyMs, outcome);
+    }
+
+    /**
+     * Observe and buffer a sample that was already captured under another key, such as the endpoint
+     * and tenant keys below the service it was recorded for
+     */
+    public void recordUncaptured(String key, long latencyMs, RequestOutcome outcome) {
+        metricsAggregator.observe(key, latencyMs, outcome);
+        ServiceId serviceId = serviceRegistry.intern(key);
+        Samples full = buffers.computeIfAbsent(serviceId, id -> new SampleBuffer()).add(latencyMs, outcome);
+
+        if (full != null) {
+            // A burst filled the buffer before the next flush; write it from here rather than drop it
+            serviceRegistry.counter(serviceId, ServiceMeter.LOCAL_OVERFLOW).increment();
+            write(serviceId, full);
+        }
+    }
+
+    public void recordRetry(String serviceName) {
+        trafficCapture.recordRetries(serviceName, 1);
+        buffers.computeIfAbsent(serviceRegistry.intern(serviceName), id -> new SampleBuffer()).addRetry();
+    }
+
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        buffers.remove(serviceRegistry.intern(event.serviceName()));
+    }
+
+    @Scheduled(fixedDelayString = "${retry.budget.local-flush-interval-ms:1000}")
+    public void flush() {
+        buffers.forEach(serviceRegistry, (serviceId, buffer) -> write(serviceId, buffer.drain()));
+    }
+
+    private void write(ServiceId serviceId, Samples samples) {
+        if (samples.count == 0 && samples.retries == 0) {
+            return;
+        }
+
+        try {
+            metricsAggregator.recordRequests(serviceId.name(), samples.latencies, samples.outcomes, samples.count);
+            metricsAggregator.recordRetries(serviceId.name(), samples.retries);
+        } catch (Exception e) {
+            log.warn("Error flushing local metrics for service {}: {}", serviceId.name(), e.getMessage());
+        }
+    }
+
+    private static final class Samples {
+        private final long[] latencies = new long[BUFFER_CAPACITY];
+        private final RequestOutcome[] outcomes = new RequestOutcome[BUFFER_CAPACITY];
+        private int count;
+        private int retries;
+    }
+
+    /**
+     * Double buffer: writers append to the active side, the single flushing thread swaps
+     * sides and reads the drained one without holding the lock. A writer that finds the active
+     * side full takes it for itself and starts a fresh one, so the flusher's side is never shared.
+     */
+    private static final class SampleBuffer {
+        private Samples active = new Samples();
+        private Samples drained = new Samples();
+
+        /**
+         * @return the full side this sample did not fit in, for the caller to write, or null
+         */
+        private synchronized Samples add(long latencyMs, RequestOutcome outcome) {
+            Samples full = null;
+            if (active.count == BUFFER_CAPACITY) {
+                full = active;
+                active = new Samples();
+            }
+            active.latencies[active.count] = latencyMs;
+            active.outcomes[active.count] = outcome;
+            active.count++;
+            return full;
+        }
+
+        private synchronized void addRetry() {
+            active.retries++;
+        }
+
+        private synchronized Samples drain() {
+            Samples full = active;
+            drained.count = 0;
+            drained.retries = 0;
+            active = drained;
+            drained = full;
+            return full;
+        }
+    }
+}
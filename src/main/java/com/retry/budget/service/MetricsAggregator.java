@@ -1,14 +1,38 @@
 package com.retry.budget.service;
 
+import com.retry.budget.enums.RequestOutcome;
 import com.retry.budget.model.ServiceMetrics;
+import reactor.core.publisher.Mono;
 
 public interface MetricsAggregator {
     
     void recordRequest(String serviceName, long latencyMs, boolean success);
     
+    void recordRequest(String serviceName, long latencyMs, RequestOutcome outcome);
+    
+    /**
+     * Record against the service and the endpoint and tenant keys below it
+     */
+    void recordRequest(String serviceName, String endpoint, String tenant, long latencyMs, RequestOutcome outcome);
+    
+    /**
+     * The per-sample work that cannot wait for a flush: the concurrency limiter's signal and the
+     * health threshold check. Storage is left to {@link #recordRequests}.
+     */
+    void observe(String serviceName, long latencyMs, RequestOutcome outcome);
+    
+    /**
+     * Add a batch of samples already passed to {@link #observe} to the shared metrics
+     */
+    void recordRequests(String serviceName, long[] latenciesMs, RequestOutcome[] outcomes, int count);
+    
     void recordRetry(String serviceName);
     
+    void recordRetries(String serviceName, int count);
+    
     ServiceMetrics getMetrics(String serviceName);
     
+    Mono<ServiceMetrics> getMetricsAsync(String serviceName);
+    
     void resetMetrics(String serviceName);
 }
\ No newline at end of file
@@ -1,79 +1,179 @@
 package com.retry.budget.service;
 
 import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.enums.ServiceMeter;
+import com.retry.budget.event.ForecastThresholdCrossedEvent;
+import com.retry.budget.event.HealthThresholdCrossedEvent;
+import com.retry.budget.event.ServiceEvictedEvent;
 import com.retry.budget.model.LatencyStats;
 import com.retry.budget.model.ServiceMetrics;
 import com.retry.budget.repository.MetricsRepository;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.retry.budget.repository.ReactiveMetricsRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.ServiceId;
+import com.retry.budget.util.ServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class MetricsAggregatorImpl implements MetricsAggregator {
     
     private final MetricsRepository metricsRepository;
-    private final MeterRegistry meterRegistry;
+    private final ReactiveMetricsRepository reactiveMetricsRepository;
     private final RetryBudgetConfig config;
     private final LatencyAnalyzer latencyAnalyzer;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final FleetMetricsService fleetMetricsService;
+    private final BudgetCalculator budgetCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LatencyTrendForecaster trendForecaster;
+    private final BudgetKeyIndex budgetKeyIndex;
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceActivityTracker activityTracker;
+    private final ObjectProvider<LocalMetricsAggregator> localMetricsAggregator;
+    private final Map<String, ServiceHealthStatus> lastHealth = new ConcurrentHashMap<>();
     
     public MetricsAggregatorImpl(MetricsRepository metricsRepository,
-                                 MeterRegistry meterRegistry,
+                                 ReactiveMetricsRepository reactiveMetricsRepository,
                                  RetryBudgetConfig config,
-                                 LatencyAnalyzer latencyAnalyzer) {
+                                 LatencyAnalyzer latencyAnalyzer,
+                                 ConcurrencyLimiter concurrencyLimiter,
+                                 FleetMetricsService fleetMetricsService,
+                                 BudgetCalculator budgetCalculator,
+                                 ApplicationEventPublisher eventPublisher,
+                                 LatencyTrendForecaster trendForecaster,
+                                 BudgetKeyIndex budgetKeyIndex,
+                                 ServiceRegistry serviceRegistry,
+                                 ServiceActivityTracker activityTracker,
+                                 ObjectProvider<LocalMetricsAggregator> localMetricsAggregator) {
         this.metricsRepository = metricsRepository;
-        this.meterRegistry = meterRegistry;
+        this.reactiveMetricsRepository = reactiveMetricsRepository;
         this.config = config;
         this.latencyAnalyzer = latencyAnalyzer;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.fleetMetricsService = fleetMetricsService;
+        this.budgetCalculator = budgetCalculator;
+        this.eventPublisher = eventPublisher;
+        this.trendForecaster = trendForecaster;
+        this.budgetKeyIndex = budgetKeyIndex;
+        this.serviceRegistry = serviceRegistry;
+        this.activityTracker = activityTracker;
+        this.localMetricsAggregator = localMetricsAggregator;
     }
     
     @Override
     public void recordRequest(String serviceName, long latencyMs, boolean success) {
-        ServiceMetrics metrics = metricsRepository.getMetrics(serviceName);
-        
-        if (metrics == null) {
-            metrics = initializeMetrics(serviceName);
+        recordRequest(serviceName, latencyMs, RequestOutcome.fromSuccess(success));
+    }
+    
+    /**
+     * The limiter and threshold check run on the caller's thread; only the shared ServiceMetrics
+     * write is buffered and made once per service per flush
+     */
+    @Override
+    public void recordRequest(String serviceName, long latencyMs, RequestOutcome outcome) {
+        activityTracker.touch(serviceName);
+        localMetricsAggregator.getObject().record(serviceName, latencyMs, outcome);
+    }
+    
+    /**
+     * One observation is captured once, under the service; the endpoint and tenant keys only buffer it
+     */
+    @Override
+    public void recordRequest(String serviceName, String endpoint, String tenant, long latencyMs, RequestOutcome outcome) {
+        recordRequest(serviceName, latencyMs, outcome);
+        LocalMetricsAggregator local = localMetricsAggregator.getObject();
+        for (String key : budgetKeyIndex.resolve(serviceName, endpoint, tenant, true)) {
+            activityTracker.touch(key);
+            local.recordUncaptured(key, latencyMs, outcome);
         }
-        
-        metrics.incrementTotalRequests();
-        metrics.addLatency(latencyMs);
-        
-        if (success) {
-            metrics.incrementSuccessfulRequests();
-            meterRegistry.counter("retry.budget.requests.success", "service", serviceName).increment();
-        } else {
-            metrics.incrementFailedRequests();
-            meterRegistry.counter("retry.budget.requests.failed", "service", serviceName).increment();
+    }
+    
+    @Override
+    public void observe(String serviceName, long latencyMs, RequestOutcome outcome) {
+        // Client errors say nothing about the service's capacity
+        concurrencyLimiter.onSample(serviceName, latencyMs, !outcome.isRetryable());
+        FleetMetricsService.NodeView view = fleetMetricsService.recordRequest(serviceName, latencyMs, outcome);
+        detectThresholdCrossing(serviceName, view.latencyStats(), view.errorRate());
+    }
+    
+    @Override
+    public void recordRequests(String serviceName, long[] latenciesMs, RequestOutcome[] outcomes, int count) {
+        if (count == 0) {
+            return;
         }
         
-        metrics.calculateErrorRate();
-        metrics.setLastUpdated(LocalDateTime.now());
-        
-        LatencyStats latencyStats = latencyAnalyzer.analyzeLatency(metrics);
-        metrics.setLatencyStats(latencyStats);
+        activityTracker.touch(serviceName);
+        metricsRepository.updateMetrics(serviceName, stored -> {
+            ServiceMetrics metrics = stored == null ? initializeMetrics(serviceName) : stored;
+            for (int i = 0; i < count; i++) {
+                RequestOutcome outcome = outcomes[i];
+                metrics.incrementOutcome(outcome);
+                metrics.incrementTotalRequests();
+                metrics.addLatency(latenciesMs[i]);
+                
+                if (!outcome.isFailure()) {
+                    metrics.incrementSuccessfulRequests();
+                } else {
+                    metrics.incrementFailedRequests();
+                }
+            }
+            
+            metrics.setErrorRate(budgetCalculator.calculateErrorRate(metrics.getTotalRequests(), metrics.getOutcomeCounts()));
+            metrics.setLastUpdated(LocalDateTime.now());
+            metrics.setLatencyStats(latencyAnalyzer.analyzeLatency(metrics));
+            return metrics;
+        });
         
-        metricsRepository.saveMetrics(metrics);
+        long[] batchOutcomes = new long[RequestOutcome.count()];
+        for (int i = 0; i < count; i++) {
+            batchOutcomes[outcomes[i].ordinal()]++;
+        }
         
-        if (!metrics.getLatencies().isEmpty()) {
-            meterRegistry.gauge("retry.budget.latency", metrics.getLatencies().stream()
-                    .mapToLong(Long::longValue).average().orElse(0.0));
+        ServiceId serviceId = serviceRegistry.intern(serviceName);
+        long successes = batchOutcomes[RequestOutcome.SUCCESS.ordinal()];
+        serviceRegistry.counter(serviceId, ServiceMeter.REQUESTS_SUCCESS).increment(successes);
+        serviceRegistry.counter(serviceId, ServiceMeter.REQUESTS_FAILED).increment(count - successes);
+        for (int i = 0; i < batchOutcomes.length; i++) {
+            if (batchOutcomes[i] > 0) {
+                serviceRegistry.counter(serviceId, ServiceMeter.outcome(RequestOutcome.fromOrdinal(i)))
+                        .increment(batchOutcomes[i]);
+            }
         }
     }
     
     @Override
     public void recordRetry(String serviceName) {
-        ServiceMetrics metrics = metricsRepository.getMetrics(serviceName);
-        
-        if (metrics == null) {
-            metrics = initializeMetrics(serviceName);
+        activityTracker.touch(serviceName);
+        localMetricsAggregator.getObject().recordRetry(serviceName);
+    }
+    
+    @Override
+    public void recordRetries(String serviceName, int count) {
+        if (count == 0) {
+            return;
         }
         
-        metrics.incrementRetryCount();
-        metrics.setLastUpdated(LocalDateTime.now());
+        activityTracker.touch(serviceName);
+        fleetMetricsService.recordRetries(serviceName, count);
         
-        metricsRepository.saveMetrics(metrics);
+        metricsRepository.updateMetrics(serviceName, stored -> {
+            ServiceMetrics metrics = stored == null ? initializeMetrics(serviceName) : stored;
+            metrics.addRetries(count);
+            metrics.setLastUpdated(LocalDateTime.now());
+            return metrics;
+        });
         
-        meterRegistry.counter("retry.budget.retries", "service", serviceName).increment();
+        serviceRegistry.counter(serviceName, ServiceMeter.RETRIES).increment(count);
     }
     
     @Override
@@ -81,9 +181,8 @@ public class MetricsAggregatorImpl implements MetricsAggregator {
         ServiceMetrics metrics = metricsRepository.getMetrics(serviceName);
         
         if (metrics == null) {
-            metrics = initializeMetrics(serviceName);
-            metricsRepository.saveMetrics(metrics);
-            return metrics;
+            return metricsRepository.updateMetrics(serviceName,
+                    stored -> stored == null ? initializeMetrics(serviceName) : stored);
         }
         
         if (!metrics.getLatencies().isEmpty()) {
@@ -94,10 +193,55 @@ public class MetricsAggregatorImpl implements MetricsAggregator {
         return metrics;
     }
     
+    @Override
+    public Mono<ServiceMetrics> getMetricsAsync(String serviceName) {
+        return reactiveMetricsRepository.getMetrics(serviceName)
+                .map(metrics -> {
+                    if (!metrics.getLatencies().isEmpty()) {
+                        metrics.setLatencyStats(latencyAnalyzer.analyzeLatency(metrics));
+                    }
+                    return metrics;
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    ServiceMetrics metrics = initializeMetrics(serviceName);
+                    return reactiveMetricsRepository.saveMetrics(metrics).thenReturn(metrics);
+                }));
+    }
+    
     @Override
     public void resetMetrics(String serviceName) {
         ServiceMetrics metrics = initializeMetrics(serviceName);
         metricsRepository.saveMetrics(metrics);
+        lastHealth.remove(serviceName);
+        trendForecaster.reset(serviceName);
+    }
+    
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        lastHealth.remove(event.serviceName());
+        trendForecaster.reset(event.serviceName());
+    }
+    
+    /**
+     * Classify this node's fresh stats against the health thresholds and announce a change, so the
+     * budget reacts on the sample that crossed instead of on the next scheduled recompute. The
+     * forecast is fed from the same values and announces when it is about to cross.
+     */
+    private void detectThresholdCrossing(String serviceName, LatencyStats latencyStats, double errorRate) {
+        if (trendForecaster.observe(serviceName, latencyStats.getP95(), errorRate, System.currentTimeMillis())) {
+            eventPublisher.publishEvent(new ForecastThresholdCrossedEvent(serviceName));
+        }
+        
+        ServiceHealthStatus health = budgetCalculator.determineHealthStatus(latencyStats, errorRate);
+        ServiceHealthStatus previous = lastHealth.put(serviceName, health);
+        
+        if (previous == health || (previous == null && health == ServiceHealthStatus.HEALTHY)) {
+            return;
+        }
+        
+        serviceRegistry.counter(serviceName, ServiceMeter.THRESHOLD_CROSSINGS).increment();
+        eventPublisher.publishEvent(new HealthThresholdCrossedEvent(serviceName,
+                previous == null ? ServiceHealthStatus.HEALTHY : previous, health));
     }
     
     private ServiceMetrics initializeMetrics(String serviceName) {
@@ -109,6 +253,7 @@ public class MetricsAggregatorImpl implements MetricsAggregator {
                 .failedRequests(0)
                 .retryCount(0)
                 .errorRate(0.0)
+                .outcomeCounts(new long[RequestOutcome.count()])
                 .latencyStats(LatencyStats.builder()
                         .p50(0)
                         .p95(0)
@@ -0,0 +1,144 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.HistoryResolution;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.model.HealthSample;
+import com.retry.budget.model.LatencyStats;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.TimeWindowManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples every locally known service once a second into 1s, 10s and 1m rollups. Each service
+ * gets fixed-size rings when first seen, so memory is bounded by the slot counts times
+ * {@code max-services}, independent of uptime.
+ */
+@Service
+public class MetricsHistoryService {
+
+    private final MetricsRepository metricsRepository;
+    private final RetryBudgetRepository budgetRepository;
+    private final LatencyAnalyzer latencyAnalyzer;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<HistoryResolution, TimeWindowManager>> history = new ConcurrentHashMap<>();
+
+    public MetricsHistoryService(MetricsRepository metricsRepository,
+                                 RetryBudgetRepository budgetRepository,
+                                 LatencyAnalyzer latencyAnalyzer,
+                                 RetryBudgetConfig config,
+                                 MeterRegistry meterRegistry) {
+        this.metricsRepository = metricsRepository;
+        this.budgetRepository = budgetRepository;
+        this.latencyAnalyzer = latencyAnalyzer;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void sample() {
+        if (!config.getHistory().isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, RetryBudget> budgets = new HashMap<>();
+        budgetRepository.getLocalBudgets().forEach(budget -> budgets.put(budget.getServiceName(), budget));
+
+        for (ServiceMetrics metrics : metricsRepository.getLocalMetrics()) {
+            LatencyStats stats = metrics.getLatencyStats() != null
+                    ? metrics.getLatencyStats()
+                    : latencyAnalyzer.analyzeLatency(metrics);
+            record(metrics.getServiceName(), now, stats, metrics.getErrorRate(), metrics.getTotalRequests(),
+                    budgets.remove(metrics.getServiceName()));
+        }
+
+        // Services with a budget but no local metrics still get their budget tracked
+        budgets.forEach((serviceName, budget) -> record(serviceName, now, null, 0, 0, budget));
+    }
+
+    public List<HealthSample> getHistory(String serviceName, HistoryResolution resolution, long fromMs, long toMs) {
+        Map<HistoryResolution, TimeWindowManager> series = history.get(serviceName);
+        if (series == null) {
+            return List.of();
+        }
+
+        TimeWindowManager window = series.get(resolution);
+        synchronized (window) {
+            return window.range(fromMs, toMs);
+        }
+    }
+
+    @EventListener
+    public void onServiceEvicted(ServiceEvictedEvent event) {
+        history.remove(event.serviceName());
+    }
+    
+    public long getRetentionMs(HistoryResolution resolution) {
+        return resolution.getMillis() * slotsFor(resolution);
+    }
+
+    private void record(String serviceName, long now, LatencyStats stats, double errorRate, long requests,
+                        RetryBudget budget) {
+        Map<HistoryResolution, TimeWindowManager> series = seriesFor(serviceName);
+        if (series == null) {
+            return;
+        }
+
+        for (TimeWindowManager window : series.values()) {
+            synchronized (window) {
+                window.record(now,
+                        stats == null ? 0 : stats.getP50(),
+                        stats == null ? 0 : stats.getP95(),
+                        stats == null ? 0 : stats.getP99(),
+                        errorRate,
+                        requests,
+                        budget == null ? -1 : budget.getAllocatedBudget(),
+                        budget == null ? -1 : budget.getRemainingBudget(),
+                        budget == null ? null : budget.getHealthStatus());
+            }
+        }
+    }
+
+    private Map<HistoryResolution, TimeWindowManager> seriesFor(String serviceName) {
+        Map<HistoryResolution, TimeWindowManager> series = history.get(serviceName);
+        if (series != null) {
+            return series;
+        }
+
+        if (history.size() >= config.getHistory().getMaxServices()) {
+            meterRegistry.counter("retry.budget.history.untracked").increment();
+            return null;
+        }
+
+        return history.computeIfAbsent(serviceName, name -> {
+            Map<HistoryResolution, TimeWindowManager> windows = new EnumMap<>(HistoryResolution.class);
+            for (HistoryResolution resolution : HistoryResolution.values()) {
+                windows.put(resolution, new TimeWindowManager(resolution.getMillis(), slotsFor(resolution)));
+            }
+            return windows;
+        });
+    }
+
+    private int slotsFor(HistoryResolution resolution) {
+        RetryBudgetConfig.History settings = config.getHistory();
+        return switch (resolution) {
+            case ONE_SECOND -> settings.getOneSecondSlots();
+            case TEN_SECONDS -> settings.getTenSecondSlots();
+            case ONE_MINUTE -> settings.getOneMinuteSlots();
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.util.ObservationParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Optional fire-and-forget ingest of request observations over UDP and TCP, for callers that cannot
+ * afford an HTTP round trip per request. Each transport runs on one thread that decodes straight
+ * from a buffer allocated once ({@link ObservationParser} describes the formats) and appends to
+ * the {@link LocalMetricsAggregator}, which flushes to the {@link MetricsAggregator} in batches.
+ * UDP accepts both the line and the binary encoding; TCP is a newline-delimited stream of lines.
+ */
+@Service
+public class ObservationIngestService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObservationIngestService.class);
+
+    private final LocalMetricsAggregator localMetricsAggregator;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private DatagramChannel udpChannel;
+    private ServerSocketChannel tcpChannel;
+    private Selector selector;
+
+    public ObservationIngestService(LocalMetricsAggregator localMetricsAggregator,
+                                    RetryBudgetConfig config,
+                                    MeterRegistry meterRegistry) {
+        this.localMetricsAggregator = localMetricsAggregator;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RetryBudgetConfig.Ingest settings = config.getIngest();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        try {
+            if (settings.getUdpPort() > 0) {
+                startUdp(settings);
+            }
+            if (settings.getTcpPort() > 0) {
+                startTcp(settings);
+            }
+        } catch (IOException e) {
+            logger.error("Could not start observation ingest on {}: {}", settings.getBindAddress(), e.getMessage());
+            shutdown();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeQuietly(udpChannel);
+        closeQuietly(tcpChannel);
+        closeQuietly(selector);
+    }
+
+    private void startUdp(RetryBudgetConfig.Ingest settings) throws IOException {
+        udpChannel = DatagramChannel.open();
+        udpChannel.setOption(StandardSocketOptions.SO_RCVBUF, settings.getReceiveBufferBytes());
+        udpChannel.bind(new InetSocketAddress(settings.getBindAddress(), settings.getUdpPort()));
+
+        Receiver receiver = new Receiver("udp", settings.getMaxNames());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(settings.getMaxDatagramBytes());
+        DatagramChannel channel = udpChannel;
+
+        startThread("ingest-udp", () -> {
+            while (channel.isOpen()) {
+                try {
+                    buffer.clear();
+                    if (channel.receive(buffer) == null) {
+                        continue;
+                    }
+                    buffer.flip();
+                    receiver.datagram(buffer);
+                } catch (ClosedChannelException e) {
+                    return;
+                } catch (IOException e) {
+                    logger.warn("UDP ingest receive failed: {}", e.getMessage());
+                }
+            }
+        });
+        logger.info("Observation ingest listening on udp/{}", settings.getUdpPort());
+    }
+
+    private void startTcp(RetryBudgetConfig.Ingest settings) throws IOException {
+        selector = Selector.open();
+        tcpChannel = ServerSocketChannel.open();
+        tcpChannel.bind(new InetSocketAddress(settings.getBindAddress(), settings.getTcpPort()));
+        tcpChannel.configureBlocking(false);
+        tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        Receiver receiver = new Receiver("tcp", settings.getMaxNames());
+        int connectionBufferBytes = settings.getMaxLineBytes() * 16;
+        Selector tcpSelector = selector;
+
+        Consumer<SelectionKey> handler = key -> onReady(key, receiver, connectionBufferBytes);
+
+        startThread("ingest-tcp", () -> {
+            try {
+                while (tcpSelector.isOpen()) {
+                    tcpSelector.select(handler);
+                }
+            } catch (ClosedSelectorException e) {
+                // shutting down
+            } catch (IOException e) {
+                logger.error("TCP ingest stopped: {}", e.getMessage());
+            }
+        });
+        logger.info("Observation ingest listening on tcp/{}", settings.getTcpPort());
+    }
+
+    private void onReady(SelectionKey key, Receiver receiver, int connectionBufferBytes) {
+        try {
+            if (key.isAcceptable()) {
+                SocketChannel connection = ((ServerSocketChannel) key.channel()).accept();
+                if (connection != null) {
+                    connection.configureBlocking(false);
+                    connection.register(key.selector(), SelectionKey.OP_READ, ByteBuffer.allocate(connectionBufferBytes));
+                }
+            } else if (key.isReadable()) {
+                SocketChannel connection = (SocketChannel) key.channel();
+                ByteBuffer buffer = (ByteBuffer) key.attachment();
+                if (connection.read(buffer) < 0) {
+                    receiver.lines(buffer, buffer.position());
+                    key.cancel();
+                    connection.close();
+                    return;
+                }
+                receiver.stream(buffer);
+            }
+        } catch (IOException e) {
+            key.cancel();
+            closeQuietly(key.channel());
+        }
+    }
+
+    private static void startThread(String name, Runnable loop) {
+        Thread thread = new Thread(loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.debug("Error closing ingest channel: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One transport's parser, sink and meters; used only by that transport's thread
+     */
+    private final class Receiver implements ObservationParser.Sink {
+
+        private final ObservationParser parser;
+        private final Counter observations;
+        private final Counter malformed;
+        private final Timer processing;
+        private int accepted;
+
+        Receiver(String transport, int maxNames) {
+            this.parser = new ObservationParser(maxNames);
+            this.observations = meterRegistry.counter("retry.budget.ingest.observations", "transport", transport);
+            this.malformed = meterRegistry.counter("retry.budget.ingest.malformed", "transport", transport);
+            this.processing = meterRegistry.timer("retry.budget.ingest.processing", "transport", transport);
+        }
+
+        @Override
+        public void accept(String serviceName, long latencyMs, RequestOutcome outcome, boolean retry) {
+            localMetricsAggregator.record(serviceName, latencyMs, outcome);
+            if (retry) {
+                localMetricsAggregator.recordRetry(serviceName);
+            }
+            accepted++;
+        }
+
+        void datagram(ByteBuffer buffer) {
+            long start = System.nanoTime();
+            record(parser.parseDatagram(buffer, this), start);
+        }
+
+        /**
+         * Decode every complete line in the buffer and keep the partial tail for the next read.
+         * A buffer filled without a single newline holds a line over the limit; it is dropped.
+         */
+        void stream(ByteBuffer buffer) {
+            int end = buffer.position();
+            int lastNewline = end - 1;
+            while (lastNewline >= 0 && buffer.get(lastNewline) != '\n') {
+                lastNewline--;
+            }
+
+            if (lastNewline < 0) {
+                if (!buffer.hasRemaining()) {
+                    malformed.increment();
+                    buffer.clear();
+                }
+                return;
+            }
+
+            lines(buffer, lastNewline + 1);
+            buffer.limit(end).position(lastNewline + 1);
+            buffer.compact();
+        }
+
+        void lines(ByteBuffer buffer, int end) {
+            long start = System.nanoTime();
+            record(parser.parseLines(buffer, 0, end, this), start);
+        }
+
+        private void record(int rejected, long startNanos) {
+            processing.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (accepted > 0) {
+                observations.increment(accepted);
+                accepted = 0;
+            }
+            if (rejected > 0) {
+                malformed.increment(rejected);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.retry.budget.service;
 
+import com.retry.budget.model.HedgeBudget;
 import com.retry.budget.model.RetryBudget;
+import reactor.core.publisher.Mono;
 
 public interface RetryBudgetControllerService {
     
@@ -8,5 +10,24 @@ public interface RetryBudgetControllerService {
     
     RetryBudget getBudget(String serviceName);
     
+    /**
+     * Recompute the allocation inside the current interval: the share already spent carries over
+     * and the expiry is kept, so a recompute between scheduled rounds never refills the budget
+     */
+    RetryBudget resizeBudget(String serviceName);
+    
+    Mono<RetryBudget> calculateBudgetAsync(String serviceName);
+    
+    Mono<RetryBudget> getBudgetAsync(String serviceName);
+    
+    HedgeBudget calculateHedgeBudget(String serviceName);
+    
+    HedgeBudget getHedgeBudget(String serviceName);
+    
     void updateAllBudgets();
+    
+    /**
+     * Recompute only the services this node owns on the cluster's hash ring; returns how many were updated
+     */
+    int updateOwnedBudgets();
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.retry.budget.service;
 
 import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.FleetMetrics;
+import com.retry.budget.model.HedgeBudget;
 import com.retry.budget.model.LatencyStats;
 import com.retry.budget.model.RetryBudget;
 import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.repository.HedgeBudgetRepository;
+import com.retry.budget.repository.ReactiveRetryBudgetRepository;
 import com.retry.budget.repository.RetryBudgetRepository;
 import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.BudgetKeys;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -18,57 +25,133 @@ public class RetryBudgetControllerServiceImpl implements RetryBudgetControllerSe
     private final LatencyAnalyzer latencyAnalyzer;
     private final BudgetCalculator budgetCalculator;
     private final RetryBudgetRepository budgetRepository;
+    private final ReactiveRetryBudgetRepository reactiveBudgetRepository;
+    private final HedgeBudgetRepository hedgeBudgetRepository;
     private final RetryBudgetConfig config;
+    private final FleetMetricsService fleetMetricsService;
+    private final ServiceOwnership serviceOwnership;
+    private final LatencyTrendForecaster trendForecaster;
+    private final ServiceActivityTracker activityTracker;
     
     public RetryBudgetControllerServiceImpl(MetricsAggregator metricsAggregator,
                                             LatencyAnalyzer latencyAnalyzer,
                                             BudgetCalculator budgetCalculator,
                                             RetryBudgetRepository budgetRepository,
-                                            RetryBudgetConfig config) {
+                                            ReactiveRetryBudgetRepository reactiveBudgetRepository,
+                                            HedgeBudgetRepository hedgeBudgetRepository,
+                                            RetryBudgetConfig config,
+                                            FleetMetricsService fleetMetricsService,
+                                            ServiceOwnership serviceOwnership,
+                                            LatencyTrendForecaster trendForecaster,
+                                            ServiceActivityTracker activityTracker) {
         this.metricsAggregator = metricsAggregator;
         this.latencyAnalyzer = latencyAnalyzer;
         this.budgetCalculator = budgetCalculator;
         this.budgetRepository = budgetRepository;
+        this.reactiveBudgetRepository = reactiveBudgetRepository;
+        this.hedgeBudgetRepository = hedgeBudgetRepository;
         this.config = config;
+        this.fleetMetricsService = fleetMetricsService;
+        this.serviceOwnership = serviceOwnership;
+        this.trendForecaster = trendForecaster;
+        this.activityTracker = activityTracker;
     }
     
     @Override
     public RetryBudget calculateBudget(String serviceName) {
-        ServiceMetrics metrics = metricsAggregator.getMetrics(serviceName);
-        LatencyStats latencyStats = latencyAnalyzer.analyzeLatency(metrics);
+        RetryBudget budget = BudgetKeys.isPool(serviceName)
+                ? buildPoolBudget(serviceName)
+                : buildBudget(serviceName, metricsAggregator.getMetrics(serviceName));
+        budgetRepository.saveBudget(budget);
+        
+        return budget;
+    }
+    
+    @Override
+    public RetryBudget getBudget(String serviceName) {
+        RetryBudget budget = budgetRepository.getBudget(serviceName);
+        
+        if (budget == null || LocalDateTime.now().isAfter(budget.getExpiresAt())) {
+            budget = calculateBudget(serviceName);
+        }
+        
+        return budget;
+    }
+    
+    @Override
+    public RetryBudget resizeBudget(String serviceName) {
+        RetryBudget current = budgetRepository.getBudget(serviceName);
+        if (current == null || BudgetKeys.isPool(serviceName) || LocalDateTime.now().isAfter(current.getExpiresAt())) {
+            return calculateBudget(serviceName);
+        }
         
-        double errorRate = metrics.getErrorRate();
-        int calculatedBudget = budgetCalculator.calculateRetryBudget(latencyStats, errorRate);
+        RetryBudget resized = buildBudget(serviceName, metricsAggregator.getMetrics(serviceName));
+        int allocated = resized.getAllocatedBudget();
+        int used = current.getAllocatedBudget() > 0
+                ? (int) Math.round((double) current.getUsedBudget() * allocated / current.getAllocatedBudget())
+                : 0;
+        used = Math.min(allocated, used);
         
-        double latencyFactor = budgetCalculator.calculateLatencyFactor(latencyStats);
-        double errorFactor = budgetCalculator.calculateErrorFactor(errorRate);
+        resized.setUsedBudget(used);
+        resized.setRemainingBudget(allocated - used);
+        resized.setExpiresAt(current.getExpiresAt());
+        budgetRepository.saveBudget(resized);
         
-        RetryBudget budget = RetryBudget.builder()
+        return resized;
+    }
+    
+    @Override
+    public Mono<RetryBudget> calculateBudgetAsync(String serviceName) {
+        Mono<RetryBudget> built = BudgetKeys.isPool(serviceName)
+                ? Mono.fromSupplier(() -> buildPoolBudget(serviceName))
+                : metricsAggregator.getMetricsAsync(serviceName).map(metrics -> buildBudget(serviceName, metrics));
+        return built
+                .flatMap(budget -> reactiveBudgetRepository.saveBudget(budget).thenReturn(budget));
+    }
+    
+    @Override
+    public Mono<RetryBudget> getBudgetAsync(String serviceName) {
+        return reactiveBudgetRepository.getBudget(serviceName)
+                .filter(budget -> !LocalDateTime.now().isAfter(budget.getExpiresAt()))
+                .switchIfEmpty(Mono.defer(() -> calculateBudgetAsync(serviceName)));
+    }
+    
+    @Override
+    public HedgeBudget calculateHedgeBudget(String serviceName) {
+        ServiceMetrics metrics = metricsAggregator.getMetrics(serviceName);
+        FleetMetrics fleet = liveFleetMetrics(serviceName);
+        LatencyStats latencyStats = fleet != null ? fleet.getLatencyStats() : latencyAnalyzer.analyzeLatency(metrics);
+        
+        double errorRate = fleet != null ? fleet.getErrorRate() : metrics.getErrorRate();
+        int calculatedHedges = budgetCalculator.calculateHedgeBudget(latencyStats, errorRate);
+        
+        HedgeBudget hedgeBudget = HedgeBudget.builder()
                 .serviceName(serviceName)
-                .allocatedBudget(calculatedBudget)
-                .usedBudget(0)
-                .remainingBudget(calculatedBudget)
+                .hedgeDelayMs(budgetCalculator.calculateHedgeDelay(latencyStats))
+                .delayPercentile(config.getHedging().getDelayPercentile())
+                .maxHedgePercent(config.getHedging().getMaxHedgePercent())
+                .allocatedHedges(calculatedHedges)
+                .usedHedges(0)
+                .remainingHedges(calculatedHedges)
                 .healthStatus(budgetCalculator.determineHealthStatus(latencyStats, errorRate))
-                .latencyFactor(latencyFactor)
-                .errorFactor(errorFactor)
                 .lastCalculated(LocalDateTime.now())
                 .expiresAt(LocalDateTime.now().plusSeconds(config.getUpdateIntervalSeconds()))
                 .build();
         
-        budgetRepository.saveBudget(budget);
+        hedgeBudgetRepository.saveHedgeBudget(hedgeBudget);
         
-        return budget;
+        return hedgeBudget;
     }
     
     @Override
-    public RetryBudget getBudget(String serviceName) {
-        RetryBudget budget = budgetRepository.getBudget(serviceName);
+    public HedgeBudget getHedgeBudget(String serviceName) {
+        HedgeBudget hedgeBudget = hedgeBudgetRepository.getHedgeBudget(serviceName);
         
-        if (budget == null || LocalDateTime.now().isAfter(budget.getExpiresAt())) {
-            budget = calculateBudget(serviceName);
+        if (hedgeBudget == null || LocalDateTime.now().isAfter(hedgeBudget.getExpiresAt())) {
+            hedgeBudget = calculateHedgeBudget(serviceName);
         }
         
-        return budget;
+        return hedgeBudget;
     }
     
     @Override
@@ -76,7 +159,88 @@ public class RetryBudgetControllerServiceImpl implements RetryBudgetControllerSe
         Set<String> serviceNames = budgetRepository.getAllServiceNames();
         
         for (String serviceName : serviceNames) {
-            calculateBudget(serviceName);
+            if (activityTracker.isIdle(serviceName)) {
+                activityTracker.expire(serviceName);
+            } else {
+                calculateBudget(serviceName);
+            }
+        }
+    }
+    
+    @Override
+    public int updateOwnedBudgets() {
+        int updated = 0;
+        
+        for (String serviceName : budgetRepository.getAllServiceNames()) {
+            if (!serviceOwnership.isOwner(serviceName)) {
+                continue;
+            }
+            // Recomputing refreshes the TTL, so an idle service would otherwise live forever
+            if (activityTracker.isIdle(serviceName)) {
+                activityTracker.expire(serviceName);
+            } else {
+                calculateBudget(serviceName);
+                updated++;
+            }
+        }
+        
+        return updated;
+    }
+    
+    private RetryBudget buildBudget(String serviceName, ServiceMetrics metrics) {
+        FleetMetrics fleet = liveFleetMetrics(serviceName);
+        LatencyStats latencyStats = fleet != null ? fleet.getLatencyStats() : latencyAnalyzer.analyzeLatency(metrics);
+        
+        double errorRate = fleet != null ? fleet.getErrorRate() : metrics.getErrorRate();
+        
+        // Size the budget from where latency and errors are heading; health reports where they are
+        double latencyFactor = budgetCalculator.calculateLatencyFactor(
+                trendForecaster.forecastP95(serviceName, latencyStats == null ? 0 : latencyStats.getP95()));
+        double errorFactor = budgetCalculator.calculateErrorFactor(trendForecaster.forecastErrorRate(serviceName, errorRate));
+        int calculatedBudget = budgetCalculator.calculateRetryBudget(latencyFactor, errorFactor);
+        
+        return RetryBudget.builder()
+                .serviceName(serviceName)
+                .allocatedBudget(calculatedBudget)
+                .usedBudget(0)
+                .remainingBudget(calculatedBudget)
+                .healthStatus(budgetCalculator.determineHealthStatus(latencyStats, errorRate))
+                .latencyFactor(latencyFactor)
+                .errorFactor(errorFactor)
+                .lastCalculated(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(config.getUpdateIntervalSeconds()))
+                .build();
+    }
+    
+    /**
+     * Shared budget the children of one parent draw from, sized as a multiple of the parent's own
+     * allocation and carrying its health, so a CRITICAL parent leaves its children nothing to spend
+     */
+    private RetryBudget buildPoolBudget(String poolKey) {
+        RetryBudget parent = getBudget(BudgetKeys.parentOf(poolKey));
+        int capacity = (int) Math.round(parent.getAllocatedBudget() * config.getHierarchy().getPoolBudgetFactor());
+        if (parent.getHealthStatus() == ServiceHealthStatus.CRITICAL) {
+            capacity = 0;
         }
+        
+        return RetryBudget.builder()
+                .serviceName(poolKey)
+                .allocatedBudget(capacity)
+                .usedBudget(0)
+                .remainingBudget(capacity)
+                .healthStatus(parent.getHealthStatus())
+                .latencyFactor(parent.getLatencyFactor())
+                .errorFactor(parent.getErrorFactor())
+                .lastCalculated(LocalDateTime.now())
+                .expiresAt(parent.getExpiresAt())
+                .build();
+    }
+    
+    /**
+     * Fleet-wide view when any node has traffic in the window; otherwise the shared metrics are used
+     */
+    private FleetMetrics liveFleetMetrics(String serviceName) {
+        FleetMetrics fleet = fleetMetricsService.getFleetMetrics(serviceName);
+        return fleet != null && fleet.getTotalRequests() > 0 ? fleet : null;
     }
-}
\ No newline at end of file
+}
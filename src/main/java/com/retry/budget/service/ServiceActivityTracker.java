@@ -0,0 +1,230 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.EvictionReason;
+import com.retry.budget.event.ServiceEvictedEvent;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.repository.HedgeBudgetRepository;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.BudgetKeys;
+import com.retry.budget.util.ServiceId;
+import com.retry.budget.util.ServiceRegistry;
+import com.retry.budget.util.ServiceSlots;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Last access per service on this node. Services idle past {@code eviction.idle-timeout-seconds}
+ * lose their local state, and once their shared metrics are just as stale they are also removed
+ * from storage and from recompute scheduling. {@code eviction.max-tracked-services} is a hard cap:
+ * crossing it evicts the least recently used services in the background.
+ */
+@Service
+public class ServiceActivityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceActivityTracker.class);
+
+    private final ServiceRegistry serviceRegistry;
+    private final RetryBudgetRepository budgetRepository;
+    private final MetricsRepository metricsRepository;
+    private final HedgeBudgetRepository hedgeBudgetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ServiceSlots<Activity> activity;
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final AtomicBoolean capacityEvictionPending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "service-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ServiceActivityTracker(ServiceRegistry serviceRegistry,
+                                  RetryBudgetRepository budgetRepository,
+                                  MetricsRepository metricsRepository,
+                                  HedgeBudgetRepository hedgeBudgetRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  RetryBudgetConfig config,
+                                  MeterRegistry meterRegistry) {
+        this.serviceRegistry = serviceRegistry;
+        this.activity = serviceRegistry.newSlots();
+        this.budgetRepository = budgetRepository;
+        this.metricsRepository = metricsRepository;
+        this.hedgeBudgetRepository = hedgeBudgetRepository;
+        this.eventPublisher = eventPublisher;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("retry.budget.services.tracked", tracked, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Mark the service as used now; called on every recorded request and budget decision
+     */
+    public void touch(String serviceName) {
+        if (!config.getEviction().isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        ServiceId serviceId = serviceRegistry.intern(serviceName);
+        Activity entry = activity.get(serviceId);
+        if (entry == null) {
+            entry = activity.computeIfAbsent(serviceId, id -> {
+                tracked.incrementAndGet();
+                return new Activity(now);
+            });
+            if (tracked.get() > config.getEviction().getMaxTrackedServices()
+                    && capacityEvictionPending.compareAndSet(false, true)) {
+                executor.execute(this::evictOverCapacity);
+            }
+        }
+        entry.lastAccessMs = now;
+    }
+
+    /**
+     * Whether a budget key's service has been idle past the timeout both here and, judging by its
+     * shared metrics, everywhere else. Child keys follow the service they belong to.
+     */
+    public boolean isIdle(String key) {
+        if (!config.getEviction().isEnabled()) {
+            return false;
+        }
+
+        String serviceName = BudgetKeys.serviceOf(key);
+        long cutoff = System.currentTimeMillis() - config.getEviction().getIdleTimeoutSeconds() * 1000;
+        Activity entry = activity.get(serviceRegistry.intern(serviceName));
+        if (entry != null && entry.lastAccessMs >= cutoff) {
+            return false;
+        }
+
+        ServiceMetrics metrics = metricsRepository.getMetrics(serviceName);
+        return metrics == null || metrics.getLastUpdated() == null
+                || toMillis(metrics.getLastUpdated()) < cutoff;
+    }
+
+    /**
+     * Remove an idle key from shared storage and from this node
+     */
+    public void expire(String key) {
+        budgetRepository.deleteBudget(key);
+        hedgeBudgetRepository.deleteHedgeBudget(key);
+        metricsRepository.deleteMetrics(key);
+        evict(serviceRegistry.intern(key), EvictionReason.EXPIRED);
+        logger.debug("Expired idle service {}", key);
+    }
+
+    @Scheduled(fixedDelayString = "${retry.budget.eviction.sweep-interval-ms:30000}",
+            initialDelayString = "${retry.budget.eviction.sweep-interval-ms:30000}")
+    public void evictIdle() {
+        if (!config.getEviction().isEnabled()) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - config.getEviction().getIdleTimeoutSeconds() * 1000;
+        List<ServiceId> idle = new ArrayList<>();
+        activity.forEach(serviceRegistry, (serviceId, entry) -> {
+            if (entry.lastAccessMs < cutoff) {
+                idle.add(serviceId);
+            }
+        });
+
+        idle.forEach(serviceId -> evict(serviceId, EvictionReason.IDLE));
+        if (!idle.isEmpty()) {
+            logger.info("Evicted {} idle services, {} still tracked", idle.size(), tracked.get());
+        }
+    }
+
+    public int getTrackedCount() {
+        return tracked.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void evictOverCapacity() {
+        capacityEvictionPending.set(false);
+
+        List<ServiceId> services = new ArrayList<>();
+        List<Long> lastAccess = new ArrayList<>();
+        activity.forEach(serviceRegistry, (serviceId, entry) -> {
+            services.add(serviceId);
+            lastAccess.add(entry.lastAccessMs);
+        });
+
+        int excess = services.size() - config.getEviction().getMaxTrackedServices();
+        if (excess <= 0) {
+            return;
+        }
+
+        List<Integer> order = new ArrayList<>(services.size());
+        for (int i = 0; i < services.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong(lastAccess::get));
+        for (int i = 0; i < excess; i++) {
+            evict(services.get(order.get(i)), EvictionReason.CAPACITY);
+        }
+        logger.debug("Evicted {} least recently used services over the cap", excess);
+    }
+
+    /**
+     * Drop everything this node holds for the service. A stale id, already replaced by a newer
+     * registration of the same name, only has its own slot removed.
+     */
+    private void evict(ServiceId serviceId, EvictionReason reason) {
+        if (activity.remove(serviceId) != null) {
+            tracked.decrementAndGet();
+        }
+        if (!serviceRegistry.isCurrent(serviceId)) {
+            return;
+        }
+
+        String serviceName = serviceId.name();
+        try {
+            budgetRepository.forgetLocal(serviceName);
+            metricsRepository.forgetLocal(serviceName);
+            hedgeBudgetRepository.forgetLocal(serviceName);
+            eventPublisher.publishEvent(new ServiceEvictedEvent(serviceName, reason));
+        } catch (Exception e) {
+            logger.warn("Error evicting service {}: {}", serviceName, e.getMessage());
+        } finally {
+            serviceRegistry.release(serviceId);
+        }
+
+        meterRegistry.counter("retry.budget.services.evicted", "reason", reason.name()).increment();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Activity {
+
+        private volatile long lastAccessMs;
+
+        Activity(long lastAccessMs) {
+            this.lastAccessMs = lastAccessMs;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.repository.MembershipRepository;
+import com.retry.budget.util.ConsistentHashRing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Partitions services across live nodes with a consistent-hash ring so each service's budget is
+ * recomputed by one owner. Membership comes from heartbeats; when it cannot be read this node
+ * falls back to a ring of itself and owns everything, trading duplicate work for availability.
+ */
+@Service
+public class ServiceOwnership {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServiceOwnership.class);
+    
+    private final MembershipRepository membershipRepository;
+    private final NodeIdentity nodeIdentity;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+    private volatile ConsistentHashRing ring;
+    
+    public ServiceOwnership(MembershipRepository membershipRepository,
+                            NodeIdentity nodeIdentity,
+                            RetryBudgetConfig config,
+                            MeterRegistry meterRegistry) {
+        this.membershipRepository = membershipRepository;
+        this.nodeIdentity = nodeIdentity;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.ring = new ConsistentHashRing(Set.of(nodeIdentity.getNodeId()), config.getCluster().getVirtualNodes());
+        
+        Gauge.builder("retry.budget.cluster.members", this, ownership -> ownership.ring.getNodes().size())
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${retry.budget.cluster.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        String self = nodeIdentity.getNodeId();
+        membershipRepository.heartbeat(self, now);
+        
+        Set<String> members = new HashSet<>(membershipRepository.getLiveNodes(now, config.getCluster().getMemberTtlMs()));
+        members.add(self);
+        
+        if (!members.equals(ring.getNodes())) {
+            logger.info("Cluster membership changed from {} to {}", ring.getNodes(), members);
+            ring = new ConsistentHashRing(members, config.getCluster().getVirtualNodes());
+            meterRegistry.counter("retry.budget.cluster.rebalances").increment();
+        }
+    }
+    
+    public boolean isOwner(String serviceName) {
+        if (!config.getCluster().isOwnershipEnabled()) {
+            return true;
+        }
+        return nodeIdentity.getNodeId().equals(ring.ownerOf(serviceName));
+    }
+    
+    public String ownerOf(String serviceName) {
+        return ring.ownerOf(serviceName);
+    }
+    
+    public Set<String> getMembers() {
+        return ring.getNodes();
+    }
+    
+    /**
+     * Leave explicitly so peers take over this node's services on their next heartbeat rather than after the ttl
+     */
+    @PreDestroy
+    public void leave() {
+        membershipRepository.leave(nodeIdentity.getNodeId());
+    }
+}
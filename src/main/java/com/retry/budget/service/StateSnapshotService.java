@@ -0,0 +1,169 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.ConcurrencyLimit;
+import com.retry.budget.model.ForecastState;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.model.ServiceStateSnapshot;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.StateSnapshotFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically snapshots this node's budgets, latency windows, outcome counts, concurrency limits
+ * and forecast trends to a local file and restores them on startup. Restore runs once all
+ * singletons exist, which is before the embedded web server starts, so the first request already
+ * sees warm state. Restored budgets start a fresh update interval with their usage kept, since the
+ * expiry they were saved with has usually passed by the time the node is back.
+ */
+@Service
+public class StateSnapshotService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateSnapshotService.class);
+
+    private final RetryBudgetRepository budgetRepository;
+    private final MetricsRepository metricsRepository;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final LatencyTrendForecaster trendForecaster;
+    private final RetryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+
+    public StateSnapshotService(RetryBudgetRepository budgetRepository,
+                                MetricsRepository metricsRepository,
+                                ConcurrencyLimiter concurrencyLimiter,
+                                LatencyTrendForecaster trendForecaster,
+                                RetryBudgetConfig config,
+                                MeterRegistry meterRegistry) {
+        this.budgetRepository = budgetRepository;
+        this.metricsRepository = metricsRepository;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.trendForecaster = trendForecaster;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (config.getSnapshot().isEnabled()) {
+            restore();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${retry.budget.snapshot.interval-ms:10000}",
+            initialDelayString = "${retry.budget.snapshot.interval-ms:10000}")
+    public void snapshot() {
+        if (!config.getSnapshot().isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<ServiceStateSnapshot> services = collect();
+
+        try {
+            StateSnapshotFile.write(snapshotPath(), System.currentTimeMillis(), services);
+            meterRegistry.timer("retry.budget.snapshot.write").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.debug("Snapshot of {} services written", services.size());
+        } catch (IOException e) {
+            logger.error("Failed to write state snapshot to {}: {}", snapshotPath(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    public int restore() {
+        long start = System.nanoTime();
+        StateSnapshotFile.Contents contents;
+
+        try {
+            contents = StateSnapshotFile.read(snapshotPath());
+        } catch (IOException e) {
+            logger.warn("Could not read state snapshot {}: {}", snapshotPath(), e.getMessage());
+            return 0;
+        }
+
+        if (contents == null) {
+            logger.info("No usable state snapshot at {}, starting cold", snapshotPath());
+            return 0;
+        }
+
+        long ageSeconds = (System.currentTimeMillis() - contents.takenAtMillis()) / 1000;
+        if (ageSeconds > config.getSnapshot().getMaxAgeSeconds()) {
+            logger.info("State snapshot is {}s old, starting cold", ageSeconds);
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (ServiceStateSnapshot service : contents.services()) {
+            RetryBudget budget = service.getBudget();
+            if (budget != null) {
+                budget.setLastCalculated(now);
+                budget.setExpiresAt(now.plusSeconds(config.getUpdateIntervalSeconds()));
+                budgetRepository.restoreBudget(budget);
+            }
+            if (service.getMetrics() != null) {
+                metricsRepository.restoreMetrics(service.getMetrics());
+            }
+            ConcurrencyLimit limit = service.getConcurrencyLimit();
+            if (limit != null) {
+                concurrencyLimiter.restoreLimit(service.getServiceName(), limit.getLimit(), limit.getMinRttMs());
+            }
+            if (service.getForecast() != null) {
+                trendForecaster.restore(service.getForecast());
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Restored {} services from a {}s old snapshot in {}ms", contents.services().size(), ageSeconds, elapsedMs);
+        return contents.services().size();
+    }
+
+    private List<ServiceStateSnapshot> collect() {
+        Map<String, ServiceStateSnapshot.ServiceStateSnapshotBuilder> services = new TreeMap<>();
+
+        for (RetryBudget budget : budgetRepository.getLocalBudgets()) {
+            builderFor(services, budget.getServiceName()).budget(budget);
+        }
+        for (ServiceMetrics metrics : metricsRepository.getLocalMetrics()) {
+            builderFor(services, metrics.getServiceName()).metrics(metrics);
+        }
+        for (ConcurrencyLimit limit : concurrencyLimiter.getLimits()) {
+            builderFor(services, limit.getServiceName()).concurrencyLimit(limit);
+        }
+        for (ForecastState forecast : trendForecaster.getStates()) {
+            builderFor(services, forecast.getServiceName()).forecast(forecast);
+        }
+
+        List<ServiceStateSnapshot> snapshots = new ArrayList<>(services.size());
+        services.values().forEach(builder -> snapshots.add(builder.build()));
+        return snapshots;
+    }
+
+    private ServiceStateSnapshot.ServiceStateSnapshotBuilder builderFor(
+            Map<String, ServiceStateSnapshot.ServiceStateSnapshotBuilder> services, String serviceName) {
+        return services.computeIfAbsent(serviceName, name -> ServiceStateSnapshot.builder().serviceName(name));
+    }
+
+    private Path snapshotPath() {
+        return Path.of(config.getSnapshot().getPath());
+    }
+}
@@ -0,0 +1,157 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CaptureEventType;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.util.CaptureFormat;
+import com.retry.budget.util.CaptureLogWriter;
+import com.retry.budget.util.CaptureQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional capture of every recorded request, retry and retry decision into rotating binary
+ * segment files ({@link CaptureFormat}), for replay and offline analysis with
+ * {@link com.retry.budget.util.CaptureLogReader}. Callers only append to a lock-free queue; one
+ * background thread drains it into the memory-mapped segment. Events that find the queue full are
+ * dropped and counted rather than slowing the request path.
+ */
+@Service
+public class TrafficCaptureService implements SmartInitializingSingleton {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureService.class);
+    
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    
+    private final RetryBudgetConfig.Capture settings;
+    private final boolean enabled;
+    private final CaptureQueue queue;
+    private final Counter written;
+    private final Counter dropped;
+    
+    private volatile boolean running;
+    private Thread writerThread;
+    
+    public TrafficCaptureService(RetryBudgetConfig config, MeterRegistry meterRegistry) {
+        this.settings = config.getCapture();
+        this.enabled = settings.isEnabled();
+        this.queue = enabled ? new CaptureQueue(settings.getQueueCapacity()) : null;
+        this.written = meterRegistry.counter("retry.budget.capture.written");
+        this.dropped = meterRegistry.counter("retry.budget.capture.dropped");
+        
+        if (enabled) {
+            Gauge.builder("retry.budget.capture.queued", queue, CaptureQueue::size).register(meterRegistry);
+        }
+    }
+    
+    public void recordRequest(String serviceName, long latencyMs, RequestOutcome outcome) {
+        if (enabled) {
+            offer(CaptureEventType.REQUEST, (byte) outcome.ordinal(), CaptureFormat.NO_PRIORITY, serviceName, latencyMs);
+        }
+    }
+    
+    public void recordRetries(String serviceName, int count) {
+        if (enabled) {
+            offer(CaptureEventType.RETRY, (byte) 0, CaptureFormat.NO_PRIORITY, serviceName, count);
+        }
+    }
+    
+    public void recordDecision(String serviceName, RetryPriority priority, RetryDecision decision) {
+        if (enabled) {
+            offer(CaptureEventType.DECISION, (byte) decision.ordinal(),
+                    priority == null ? CaptureFormat.NO_PRIORITY : (byte) priority.ordinal(), serviceName, 0);
+        }
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        
+        Path directory = Path.of(settings.getDirectory());
+        CaptureLogWriter writer;
+        try {
+            writer = new CaptureLogWriter(directory, settings.getSegmentBytes(), settings.getMaxSegments());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not start traffic capture in {}: {}", directory, e.getMessage());
+            return;
+        }
+        
+        running = true;
+        writerThread = new Thread(() -> drainLoop(writer), "capture-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Capturing traffic to {}", directory.toAbsolutePath());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void offer(CaptureEventType type, byte code, byte priority, String serviceName, long value) {
+        if (!queue.offer(type.getCode(), code, priority, serviceName, System.currentTimeMillis(), value)) {
+            dropped.increment();
+        }
+    }
+    
+    private void drainLoop(CaptureLogWriter writer) {
+        long lastForce = System.nanoTime();
+        long syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSyncIntervalMs());
+        CaptureQueue.Sink sink = (type, code, priority, serviceName, timestampMs, value) -> {
+            try {
+                writer.append(type, code, priority, serviceName, timestampMs, value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        
+        try {
+            while (true) {
+                int drained = queue.drain(sink, DRAIN_BATCH);
+                if (drained > 0) {
+                    written.increment(drained);
+                    continue;
+                }
+                if (!running) {
+                    break;
+                }
+                
+                long now = System.nanoTime();
+                if (now - lastForce >= syncIntervalNanos) {
+                    writer.force();
+                    lastForce = now;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        } catch (RuntimeException e) {
+            running = false;
+            logger.error("Traffic capture stopped: {}", e.getMessage());
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.retry.budget.util;
 
 import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryPriority;
 import com.retry.budget.enums.ServiceHealthStatus;
 import com.retry.budget.model.LatencyStats;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 public class BudgetCalculator {
     
@@ -15,9 +19,10 @@ public class BudgetCalculator {
     }
     
     public int calculateRetryBudget(LatencyStats latencyStats, double errorRate) {
-        double latencyFactor = calculateLatencyFactor(latencyStats);
-        double errorFactor = calculateErrorFactor(errorRate);
-        
+        return calculateRetryBudget(calculateLatencyFactor(latencyStats), calculateErrorFactor(errorRate));
+    }
+    
+    public int calculateRetryBudget(double latencyFactor, double errorFactor) {
         int baseBudget = config.getBaseBudget();
         int calculatedBudget = (int) Math.round(baseBudget * latencyFactor * errorFactor);
         
@@ -29,7 +34,10 @@ public class BudgetCalculator {
             return 1.0;
         }
         
-        double p95 = latencyStats.getP95();
+        return calculateLatencyFactor(latencyStats.getP95());
+    }
+    
+    public double calculateLatencyFactor(double p95) {
         double healthyP95 = config.getLatencyThresholds().getHealthyP95Ms();
         double criticalP95 = config.getLatencyThresholds().getDegradedP95Ms();
         
@@ -42,6 +50,34 @@ public class BudgetCalculator {
         }
     }
     
+    /**
+     * Error rate in percent with each failure kind weighted by {@code outcomes.error-weights}.
+     * Counts are indexed by {@link RequestOutcome} ordinal. Non-retryable failures are left out of
+     * both sides, so a flood of client errors neither raises nor dilutes the rate.
+     */
+    public double calculateErrorRate(long totalRequests, long[] outcomeCounts) {
+        if (totalRequests <= 0 || outcomeCounts == null) {
+            return 0.0;
+        }
+        
+        Map<RequestOutcome, Double> weights = config.getOutcomes().getErrorWeights();
+        double weightedFailures = 0;
+        long considered = totalRequests;
+        for (int i = 0; i < outcomeCounts.length && i < RequestOutcome.count(); i++) {
+            RequestOutcome outcome = RequestOutcome.fromOrdinal(i);
+            if (outcomeCounts[i] <= 0) {
+                continue;
+            }
+            if (outcome.isRetryable()) {
+                weightedFailures += outcomeCounts[i] * weights.getOrDefault(outcome, 1.0);
+            } else if (outcome.isFailure()) {
+                considered -= outcomeCounts[i];
+            }
+        }
+        
+        return considered <= 0 ? 0.0 : weightedFailures / considered * 100.0;
+    }
+    
     public double calculateErrorFactor(double errorRate) {
         double criticalErrorRate = config.getErrorRateThresholds().getCriticalPercent();
         
@@ -54,6 +90,80 @@ public class BudgetCalculator {
         }
     }
     
+    /**
+     * Budget held back for classes above the given priority. A retry of that priority is only
+     * allowed while the remaining budget is larger than this reserve. Nothing is held back unless
+     * {@code priority.reserve-enabled} is set, and the reserve rounds down so it never swallows a
+     * budget of one or two whole.
+     */
+    public int calculateReservedBudget(int allocatedBudget, RetryPriority priority) {
+        if (!config.getPriority().isReserveEnabled() || priority == null) {
+            return 0;
+        }
+        
+        double reservedFraction = 0;
+        for (RetryPriority higher : RetryPriority.values()) {
+            if (higher.ordinal() >= priority.ordinal()) {
+                break;
+            }
+            reservedFraction += config.getPriority().getReservedFractions().getOrDefault(higher, 0.0);
+        }
+        
+        return (int) Math.floor(allocatedBudget * Math.min(1.0, reservedFraction));
+    }
+    
+    public int calculateHedgeBudget(LatencyStats latencyStats, double errorRate) {
+        if (latencyStats == null || latencyStats.getSampleSize() == 0) {
+            return 0;
+        }
+        
+        if (determineHealthStatus(latencyStats, errorRate) == ServiceHealthStatus.CRITICAL) {
+            return 0;
+        }
+        
+        // Hedges are capped at a fixed share of the recent request sample and shrink with errors
+        double maxHedgePercent = config.getHedging().getMaxHedgePercent();
+        double hedgeCap = latencyStats.getSampleSize() * maxHedgePercent / 100.0;
+        
+        return Math.max(0, (int) Math.floor(hedgeCap * calculateErrorFactor(errorRate)));
+    }
+    
+    public long calculateHedgeDelay(LatencyStats latencyStats) {
+        long minDelayMs = config.getHedging().getMinDelayMs();
+        
+        if (latencyStats == null || latencyStats.getSampleSize() == 0) {
+            return minDelayMs;
+        }
+        
+        double delay = interpolatePercentile(latencyStats, config.getHedging().getDelayPercentile());
+        return Math.max(minDelayMs, Math.round(delay));
+    }
+    
+    /**
+     * Estimates an arbitrary percentile by interpolating between the anchors already held
+     * in LatencyStats (min, p50, p95, p99, max).
+     */
+    public double interpolatePercentile(LatencyStats latencyStats, double percentile) {
+        double[] ranks = {0, 50, 95, 99, 100};
+        double[] values = {
+                latencyStats.getMin(),
+                latencyStats.getP50(),
+                latencyStats.getP95(),
+                latencyStats.getP99(),
+                latencyStats.getMax()
+        };
+        
+        double clamped = Math.min(100, Math.max(0, percentile));
+        for (int i = 1; i < ranks.length; i++) {
+            if (clamped <= ranks[i]) {
+                double fraction = (clamped - ranks[i - 1]) / (ranks[i] - ranks[i - 1]);
+                return values[i - 1] + fraction * (values[i] - values[i - 1]);
+            }
+        }
+        
+        return values[values.length - 1];
+    }
+    
     public ServiceHealthStatus determineHealthStatus(LatencyStats latencyStats, double errorRate) {
         if (latencyStats == null) {
             return ServiceHealthStatus.HEALTHY;
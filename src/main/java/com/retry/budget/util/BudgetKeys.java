@@ -0,0 +1,49 @@
+package com.retry.budget.util;
+
+/**
+ * Hierarchical budget keys: {@code service}, {@code service::endpoint} and
+ * {@code service::endpoint::tenant}. Every parent also has an overflow child that absorbs rarely
+ * seen children, and a pool key holding the budget its children draw from.
+ */
+public final class BudgetKeys {
+    
+    public static final String SEPARATOR = "::";
+    public static final String OVERFLOW = "~overflow";
+    public static final String POOL = "~pool";
+    
+    private BudgetKeys() {
+    }
+    
+    public static String child(String parent, String segment) {
+        return parent + SEPARATOR + segment.replace(SEPARATOR, ":");
+    }
+    
+    public static String overflow(String parent) {
+        return parent + SEPARATOR + OVERFLOW;
+    }
+    
+    public static String pool(String parent) {
+        return parent + SEPARATOR + POOL;
+    }
+    
+    public static boolean isPool(String key) {
+        return key.endsWith(SEPARATOR + POOL);
+    }
+    
+    public static boolean isOverflow(String key) {
+        return key.endsWith(SEPARATOR + OVERFLOW);
+    }
+    
+    /**
+     * Parent of a child key, or null for a plain service name
+     */
+    public static String parentOf(String key) {
+        int separator = key.lastIndexOf(SEPARATOR);
+        return separator < 0 ? null : key.substring(0, separator);
+    }
+    
+    public static String serviceOf(String key) {
+        int separator = key.indexOf(SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+}
@@ -0,0 +1,60 @@
+package com.retry.budget.util;
+
+/**
+ * Layout of capture segment files. All numbers are big-endian.
+ *
+ * <pre>
+ * header (32 bytes): int magic "RBCP", short version, short record size, long sequence, long created ms, 8 reserved
+ * record (32 bytes): byte type, byte code, byte priority (0xFF = none), byte reserved,
+ *                    int name index, long timestamp ms, long value, 8 reserved
+ * name   (32 bytes): byte type NAME, byte chunk length, byte chunk index, byte last chunk (1),
+ *                    int name index, 24 bytes of UTF-8 name
+ * </pre>
+ *
+ * A segment is allocated at full size up front, so the first record whose type byte is zero marks
+ * the end of what was written. The writer stores the type byte last. Name indexes are local to a
+ * segment, and every name is defined by NAME records before the first record that uses it, so each
+ * segment can be read on its own.
+ */
+public final class CaptureFormat {
+    
+    public static final int MAGIC = 0x52424350;
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int RECORD_BYTES = 32;
+    public static final int NAME_CHUNK_BYTES = 24;
+    public static final byte NO_PRIORITY = (byte) 0xFF;
+    public static final String SEGMENT_PREFIX = "capture-";
+    public static final String SEGMENT_SUFFIX = ".seg";
+    
+    static final int TYPE = 0;
+    static final int CODE = 1;
+    static final int PRIORITY = 2;
+    static final int CHUNK_INDEX = 2;
+    static final int LAST_CHUNK = 3;
+    static final int NAME_INDEX = 4;
+    static final int TIMESTAMP = 8;
+    static final int NAME_CHUNK = 8;
+    static final int VALUE = 16;
+    
+    private CaptureFormat() {
+    }
+    
+    public static String segmentName(long sequence) {
+        return String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+    
+    /**
+     * @return the sequence of a segment file name, or -1 if it is not one
+     */
+    public static long sequenceOf(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.CaptureEventType;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.model.CaptureEvent;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads capture segments written by {@link CaptureLogWriter}, for offline analysis and tooling.
+ * Segments can be read while the writer is still appending to them; reading stops at the first
+ * record not yet written.
+ */
+public final class CaptureLogReader {
+    
+    private static final RequestOutcome[] OUTCOMES = RequestOutcome.values();
+    private static final RetryDecision[] DECISIONS = RetryDecision.values();
+    private static final RetryPriority[] PRIORITIES = RetryPriority.values();
+    
+    private CaptureLogReader() {
+    }
+    
+    /**
+     * Segment files in the directory, oldest first
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        return CaptureLogWriter.segments(directory);
+    }
+    
+    /**
+     * Read every segment in the directory in order
+     *
+     * @return the number of events read
+     */
+    public static long readAll(Path directory, Consumer<CaptureEvent> consumer) throws IOException {
+        long events = 0;
+        for (Path segment : segments(directory)) {
+            events += read(segment, consumer);
+        }
+        return events;
+    }
+    
+    /**
+     * @return the number of events read
+     */
+    public static long read(Path segment, Consumer<CaptureEvent> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        
+        if (buffer.limit() < CaptureFormat.HEADER_BYTES || buffer.getInt(0) != CaptureFormat.MAGIC) {
+            throw new IOException("Not a capture segment: " + segment);
+        }
+        if (buffer.getShort(4) != CaptureFormat.VERSION || buffer.getShort(6) != CaptureFormat.RECORD_BYTES) {
+            throw new IOException("Unsupported capture segment version " + buffer.getShort(4) + ": " + segment);
+        }
+        
+        List<String> names = new ArrayList<>();
+        List<byte[]> pendingName = new ArrayList<>();
+        long events = 0;
+        
+        for (int position = CaptureFormat.HEADER_BYTES;
+             position + CaptureFormat.RECORD_BYTES <= buffer.limit();
+             position += CaptureFormat.RECORD_BYTES) {
+            byte code = buffer.get(position + CaptureFormat.TYPE);
+            if (code == 0) {
+                break;
+            }
+            
+            CaptureEventType type = CaptureEventType.fromCode(code);
+            if (type == null) {
+                throw new IOException("Unknown record type " + code + " at offset " + position + " of " + segment);
+            }
+            
+            if (type == CaptureEventType.NAME) {
+                byte[] chunk = new byte[buffer.get(position + CaptureFormat.CODE)];
+                buffer.get(position + CaptureFormat.NAME_CHUNK, chunk);
+                pendingName.add(chunk);
+                if (buffer.get(position + CaptureFormat.LAST_CHUNK) == 1) {
+                    names.add(join(pendingName));
+                    pendingName.clear();
+                }
+                continue;
+            }
+            
+            int nameIndex = buffer.getInt(position + CaptureFormat.NAME_INDEX);
+            int valueCode = Byte.toUnsignedInt(buffer.get(position + CaptureFormat.CODE));
+            int priority = Byte.toUnsignedInt(buffer.get(position + CaptureFormat.PRIORITY));
+            
+            consumer.accept(new CaptureEvent(
+                    type,
+                    buffer.getLong(position + CaptureFormat.TIMESTAMP),
+                    nameIndex < names.size() ? names.get(nameIndex) : null,
+                    buffer.getLong(position + CaptureFormat.VALUE),
+                    type == CaptureEventType.REQUEST && valueCode < OUTCOMES.length ? OUTCOMES[valueCode] : null,
+                    type == CaptureEventType.DECISION && valueCode < DECISIONS.length ? DECISIONS[valueCode] : null,
+                    priority < PRIORITIES.length ? PRIORITIES[priority] : null));
+            events++;
+        }
+        return events;
+    }
+    
+    private static String join(List<byte[]> chunks) {
+        int length = chunks.stream().mapToInt(chunk -> chunk.length).sum();
+        byte[] name = new byte[length];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, name, offset, chunk.length);
+            offset += chunk.length;
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.CaptureEventType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Appends fixed-width records ({@link CaptureFormat}) to memory-mapped segment files, rolling to a
+ * new segment when the current one is full and deleting the oldest beyond {@code maxSegments}.
+ * Not thread-safe; owned by the capture writer thread.
+ */
+public final class CaptureLogWriter implements AutoCloseable {
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Map<String, Integer> nameIndexes = new HashMap<>();
+    private final byte[] nameScratch = new byte[CaptureFormat.NAME_CHUNK_BYTES];
+    
+    private MappedByteBuffer segment;
+    private long sequence;
+    
+    public CaptureLogWriter(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes < CaptureFormat.HEADER_BYTES + 64 * CaptureFormat.RECORD_BYTES) {
+            throw new IllegalArgumentException("Capture segments must hold at least 64 records");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - (segmentBytes - CaptureFormat.HEADER_BYTES) % CaptureFormat.RECORD_BYTES;
+        this.maxSegments = Math.max(1, maxSegments);
+        
+        Files.createDirectories(directory);
+        this.sequence = segments(directory).stream()
+                .mapToLong(path -> CaptureFormat.sequenceOf(path.getFileName().toString()))
+                .max()
+                .orElse(0);
+        roll();
+    }
+    
+    public void append(byte type, byte code, byte priority, String serviceName, long timestampMs, long value) throws IOException {
+        Integer nameIndex = nameIndexes.get(serviceName);
+        byte[] name = null;
+        int records = 1;
+        if (nameIndex == null) {
+            name = serviceName.getBytes(StandardCharsets.UTF_8);
+            records += chunks(name);
+        }
+        
+        if (segment.remaining() < records * CaptureFormat.RECORD_BYTES) {
+            roll();
+            if (name == null) {
+                name = serviceName.getBytes(StandardCharsets.UTF_8);
+            }
+            nameIndex = null;
+        }
+        if (nameIndex == null) {
+            nameIndex = defineName(serviceName, name);
+        }
+        
+        int position = segment.position();
+        segment.put(position + CaptureFormat.CODE, code);
+        segment.put(position + CaptureFormat.PRIORITY, priority);
+        segment.putInt(position + CaptureFormat.NAME_INDEX, nameIndex);
+        segment.putLong(position + CaptureFormat.TIMESTAMP, timestampMs);
+        segment.putLong(position + CaptureFormat.VALUE, value);
+        segment.put(position + CaptureFormat.TYPE, type);
+        segment.position(position + CaptureFormat.RECORD_BYTES);
+    }
+    
+    /**
+     * Ask the OS to write dirty pages of the current segment to disk
+     */
+    public void force() {
+        segment.force();
+    }
+    
+    @Override
+    public void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+    
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> CaptureFormat.sequenceOf(path.getFileName().toString()) >= 0)
+                    .toList());
+            segments.sort((a, b) -> Long.compare(CaptureFormat.sequenceOf(a.getFileName().toString()),
+                    CaptureFormat.sequenceOf(b.getFileName().toString())));
+            return segments;
+        }
+    }
+    
+    private int defineName(String serviceName, byte[] name) {
+        int nameIndex = nameIndexes.size();
+        int chunks = chunks(name);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int offset = chunk * CaptureFormat.NAME_CHUNK_BYTES;
+            int length = Math.min(CaptureFormat.NAME_CHUNK_BYTES, name.length - offset);
+            System.arraycopy(name, offset, nameScratch, 0, length);
+            
+            int position = segment.position();
+            segment.put(position + CaptureFormat.CODE, (byte) length);
+            segment.put(position + CaptureFormat.CHUNK_INDEX, (byte) chunk);
+            segment.put(position + CaptureFormat.LAST_CHUNK, (byte) (chunk == chunks - 1 ? 1 : 0));
+            segment.putInt(position + CaptureFormat.NAME_INDEX, nameIndex);
+            segment.put(position + CaptureFormat.NAME_CHUNK, nameScratch, 0, length);
+            segment.put(position + CaptureFormat.TYPE, CaptureEventType.NAME.getCode());
+            segment.position(position + CaptureFormat.RECORD_BYTES);
+        }
+        nameIndexes.put(serviceName, nameIndex);
+        return nameIndex;
+    }
+    
+    private static int chunks(byte[] name) {
+        return Math.max(1, (name.length + CaptureFormat.NAME_CHUNK_BYTES - 1) / CaptureFormat.NAME_CHUNK_BYTES);
+    }
+    
+    private void roll() throws IOException {
+        close();
+        sequence++;
+        nameIndexes.clear();
+        
+        Path path = directory.resolve(CaptureFormat.segmentName(sequence));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        
+        segment.putInt(CaptureFormat.MAGIC);
+        segment.putShort(CaptureFormat.VERSION);
+        segment.putShort((short) CaptureFormat.RECORD_BYTES);
+        segment.putLong(sequence);
+        segment.putLong(System.currentTimeMillis());
+        segment.position(CaptureFormat.HEADER_BYTES);
+        
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.retry.budget.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of capture events for many producers and one consumer. Events are stored
+ * field by field in preallocated arrays, so offering one allocates nothing; a producer claims a slot
+ * with a CAS on the tail and publishes it by advancing the slot's sequence. A full queue rejects
+ * the event instead of blocking the caller.
+ */
+public final class CaptureQueue {
+    
+    @FunctionalInterface
+    public interface Sink {
+        void accept(byte type, byte code, byte priority, String serviceName, long timestampMs, long value);
+    }
+    
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final byte[] types;
+    private final byte[] codes;
+    private final byte[] priorities;
+    private final String[] names;
+    private final long[] timestamps;
+    private final long[] values;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    public CaptureQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.types = new byte[size];
+        this.codes = new byte[size];
+        this.priorities = new byte[size];
+        this.names = new String[size];
+        this.timestamps = new long[size];
+        this.values = new long[size];
+    }
+    
+    /**
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(byte type, byte code, byte priority, String serviceName, long timestampMs, long value) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+        
+        types[index] = type;
+        codes[index] = code;
+        priorities[index] = priority;
+        names[index] = serviceName;
+        timestamps[index] = timestampMs;
+        values[index] = value;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+    
+    /**
+     * Hand every published event to the sink; only the single consumer thread may call this
+     *
+     * @return the number of events drained
+     */
+    public int drain(Sink sink, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            
+            String serviceName = names[index];
+            names[index] = null;
+            sink.accept(types[index], codes[index], priorities[index], serviceName, timestamps[index], values[index]);
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+    
+    /**
+     * Approximate number of events waiting
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
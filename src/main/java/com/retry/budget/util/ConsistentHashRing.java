@@ -0,0 +1,59 @@
+package com.retry.budget.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring. Each node is placed at several virtual points so keys spread
+ * evenly, and adding or removing a node only moves the keys adjacent to its points.
+ */
+public final class ConsistentHashRing {
+    
+    private final NavigableMap<Long, String> points;
+    private final Set<String> nodes;
+    
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = new TreeSet<>(nodes);
+        this.points = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+    
+    /**
+     * Node owning the key, or null when the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+    
+    public Set<String> getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * 64-bit FNV-1a with a final avalanche step so similar keys land far apart
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
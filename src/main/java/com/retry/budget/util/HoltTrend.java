@@ -0,0 +1,68 @@
+package com.retry.budget.util;
+
+/**
+ * Holt's double exponential smoothing over an irregularly sampled series, in constant memory.
+ * The trend is kept per second so samples arriving at uneven intervals still extrapolate
+ * correctly. Not thread-safe.
+ */
+public final class HoltTrend {
+    
+    private final double alpha;
+    private final double beta;
+    private double level;
+    private double trendPerSecond;
+    private long lastUpdateMs;
+    private int samples;
+    
+    public HoltTrend(double alpha, double beta) {
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+    
+    public void update(double value, long timestampMs) {
+        if (samples == 0) {
+            level = value;
+            trendPerSecond = 0;
+        } else {
+            double elapsedSeconds = Math.max(0.001, (timestampMs - lastUpdateMs) / 1000.0);
+            double previousLevel = level;
+            level = alpha * value + (1 - alpha) * (level + trendPerSecond * elapsedSeconds);
+            trendPerSecond = beta * (level - previousLevel) / elapsedSeconds + (1 - beta) * trendPerSecond;
+        }
+        lastUpdateMs = timestampMs;
+        samples++;
+    }
+    
+    /**
+     * Resume from saved state, as if the samples that produced it had just been fed
+     */
+    public void restore(double level, double trendPerSecond, long lastUpdateMs, int samples) {
+        this.level = level;
+        this.trendPerSecond = trendPerSecond;
+        this.lastUpdateMs = lastUpdateMs;
+        this.samples = samples;
+    }
+    
+    /**
+     * Value expected the given number of seconds after the last update
+     */
+    public double forecast(double secondsAhead) {
+        return level + trendPerSecond * secondsAhead;
+    }
+    
+    public double getLevel() {
+        return level;
+    }
+    
+    public double getTrendPerSecond() {
+        return trendPerSecond;
+    }
+    
+    public long getLastUpdateMs() {
+        return lastUpdateMs;
+    }
+    
+    public int getSamples() {
+        return samples;
+    }
+}
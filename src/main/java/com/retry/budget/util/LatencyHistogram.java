@@ -0,0 +1,160 @@
+package com.retry.budget.util;
+
+import com.retry.budget.model.LatencyStats;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram that can be merged by adding bucket counts, so histograms recorded
+ * on different nodes combine into exactly the histogram a single node would have recorded.
+ * Values below 64ms get their own bucket; above that each power of two is split into 32 buckets,
+ * bounding the relative error of a percentile to about 3%. Not thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_LOG_EXPONENT = 6;
+    private static final int MAX_BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - FIRST_LOG_EXPONENT) * SUB_BUCKETS;
+
+    private long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+    private double sumOfSquares;
+
+    public LatencyHistogram() {
+        this.counts = new long[LINEAR_BUCKETS];
+    }
+
+    /**
+     * Rebuild a histogram from its published parts
+     */
+    public LatencyHistogram(long[] counts, long min, long max, double sum, double sumOfSquares) {
+        this.counts = counts == null ? new long[LINEAR_BUCKETS] : Arrays.copyOf(counts, Math.max(counts.length, LINEAR_BUCKETS));
+        this.totalCount = Arrays.stream(this.counts).sum();
+        this.min = totalCount == 0 ? Long.MAX_VALUE : min;
+        this.max = max;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+    }
+
+    public void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        int index = bucketIndex(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(MAX_BUCKETS, Math.max(index + 1, counts.length * 2)));
+        }
+
+        counts[index]++;
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        sumOfSquares += (double) value * value;
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+    }
+
+    public double percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, bucketMidpoint(i)));
+            }
+        }
+        return max;
+    }
+
+    public LatencyStats toLatencyStats() {
+        if (totalCount == 0) {
+            return LatencyStats.builder().build();
+        }
+
+        double mean = sum / totalCount;
+        double variance = Math.max(0, sumOfSquares / totalCount - mean * mean);
+
+        return LatencyStats.builder()
+                .p50(percentile(50))
+                .p95(percentile(95))
+                .p99(percentile(99))
+                .mean(mean)
+                .standardDeviation(Math.sqrt(variance))
+                .min(min)
+                .max(max)
+                .sampleSize((int) Math.min(Integer.MAX_VALUE, totalCount))
+                .build();
+    }
+
+    /**
+     * Bucket counts with trailing empty buckets trimmed, for publishing
+     */
+    public long[] getCounts() {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return LINEAR_BUCKETS + (exponent - FIRST_LOG_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static double bucketMidpoint(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = FIRST_LOG_EXPONENT + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + subBucket * width;
+        return lower + width / 2.0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.retry.budget.util;
+
+import com.retry.budget.model.BackendProfile;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws simulated latencies from a {@link BackendProfile}'s distribution. Callers pass their own
+ * generator, normally {@code ThreadLocalRandom.current()}, so request threads never contend on one.
+ */
+public final class LatencySampler {
+    
+    private LatencySampler() {
+    }
+    
+    /**
+     * @param spiking whether a POISSON_SPIKE profile is inside a spike right now
+     */
+    public static double sample(BackendProfile profile, boolean spiking, RandomGenerator random) {
+        double latency = switch (profile.getDistribution()) {
+            case UNIFORM -> profile.getMinMs() + random.nextDouble() * Math.max(0, profile.getMaxMs() - profile.getMinMs());
+            case LOG_NORMAL -> logNormal(profile.getMedianMs(), profile.getSigma(), random);
+            case PARETO -> profile.getScaleMs() / Math.pow(1.0 - random.nextDouble(), 1.0 / profile.getShape());
+            case BIMODAL -> logNormal(random.nextDouble() < profile.getSlowProbability()
+                    ? profile.getSlowMedianMs() : profile.getMedianMs(), profile.getSigma(), random);
+            case POISSON_SPIKE -> logNormal(profile.getMedianMs(), profile.getSigma(), random)
+                    + (spiking ? profile.getSpikeLatencyMs() : 0);
+        };
+        return Math.min(profile.getMaxLatencyMs(), Math.max(0, latency));
+    }
+    
+    /**
+     * Exponential inter-arrival time in milliseconds for events at the given rate
+     */
+    public static long nextArrivalMs(double ratePerSecond, RandomGenerator random) {
+        return (long) Math.ceil(-Math.log(1.0 - random.nextDouble()) / ratePerSecond * 1000);
+    }
+    
+    private static double logNormal(double medianMs, double sigma, RandomGenerator random) {
+        return medianMs * Math.exp(sigma * random.nextGaussian());
+    }
+}
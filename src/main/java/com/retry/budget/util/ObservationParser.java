@@ -0,0 +1,263 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.RequestOutcome;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Decodes request observations straight out of a receive buffer. Two encodings are accepted:
+ *
+ * <pre>
+ * line:   service:latencyMs[|ms][|OUTCOME][|retry]   one per line, '\n' separated; outcome defaults to SUCCESS
+ * binary: byte 0xB7, byte version (1), then records of
+ *         byte nameLength, byte[] name (UTF-8), int latencyMs, byte outcomeOrdinal, byte flags (1 = retry)
+ * </pre>
+ *
+ * Service names are resolved through a small table keyed by their bytes, so a name seen before
+ * costs no allocation. Not thread-safe; each receiving thread owns its parser.
+ */
+public final class ObservationParser {
+
+    public static final byte BINARY_MAGIC = (byte) 0xB7;
+    public static final byte BINARY_VERSION = 1;
+    public static final byte FLAG_RETRY = 1;
+
+    private static final RequestOutcome[] OUTCOMES = RequestOutcome.values();
+    private static final byte[][] OUTCOME_NAMES = new byte[OUTCOMES.length][];
+    private static final byte[] MS = "ms".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETRY = "retry".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETRY_SHORT = "r".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (RequestOutcome outcome : OUTCOMES) {
+            OUTCOME_NAMES[outcome.ordinal()] = outcome.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(String serviceName, long latencyMs, RequestOutcome outcome, boolean retry);
+    }
+
+    private final NameTable names;
+    private final byte[] scratch = new byte[255];
+
+    public ObservationParser(int maxNames) {
+        this.names = new NameTable(maxNames);
+    }
+
+    /**
+     * Decode one datagram; the encoding is told apart by its first byte
+     *
+     * @return the number of malformed observations skipped
+     */
+    public int parseDatagram(ByteBuffer buffer, Sink sink) {
+        if (buffer.remaining() > 0 && buffer.get(buffer.position()) == BINARY_MAGIC) {
+            return parseBinary(buffer, sink);
+        }
+        return parseLines(buffer, buffer.position(), buffer.limit(), sink);
+    }
+
+    /**
+     * Decode the lines between {@code from} and {@code to}; a trailing line without a newline counts
+     *
+     * @return the number of malformed lines skipped
+     */
+    public int parseLines(ByteBuffer buffer, int from, int to, Sink sink) {
+        int malformed = 0;
+        int start = from;
+        while (start < to) {
+            int end = start;
+            while (end < to && buffer.get(end) != '\n') {
+                end++;
+            }
+            int lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > start && !parseLine(buffer, start, lineEnd, sink)) {
+                malformed++;
+            }
+            start = end + 1;
+        }
+        return malformed;
+    }
+
+    private boolean parseLine(ByteBuffer buffer, int start, int end, Sink sink) {
+        int colon = indexOf(buffer, start, end, (byte) ':');
+        if (colon <= start || colon - start > scratch.length) {
+            return false;
+        }
+
+        int position = colon + 1;
+        long latency = 0;
+        int digits = 0;
+        while (position < end && buffer.get(position) >= '0' && buffer.get(position) <= '9') {
+            latency = latency * 10 + (buffer.get(position) - '0');
+            position++;
+            if (++digits > 12) {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+
+        RequestOutcome outcome = RequestOutcome.SUCCESS;
+        boolean retry = false;
+        while (position < end) {
+            if (buffer.get(position) != '|') {
+                return false;
+            }
+            int tokenStart = position + 1;
+            int tokenEnd = indexOf(buffer, tokenStart, end, (byte) '|');
+            if (tokenEnd < 0) {
+                tokenEnd = end;
+            }
+
+            if (matches(buffer, tokenStart, tokenEnd, RETRY) || matches(buffer, tokenStart, tokenEnd, RETRY_SHORT)) {
+                retry = true;
+            } else if (!matches(buffer, tokenStart, tokenEnd, MS)) {
+                outcome = outcomeOf(buffer, tokenStart, tokenEnd);
+                if (outcome == null) {
+                    return false;
+                }
+            }
+            position = tokenEnd;
+        }
+
+        sink.accept(names.resolve(buffer, start, colon - start), latency, outcome, retry);
+        return true;
+    }
+
+    private int parseBinary(ByteBuffer buffer, Sink sink) {
+        int position = buffer.position() + 1;
+        int end = buffer.limit();
+        if (position >= end || buffer.get(position) != BINARY_VERSION) {
+            return 1;
+        }
+        position++;
+
+        while (position < end) {
+            int nameLength = Byte.toUnsignedInt(buffer.get(position));
+            int recordEnd = position + 1 + nameLength + 4 + 1 + 1;
+            if (nameLength == 0 || recordEnd > end) {
+                return 1;
+            }
+
+            int nameStart = position + 1;
+            int latency = buffer.getInt(nameStart + nameLength);
+            int ordinal = Byte.toUnsignedInt(buffer.get(nameStart + nameLength + 4));
+            byte flags = buffer.get(nameStart + nameLength + 5);
+            if (latency < 0 || ordinal >= OUTCOMES.length) {
+                return 1;
+            }
+
+            sink.accept(names.resolve(buffer, nameStart, nameLength), latency, OUTCOMES[ordinal],
+                    (flags & FLAG_RETRY) != 0);
+            position = recordEnd;
+        }
+        return 0;
+    }
+
+    private static RequestOutcome outcomeOf(ByteBuffer buffer, int start, int end) {
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            if (matches(buffer, start, end, OUTCOME_NAMES[i])) {
+                return OUTCOMES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ASCII case-insensitive comparison of a buffer region against an upper- or lower-case token
+     */
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] token) {
+        if (end - start != token.length) {
+            return false;
+        }
+        for (int i = 0; i < token.length; i++) {
+            if ((buffer.get(start + i) | 0x20) != (token[i] | 0x20)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Open-addressing table from name bytes to the interned String. When full it is cleared, so
+     * the worst case is one String per observation, never unbounded growth.
+     */
+    private final class NameTable {
+
+        private final byte[][] keys;
+        private final String[] values;
+        private final int[] hashes;
+        private final int maxEntries;
+        private int size;
+
+        NameTable(int maxEntries) {
+            int capacity = Integer.highestOneBit(Math.max(16, maxEntries * 2 - 1)) << 1;
+            this.keys = new byte[capacity][];
+            this.values = new String[capacity];
+            this.hashes = new int[capacity];
+            this.maxEntries = maxEntries;
+        }
+
+        String resolve(ByteBuffer buffer, int start, int length) {
+            int hash = 0x811C9DC5;
+            for (int i = 0; i < length; i++) {
+                hash = (hash ^ buffer.get(start + i)) * 0x01000193;
+            }
+
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && equal(keys[slot], buffer, start, length)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            buffer.get(start, scratch, 0, length);
+            String name = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            if (size == maxEntries) {
+                clear();
+                slot = hash & mask;
+            }
+            byte[] key = new byte[length];
+            System.arraycopy(scratch, 0, key, 0, length);
+            keys[slot] = key;
+            values[slot] = name;
+            hashes[slot] = hash;
+            size++;
+            return name;
+        }
+
+        private boolean equal(byte[] key, ByteBuffer buffer, int start, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void clear() {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.retry.budget.util;
+
+/**
+ * Four saturating 16-bit counters packed into a single long, so per-class usage can be stored
+ * and updated as one value instead of one key per class.
+ */
+public final class PackedCounters {
+    
+    public static final int LANES = 4;
+    
+    private static final int LANE_BITS = 16;
+    private static final long LANE_MASK = 0xFFFFL;
+    
+    private PackedCounters() {
+    }
+    
+    public static int get(long packed, int lane) {
+        return (int) ((packed >>> (lane * LANE_BITS)) & LANE_MASK);
+    }
+    
+    public static long increment(long packed, int lane) {
+        if (get(packed, lane) == LANE_MASK) {
+            return packed;
+        }
+        return packed + (1L << (lane * LANE_BITS));
+    }
+    
+    public static long decrement(long packed, int lane) {
+        if (get(packed, lane) == 0) {
+            return packed;
+        }
+        return packed - (1L << (lane * LANE_BITS));
+    }
+    
+    public static int total(long packed) {
+        int total = 0;
+        for (int lane = 0; lane < LANES; lane++) {
+            total += get(packed, lane);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,65 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.enums.ServiceMeter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Interned service name with a dense integer id, its storage keys built once, and lazily
+ * resolved per-service counters. Ids of {@code -1} belong to names the registry declined to
+ * intern; they work the same but live in a bounded cache, so one may be rebuilt after eviction.
+ */
+public final class ServiceId {
+    
+    private static final RedisKeySpace[] KEY_SPACES = RedisKeySpace.values();
+    
+    private final int id;
+    private final String name;
+    private final String[] keys;
+    private final Counter[] counters = new Counter[ServiceMeter.values().length];
+    
+    ServiceId(int id, String name) {
+        this.id = id;
+        this.name = name;
+        this.keys = new String[KEY_SPACES.length];
+        for (RedisKeySpace space : KEY_SPACES) {
+            keys[space.ordinal()] = space.getPrefix() + name;
+        }
+    }
+    
+    public int id() {
+        return id;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public boolean isInterned() {
+        return id >= 0;
+    }
+    
+    public String key(RedisKeySpace space) {
+        return keys[space.ordinal()];
+    }
+    
+    /**
+     * Racing first lookups may both resolve the counter; the registry returns the same meter to both
+     */
+    public Counter counter(ServiceMeter meter, MeterRegistry meterRegistry) {
+        Counter counter = counters[meter.ordinal()];
+        if (counter == null) {
+            counter = meter.getTagKey() == null
+                    ? meterRegistry.counter(meter.getMeterName(), "service", name)
+                    : meterRegistry.counter(meter.getMeterName(), "service", name, meter.getTagKey(), meter.getTagValue());
+            counters[meter.ordinal()] = counter;
+        }
+        return counter;
+    }
+    
+    @Override
+    public String toString() {
+        return name + "#" + id;
+    }
+}
@@ -0,0 +1,146 @@
+package com.retry.budget.util;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.ServiceMeter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns service names into dense ids on first sight. Hot paths resolve a name once per call and
+ * then use precomputed storage keys, cached counters and id-indexed slots instead of building
+ * strings and looking up tags. At most {@code registry.max-services} names are interned; beyond
+ * that names resolve to uninterned ids, cached up to {@code registry.max-overflow} so repeat lookups
+ * stay lock-free. Released ids are reused, so the id space follows the services that are active
+ * rather than every name ever seen.
+ */
+@Component
+public class ServiceRegistry {
+    
+    private final MeterRegistry meterRegistry;
+    private final int maxServices;
+    private final int maxOverflow;
+    private final Map<String, ServiceId> byName = new ConcurrentHashMap<>();
+    private final Map<String, ServiceId> overflow = new ConcurrentHashMap<>();
+    private volatile ServiceId[] byId = new ServiceId[64];
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private int nextId;
+    private int size;
+    
+    public ServiceRegistry(MeterRegistry meterRegistry, RetryBudgetConfig config) {
+        this.meterRegistry = meterRegistry;
+        this.maxServices = config.getRegistry().getMaxServices();
+        this.maxOverflow = config.getRegistry().getMaxOverflow();
+        
+        Gauge.builder("retry.budget.registry.services", this, ServiceRegistry::size).register(meterRegistry);
+    }
+    
+    public ServiceId intern(String serviceName) {
+        ServiceId serviceId = byName.get(serviceName);
+        if (serviceId == null) {
+            serviceId = overflow.get(serviceName);
+        }
+        return serviceId != null ? serviceId : register(serviceName);
+    }
+    
+    /**
+     * Service for an id handed out by this registry, or null
+     */
+    public ServiceId get(int id) {
+        ServiceId[] ids = byId;
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+    
+    /**
+     * Per-service slots whose overflow side is bounded like this registry's overflow ids
+     */
+    public <T> ServiceSlots<T> newSlots() {
+        return new ServiceSlots<>(maxOverflow);
+    }
+    
+    public Counter counter(String serviceName, ServiceMeter meter) {
+        return intern(serviceName).counter(meter, meterRegistry);
+    }
+    
+    public Counter counter(ServiceId serviceId, ServiceMeter meter) {
+        return serviceId.counter(meter, meterRegistry);
+    }
+    
+    /**
+     * Whether the id is the one currently interned for its name
+     */
+    public boolean isCurrent(ServiceId serviceId) {
+        return !serviceId.isInterned() || byName.get(serviceId.name()) == serviceId;
+    }
+    
+    /**
+     * Forget a service: its id becomes free for reuse and the meters tagged with it are removed
+     * from the meter registry. Holders of the old id keep working on detached state.
+     */
+    public void release(ServiceId serviceId) {
+        synchronized (this) {
+            if (serviceId.isInterned() && byName.remove(serviceId.name(), serviceId)) {
+                byId[serviceId.id()] = null;
+                freeIds.push(serviceId.id());
+                size--;
+                // Overflow names get the freed room on their next lookup
+                overflow.clear();
+            }
+        }
+        
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (serviceId.name().equals(meter.getId().getTag("service"))) {
+                meterRegistry.remove(meter);
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private synchronized ServiceId register(String serviceName) {
+        ServiceId existing = byName.get(serviceName);
+        if (existing != null) {
+            return existing;
+        }
+        
+        if (size >= maxServices) {
+            return overflowId(serviceName);
+        }
+        
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+        ServiceId serviceId = new ServiceId(id, serviceName);
+        if (id == byId.length) {
+            byId = Arrays.copyOf(byId, byId.length * 2);
+        }
+        byId[id] = serviceId;
+        byName.put(serviceName, serviceId);
+        size++;
+        return serviceId;
+    }
+    
+    private ServiceId overflowId(String serviceName) {
+        ServiceId serviceId = overflow.get(serviceName);
+        if (serviceId != null) {
+            return serviceId;
+        }
+        
+        meterRegistry.counter("retry.budget.registry.overflow").increment();
+        serviceId = new ServiceId(-1, serviceName);
+        if (overflow.size() >= maxOverflow) {
+            // Bounded cache: drop any one entry, whose name simply resolves to a fresh id next time
+            overflow.keySet().stream().findAny().ifPresent(overflow::remove);
+        }
+        overflow.put(serviceName, serviceId);
+        return serviceId;
+    }
+}
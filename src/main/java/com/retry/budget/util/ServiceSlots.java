@@ -0,0 +1,124 @@
+package com.retry.budget.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Per-service state indexed by {@link ServiceId#id()}, so a lookup is an array read instead of a
+ * string hash. Services the registry did not intern fall back to a map holding at most
+ * {@code maxOverflow} entries; past that an arbitrary entry is dropped. Each slot remembers the
+ * id it was created for, so state left behind by a released id is never handed to the service
+ * that reuses it.
+ */
+public final class ServiceSlots<T> {
+
+    private volatile Slot<?>[] slots = new Slot<?>[64];
+    private final Map<String, T> overflow = new ConcurrentHashMap<>();
+    private final int maxOverflow;
+
+    ServiceSlots(int maxOverflow) {
+        this.maxOverflow = maxOverflow;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(ServiceId serviceId) {
+        if (!serviceId.isInterned()) {
+            return overflow.get(serviceId.name());
+        }
+        Slot<?>[] current = slots;
+        Slot<?> slot = serviceId.id() < current.length ? current[serviceId.id()] : null;
+        return slot != null && slot.owner == serviceId ? (T) slot.value : null;
+    }
+
+    public T computeIfAbsent(ServiceId serviceId, Function<ServiceId, T> factory) {
+        T value = get(serviceId);
+        if (value != null) {
+            return value;
+        }
+        if (!serviceId.isInterned()) {
+            makeOverflowRoom();
+            return overflow.computeIfAbsent(serviceId.name(), name -> factory.apply(serviceId));
+        }
+        return create(serviceId, factory);
+    }
+
+    /**
+     * Replace whatever the service's slot holds
+     */
+    public void put(ServiceId serviceId, T value) {
+        if (!serviceId.isInterned()) {
+            if (!overflow.containsKey(serviceId.name())) {
+                makeOverflowRoom();
+            }
+            overflow.put(serviceId.name(), value);
+            return;
+        }
+        replace(serviceId, value);
+    }
+
+    public synchronized T remove(ServiceId serviceId) {
+        if (!serviceId.isInterned()) {
+            return overflow.remove(serviceId.name());
+        }
+        T value = get(serviceId);
+        if (value != null) {
+            slots[serviceId.id()] = null;
+        }
+        return value;
+    }
+
+    public synchronized void clear() {
+        slots = new Slot<?>[slots.length];
+        overflow.clear();
+    }
+
+    /**
+     * Visit every occupied slot with the id it was created for
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ServiceRegistry registry, BiConsumer<ServiceId, T> action) {
+        Slot<?>[] current = slots;
+        for (Slot<?> slot : current) {
+            if (slot != null) {
+                action.accept(slot.owner, (T) slot.value);
+            }
+        }
+        overflow.forEach((name, value) -> action.accept(registry.intern(name), value));
+    }
+
+    private void makeOverflowRoom() {
+        if (overflow.size() >= maxOverflow) {
+            overflow.keySet().stream().findAny().ifPresent(overflow::remove);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T create(ServiceId serviceId, Function<ServiceId, T> factory) {
+        Slot<?>[] current = slots;
+        if (serviceId.id() >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, serviceId.id() + 1));
+        }
+        Slot<?> slot = current[serviceId.id()];
+        if (slot == null || slot.owner != serviceId) {
+            slot = new Slot<>(serviceId, factory.apply(serviceId));
+            current[serviceId.id()] = slot;
+        }
+        slots = current;
+        return (T) slot.value;
+    }
+
+    private synchronized void replace(ServiceId serviceId, T value) {
+        Slot<?>[] current = slots;
+        if (serviceId.id() >= current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, serviceId.id() + 1));
+        }
+        current[serviceId.id()] = new Slot<>(serviceId, value);
+        slots = current;
+    }
+
+    private record Slot<T>(ServiceId owner, T value) {
+    }
+}
@@ -0,0 +1,316 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.ConcurrencyLimit;
+import com.retry.budget.model.ForecastState;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.model.ServiceStateSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary, memory-mapped snapshot of per-service state. The file is written to a sibling temp file
+ * and moved into place, so a crash mid-write leaves the previous snapshot intact. Version 1 files,
+ * which lack outcome counts and forecasts, are still read.
+ *
+ * <pre>
+ * header:  int magic, int version, long takenAtMillis, int serviceCount, int crc32(body)
+ * service: short nameLength, byte[] name (UTF-8), byte sections,
+ *          [budget]   int allocated, int used, int remaining, byte health, double latencyFactor,
+ *                     double errorFactor, long lastCalculated, long expiresAt, long priorityUsage
+ *          [metrics]  long total, long successful, long failed, long retries, double errorRate,
+ *                     long lastUpdated, long windowStart, long windowEnd, int sampleCount, int[] samples,
+ *                     byte outcomeCount, long[] outcomeCounts (v2)
+ *          [limit]    int limit, double minRttMs
+ *          [forecast] double p95Level, double p95Trend, double errorRateLevel, double errorRateTrend,
+ *                     long lastUpdateMs, int samples, byte band (v2)
+ * </pre>
+ */
+public final class StateSnapshotFile {
+
+    private static final int MAGIC = 0x52425331; // "RBS1"
+    private static final int VERSION = 2;
+    private static final int FIRST_VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int CRC_OFFSET = 20;
+
+    private static final byte HAS_BUDGET = 1;
+    private static final byte HAS_METRICS = 2;
+    private static final byte HAS_LIMIT = 4;
+    private static final byte HAS_FORECAST = 8;
+
+    private static final int BUDGET_BYTES = 4 * 3 + 1 + 8 * 5;
+    private static final int METRICS_BYTES = 8 * 8 + 4 + 1;
+    private static final int LIMIT_BYTES = 4 + 8;
+    private static final int FORECAST_BYTES = 8 * 4 + 8 + 4 + 1;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final ServiceHealthStatus[] HEALTH = ServiceHealthStatus.values();
+
+    private StateSnapshotFile() {
+    }
+
+    public record Contents(long takenAtMillis, List<ServiceStateSnapshot> services) {
+    }
+
+    public static void write(Path path, long takenAtMillis, List<ServiceStateSnapshot> services) throws IOException {
+        List<byte[]> names = new ArrayList<>(services.size());
+        long size = HEADER_BYTES;
+        for (ServiceStateSnapshot service : services) {
+            byte[] name = service.getServiceName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += recordBytes(name, service);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(takenAtMillis).putInt(services.size()).putInt(0);
+            for (int i = 0; i < services.size(); i++) {
+                writeRecord(buffer, names.get(i), services.get(i));
+            }
+
+            buffer.putInt(CRC_OFFSET, crc(buffer, (int) size));
+            buffer.force();
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot, or return null when there is none or it fails validation
+     */
+    public static Contents read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            int version = buffer.getInt();
+            if (version < FIRST_VERSION || version > VERSION) {
+                return null;
+            }
+
+            long takenAt = buffer.getLong();
+            int count = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (crc(buffer, (int) size) != expectedCrc) {
+                return null;
+            }
+
+            List<ServiceStateSnapshot> services = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                services.add(readRecord(buffer, version));
+            }
+            return new Contents(takenAt, services);
+        }
+    }
+
+    private static long recordBytes(byte[] name, ServiceStateSnapshot service) {
+        long bytes = 2 + name.length + 1;
+        if (service.getBudget() != null) {
+            bytes += BUDGET_BYTES;
+        }
+        if (service.getMetrics() != null) {
+            List<Long> latencies = service.getMetrics().getLatencies();
+            long[] outcomes = service.getMetrics().getOutcomeCounts();
+            bytes += METRICS_BYTES + 4L * (latencies == null ? 0 : latencies.size())
+                    + 8L * (outcomes == null ? 0 : outcomes.length);
+        }
+        if (service.getConcurrencyLimit() != null) {
+            bytes += LIMIT_BYTES;
+        }
+        if (service.getForecast() != null) {
+            bytes += FORECAST_BYTES;
+        }
+        return bytes;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, byte[] name, ServiceStateSnapshot service) {
+        RetryBudget budget = service.getBudget();
+        ServiceMetrics metrics = service.getMetrics();
+        ConcurrencyLimit limit = service.getConcurrencyLimit();
+        ForecastState forecast = service.getForecast();
+
+        buffer.putShort((short) name.length).put(name);
+        buffer.put((byte) ((budget != null ? HAS_BUDGET : 0)
+                | (metrics != null ? HAS_METRICS : 0)
+                | (limit != null ? HAS_LIMIT : 0)
+                | (forecast != null ? HAS_FORECAST : 0)));
+
+        if (budget != null) {
+            buffer.putInt(budget.getAllocatedBudget())
+                    .putInt(budget.getUsedBudget())
+                    .putInt(budget.getRemainingBudget())
+                    .put((byte) (budget.getHealthStatus() == null ? -1 : budget.getHealthStatus().ordinal()))
+                    .putDouble(budget.getLatencyFactor())
+                    .putDouble(budget.getErrorFactor())
+                    .putLong(toMillis(budget.getLastCalculated()))
+                    .putLong(toMillis(budget.getExpiresAt()))
+                    .putLong(budget.getPriorityUsage());
+        }
+
+        if (metrics != null) {
+            List<Long> latencies = metrics.getLatencies() == null ? List.of() : metrics.getLatencies();
+            buffer.putLong(metrics.getTotalRequests())
+                    .putLong(metrics.getSuccessfulRequests())
+                    .putLong(metrics.getFailedRequests())
+                    .putLong(metrics.getRetryCount())
+                    .putDouble(metrics.getErrorRate())
+                    .putLong(toMillis(metrics.getLastUpdated()))
+                    .putLong(toMillis(metrics.getWindowStart()))
+                    .putLong(toMillis(metrics.getWindowEnd()))
+                    .putInt(latencies.size());
+            for (Long latency : latencies) {
+                buffer.putInt((int) Math.min(Integer.MAX_VALUE, latency));
+            }
+            long[] outcomes = metrics.getOutcomeCounts() == null ? new long[0] : metrics.getOutcomeCounts();
+            buffer.put((byte) outcomes.length);
+            for (long count : outcomes) {
+                buffer.putLong(count);
+            }
+        }
+
+        if (limit != null) {
+            buffer.putInt(limit.getLimit()).putDouble(limit.getMinRttMs());
+        }
+
+        if (forecast != null) {
+            buffer.putDouble(forecast.getP95Level())
+                    .putDouble(forecast.getP95TrendPerSecond())
+                    .putDouble(forecast.getErrorRateLevel())
+                    .putDouble(forecast.getErrorRateTrendPerSecond())
+                    .putLong(forecast.getLastUpdateMs())
+                    .putInt(forecast.getSamples())
+                    .put((byte) forecast.getBand());
+        }
+    }
+
+    private static ServiceStateSnapshot readRecord(ByteBuffer buffer, int version) {
+        byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(name);
+        String serviceName = new String(name, StandardCharsets.UTF_8);
+        byte sections = buffer.get();
+
+        ServiceStateSnapshot.ServiceStateSnapshotBuilder snapshot = ServiceStateSnapshot.builder()
+                .serviceName(serviceName);
+
+        if ((sections & HAS_BUDGET) != 0) {
+            int allocated = buffer.getInt();
+            int used = buffer.getInt();
+            int remaining = buffer.getInt();
+            byte health = buffer.get();
+            snapshot.budget(RetryBudget.builder()
+                    .serviceName(serviceName)
+                    .allocatedBudget(allocated)
+                    .usedBudget(used)
+                    .remainingBudget(remaining)
+                    .healthStatus(health < 0 ? null : HEALTH[health])
+                    .latencyFactor(buffer.getDouble())
+                    .errorFactor(buffer.getDouble())
+                    .lastCalculated(fromMillis(buffer.getLong()))
+                    .expiresAt(fromMillis(buffer.getLong()))
+                    .priorityUsage(buffer.getLong())
+                    .build());
+        }
+
+        if ((sections & HAS_METRICS) != 0) {
+            ServiceMetrics metrics = ServiceMetrics.builder()
+                    .serviceName(serviceName)
+                    .totalRequests(buffer.getLong())
+                    .successfulRequests(buffer.getLong())
+                    .failedRequests(buffer.getLong())
+                    .retryCount(buffer.getLong())
+                    .errorRate(buffer.getDouble())
+                    .lastUpdated(fromMillis(buffer.getLong()))
+                    .windowStart(fromMillis(buffer.getLong()))
+                    .windowEnd(fromMillis(buffer.getLong()))
+                    .build();
+            int samples = buffer.getInt();
+            List<Long> latencies = new ArrayList<>(samples);
+            for (int i = 0; i < samples; i++) {
+                latencies.add((long) buffer.getInt());
+            }
+            metrics.setLatencies(latencies);
+            if (version >= 2) {
+                int outcomes = Byte.toUnsignedInt(buffer.get());
+                if (outcomes > 0) {
+                    long[] counts = new long[outcomes];
+                    for (int i = 0; i < outcomes; i++) {
+                        counts[i] = buffer.getLong();
+                    }
+                    metrics.setOutcomeCounts(counts);
+                }
+            }
+            snapshot.metrics(metrics);
+        }
+
+        if ((sections & HAS_LIMIT) != 0) {
+            snapshot.concurrencyLimit(ConcurrencyLimit.builder()
+                    .serviceName(serviceName)
+                    .limit(buffer.getInt())
+                    .minRttMs(buffer.getDouble())
+                    .build());
+        }
+
+        if ((sections & HAS_FORECAST) != 0) {
+            snapshot.forecast(ForecastState.builder()
+                    .serviceName(serviceName)
+                    .p95Level(buffer.getDouble())
+                    .p95TrendPerSecond(buffer.getDouble())
+                    .errorRateLevel(buffer.getDouble())
+                    .errorRateTrendPerSecond(buffer.getDouble())
+                    .lastUpdateMs(buffer.getLong())
+                    .samples(buffer.getInt())
+                    .band(buffer.get())
+                    .build());
+        }
+
+        return snapshot.build();
+    }
+
+    private static int crc(ByteBuffer buffer, int size) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES).limit(size));
+        return (int) crc.getValue();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? NO_TIME : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis == NO_TIME ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
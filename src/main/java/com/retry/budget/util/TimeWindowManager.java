@@ -1,5 +1,129 @@
 package com.retry.budget.util;
 
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.HealthSample;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring of time slots at one resolution, stored column-wise in primitive arrays so memory
+ * is allocated once and never grows. A slot is reused as soon as its index comes round again.
+ * Samples landing in the same slot are folded together as described on {@link HealthSample}.
+ * Not thread-safe; callers serialize access per instance.
+ */
 public class TimeWindowManager {
-    
+
+    private static final byte NO_HEALTH = -1;
+    private static final ServiceHealthStatus[] HEALTH = ServiceHealthStatus.values();
+
+    private final long resolutionMs;
+    private final int capacity;
+
+    private final long[] slotIds;
+    private final int[] samples;
+    private final float[] p50Sum;
+    private final float[] p95Max;
+    private final float[] p99Max;
+    private final float[] errorRateSum;
+    private final long[] totalRequests;
+    private final int[] allocatedMin;
+    private final int[] remainingMin;
+    private final byte[] worstHealth;
+
+    public TimeWindowManager(long resolutionMs, int capacity) {
+        this.resolutionMs = resolutionMs;
+        this.capacity = capacity;
+        this.slotIds = new long[capacity];
+        this.samples = new int[capacity];
+        this.p50Sum = new float[capacity];
+        this.p95Max = new float[capacity];
+        this.p99Max = new float[capacity];
+        this.errorRateSum = new float[capacity];
+        this.totalRequests = new long[capacity];
+        this.allocatedMin = new int[capacity];
+        this.remainingMin = new int[capacity];
+        this.worstHealth = new byte[capacity];
+        Arrays.fill(slotIds, -1);
+    }
+
+    /**
+     * Fold a sample into its slot; a negative budget or null health means the value is unknown
+     */
+    public void record(long timestampMs, double p50, double p95, double p99, double errorRate, long requests,
+                       int allocatedBudget, int remainingBudget, ServiceHealthStatus health) {
+        long slotId = timestampMs / resolutionMs;
+        int index = (int) (slotId % capacity);
+
+        if (slotIds[index] != slotId) {
+            slotIds[index] = slotId;
+            samples[index] = 0;
+            p50Sum[index] = 0;
+            p95Max[index] = 0;
+            p99Max[index] = 0;
+            errorRateSum[index] = 0;
+            allocatedMin[index] = Integer.MAX_VALUE;
+            remainingMin[index] = Integer.MAX_VALUE;
+            worstHealth[index] = NO_HEALTH;
+        }
+
+        samples[index]++;
+        p50Sum[index] += (float) p50;
+        p95Max[index] = Math.max(p95Max[index], (float) p95);
+        p99Max[index] = Math.max(p99Max[index], (float) p99);
+        errorRateSum[index] += (float) errorRate;
+        totalRequests[index] = requests;
+        if (allocatedBudget >= 0) {
+            allocatedMin[index] = Math.min(allocatedMin[index], allocatedBudget);
+        }
+        if (remainingBudget >= 0) {
+            remainingMin[index] = Math.min(remainingMin[index], remainingBudget);
+        }
+        if (health != null) {
+            worstHealth[index] = (byte) Math.max(worstHealth[index], health.ordinal());
+        }
+    }
+
+    /**
+     * Points between the two instants, oldest first; slots never written or already overwritten are skipped
+     */
+    public List<HealthSample> range(long fromMs, long toMs) {
+        long lastSlot = toMs / resolutionMs;
+        long firstSlot = Math.max(fromMs / resolutionMs, lastSlot - capacity + 1);
+
+        List<HealthSample> points = new ArrayList<>();
+        for (long slotId = firstSlot; slotId <= lastSlot; slotId++) {
+            int index = (int) (slotId % capacity);
+            if (slotIds[index] != slotId) {
+                continue;
+            }
+
+            int count = samples[index];
+            points.add(HealthSample.builder()
+                    .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(slotId * resolutionMs), ZoneId.systemDefault()))
+                    .samples(count)
+                    .p50(p50Sum[index] / count)
+                    .p95(p95Max[index])
+                    .p99(p99Max[index])
+                    .errorRate(errorRateSum[index] / count)
+                    .totalRequests(totalRequests[index])
+                    .allocatedBudget(allocatedMin[index] == Integer.MAX_VALUE ? null : allocatedMin[index])
+                    .remainingBudget(remainingMin[index] == Integer.MAX_VALUE ? null : remainingMin[index])
+                    .healthStatus(worstHealth[index] == NO_HEALTH ? null : HEALTH[worstHealth[index]])
+                    .build());
+        }
+        return points;
+    }
+
+    public long getResolutionMs() {
+        return resolutionMs;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
 }
@@ -0,0 +1,69 @@
+package com.retry.budget.aspect;
+
+import com.retry.budget.annotation.RetryBudgeted;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetedMethodRegistryTest {
+
+    interface Client<T> {
+        T fetch(T request);
+
+        String plain();
+    }
+
+    static class PaymentsClient implements Client<String> {
+        @Override
+        @RetryBudgeted(service = "payments", maxRetries = 2)
+        public String fetch(String request) {
+            return request;
+        }
+
+        @Override
+        public String plain() {
+            return "plain";
+        }
+    }
+
+    private final RetryBudgetedMethodRegistry registry = new RetryBudgetedMethodRegistry();
+
+    @Test
+    void resolvesAnnotationFromImplementationWhenCalledThroughInterface() throws Exception {
+        Method interfaceMethod = Client.class.getMethod("fetch", Object.class);
+
+        RetryBudgetedMethod metadata = registry.get(interfaceMethod, new PaymentsClient());
+
+        assertThat(metadata).isNotNull();
+        assertThat(metadata.serviceName()).isEqualTo("payments");
+        assertThat(metadata.maxRetries()).isEqualTo(2);
+    }
+
+    @Test
+    void resolvesAnnotationThroughBridgeMethod() throws Exception {
+        Method bridge = PaymentsClient.class.getMethod("fetch", Object.class);
+        assertThat(bridge.isBridge()).isTrue();
+
+        RetryBudgetedMethod metadata = registry.get(bridge, new PaymentsClient());
+
+        assertThat(metadata).isNotNull();
+        assertThat(metadata.serviceName()).isEqualTo("payments");
+    }
+
+    @Test
+    void returnsNullWhenNoAnnotationCanBeFound() throws Exception {
+        Method plain = Client.class.getMethod("plain");
+
+        assertThat(registry.get(plain, new PaymentsClient())).isNull();
+    }
+
+    @Test
+    void registersAnnotatedMethodsWhenBeansAreCreated() throws Exception {
+        registry.postProcessBeforeInitialization(new PaymentsClient(), "paymentsClient");
+
+        Method method = PaymentsClient.class.getMethod("fetch", String.class);
+        assertThat(registry.get(method, null).serviceName()).isEqualTo("payments");
+    }
+}
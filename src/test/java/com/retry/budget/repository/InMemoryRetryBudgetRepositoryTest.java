@@ -0,0 +1,44 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.RetryBudget;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRetryBudgetRepositoryTest {
+
+    private final InMemoryRetryBudgetRepository repository = new InMemoryRetryBudgetRepository();
+
+    @Test
+    void mutatingASavedBudgetDoesNotChangeTheStoredOne() {
+        RetryBudget budget = budget();
+        repository.saveBudget(budget);
+
+        budget.consumeBudget();
+
+        assertThat(repository.getBudget("orders").getUsedBudget()).isZero();
+    }
+
+    @Test
+    void mutatingARestoredBudgetDoesNotChangeTheStoredOne() {
+        RetryBudget budget = budget();
+        repository.restoreBudget(budget);
+
+        budget.consumeBudget();
+
+        assertThat(repository.getBudget("orders").getRemainingBudget()).isEqualTo(10);
+    }
+
+    private static RetryBudget budget() {
+        return RetryBudget.builder()
+                .serviceName("orders")
+                .allocatedBudget(10)
+                .remainingBudget(10)
+                .healthStatus(ServiceHealthStatus.HEALTHY)
+                .expiresAt(LocalDateTime.now().plusMinutes(1))
+                .build();
+    }
+}
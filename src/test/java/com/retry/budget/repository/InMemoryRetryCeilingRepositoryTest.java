@@ -0,0 +1,49 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.enums.CeilingDecision;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRetryCeilingRepositoryTest {
+
+    private final InMemoryRetryCeilingRepository repository = new InMemoryRetryCeilingRepository();
+
+    @Test
+    void multiPermitRequestsNeverPushUsagePastTheGlobalCap() {
+        assertThat(acquire("orders", null, 8)).isEqualTo(CeilingDecision.WITHIN_CEILING);
+
+        assertThat(acquire("orders", null, 3)).isEqualTo(CeilingDecision.GLOBAL_EXHAUSTED);
+        assertThat(acquire("orders", null, 2)).isEqualTo(CeilingDecision.WITHIN_CEILING);
+        assertThat(repository.getUsage(1L)).containsEntry("global", "10");
+    }
+
+    @Test
+    void checkWithoutPermitsAsksWhetherOneMoreFits() {
+        acquire("orders", null, 10);
+
+        assertThat(acquire("orders", null, 0)).isEqualTo(CeilingDecision.GLOBAL_EXHAUSTED);
+    }
+
+    @Test
+    void groupCapCountsTheRequestedPermits() {
+        assertThat(acquire("orders", "checkout", 4)).isEqualTo(CeilingDecision.WITHIN_CEILING);
+
+        assertThat(acquire("payments", "checkout", 2)).isEqualTo(CeilingDecision.GROUP_EXHAUSTED);
+        assertThat(repository.getUsage(1L)).containsEntry("grp:checkout", "4");
+    }
+
+    @Test
+    void fairShareCountsTheRequestedPermits() {
+        acquire("payments", null, 0);
+        assertThat(acquire("orders", null, 5)).isEqualTo(CeilingDecision.WITHIN_CEILING);
+
+        // Past the enforcement point each of the two equal-weight services may hold at most half the cap
+        assertThat(acquire("orders", null, 1)).isEqualTo(CeilingDecision.FAIR_SHARE_EXCEEDED);
+        assertThat(acquire("payments", null, 5)).isEqualTo(CeilingDecision.WITHIN_CEILING);
+    }
+
+    private CeilingDecision acquire(String serviceName, String group, int permits) {
+        return repository.evaluate(1L, serviceName, group, 10, 5, 1.0, 0.5, permits, 60);
+    }
+}
@@ -0,0 +1,115 @@
+package com.retry.budget.repository;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CircuitState;
+import com.retry.budget.enums.RedisKeySpace;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis is a map behind a mocked template; outages come from the fault injector the way Lettuce reports them
+ */
+class RedisRetryBudgetRepositoryTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private final RedisFaultInjector faultInjector = new RedisFaultInjector(config);
+    private RedisCircuitBreaker circuitBreaker;
+    private RedisRetryBudgetRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config.getDegraded().setFaultInjectionEnabled(true);
+        config.getDegraded().setFailureThreshold(2);
+        config.getDegraded().setOpenDurationMs(0);
+
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(call -> redis.get(call.<String>getArgument(0)));
+        doAnswer(call -> redis.put(call.getArgument(0), call.getArgument(1)))
+                .when(values).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new RedisCircuitBreaker(mock(StringRedisTemplate.class), faultInjector, config, meterRegistry);
+        repository = new RedisRetryBudgetRepository(redisTemplate, circuitBreaker,
+                new ServiceRegistry(meterRegistry, config));
+    }
+
+    @Test
+    void servesLastKnownBudgetWhileRedisIsDown() {
+        repository.saveBudget(budget("orders", 3));
+        faultInjector.configure(true, 0, 0);
+
+        assertThat(repository.getBudget("orders").getRemainingBudget()).isEqualTo(3);
+        assertThat(repository.getBudget("payments")).isNull();
+        assertThat(repository.hasLastKnown("orders")).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    void queuesWritesDuringOutageAndReplaysThemOnRecovery() {
+        repository.saveBudget(budget("orders", 5));
+        faultInjector.configure(true, 0, 0);
+
+        RetryBudget spent = repository.getBudget("orders");
+        spent.consumeBudget();
+        repository.saveBudget(spent);
+        repository.saveBudget(spent);
+
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(circuitBreaker.getQueuedWrites()).isEqualTo(1);
+        assertThat(((RetryBudget) redis.get(RedisKeySpace.BUDGET.getPrefix() + "orders")).getRemainingBudget()).isEqualTo(5);
+
+        faultInjector.clear();
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(circuitBreaker.getQueuedWrites()).isZero();
+        assertThat(repository.getBudget("orders").getRemainingBudget()).isEqualTo(4);
+    }
+
+    @Test
+    void probeKeepsCircuitOpenWhileRedisIsStillDown() {
+        faultInjector.configure(true, 0, 0);
+        repository.getBudget("orders");
+        repository.getBudget("orders");
+
+        circuitBreaker.probe();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    private static RetryBudget budget(String serviceName, int remaining) {
+        return RetryBudget.builder()
+                .serviceName(serviceName)
+                .allocatedBudget(remaining)
+                .usedBudget(0)
+                .remainingBudget(remaining)
+                .healthStatus(ServiceHealthStatus.HEALTHY)
+                .lastCalculated(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(60))
+                .build();
+    }
+}
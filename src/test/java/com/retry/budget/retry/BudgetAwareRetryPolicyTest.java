@@ -0,0 +1,94 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.service.BudgetEnforcementAgent;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BudgetAwareRetryPolicyTest {
+
+    private final BudgetEnforcementAgent agent = mock(BudgetEnforcementAgent.class);
+
+    @Test
+    void reservesOneUnitPerGrantedRetry() {
+        when(agent.reserveRetry("orders", RetryPriority.NORMAL)).thenReturn(RetryDecision.ALLOW);
+        RetryTemplate template = template(3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = template.execute(context -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("boom");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        verify(agent, times(2)).reserveRetry("orders", RetryPriority.NORMAL);
+        verify(agent, never()).releaseRetry(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void stopsAtFirstDenialWithoutReleasing() {
+        when(agent.reserveRetry("orders", RetryPriority.NORMAL))
+                .thenReturn(RetryDecision.ALLOW, RetryDecision.DENY);
+        RetryTemplate template = template(3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> template.execute(context -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts).hasValue(2);
+        verify(agent, times(2)).reserveRetry("orders", RetryPriority.NORMAL);
+        verify(agent, never()).releaseRetry(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void releasesReservationWhenBackOffIsInterrupted() {
+        when(agent.reserveRetry("orders", RetryPriority.NORMAL)).thenReturn(RetryDecision.ALLOW);
+        RetryTemplate template = template(3);
+        template.setBackOffPolicy(new BackOffPolicy() {
+            @Override
+            public BackOffContext start(RetryContext context) {
+                return null;
+            }
+
+            @Override
+            public void backOff(BackOffContext backOffContext) {
+                throw new BackOffInterruptedException("interrupted");
+            }
+        });
+
+        assertThatThrownBy(() -> template.execute(context -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(BackOffInterruptedException.class);
+
+        verify(agent).reserveRetry("orders", RetryPriority.NORMAL);
+        verify(agent).releaseRetry("orders", RetryPriority.NORMAL, 1);
+    }
+
+    private RetryTemplate template(int maxRetries) {
+        RetryTemplate template = new RetryTemplate();
+        template.setRetryPolicy(new BudgetAwareRetryPolicy(agent, "orders", RetryPriority.NORMAL, maxRetries));
+        return template;
+    }
+}
@@ -0,0 +1,42 @@
+package com.retry.budget.retry;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.LatencyStats;
+import com.retry.budget.service.LatencyAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LatencyBackoffTest {
+
+    private final LatencyAnalyzer latencyAnalyzer = mock(LatencyAnalyzer.class);
+    private final LatencyBackoff backoff = new LatencyBackoff(latencyAnalyzer, new RetryBudgetConfig());
+
+    @Test
+    void baseDelayFollowsTheMedianLatencyAboveTheFloor() {
+        when(latencyAnalyzer.analyzeLatency("orders")).thenReturn(LatencyStats.builder().p50(180).build());
+
+        assertThat(backoff.baseDelayMs("orders", 0)).isEqualTo(180);
+        assertThat(backoff.baseDelayMs("orders", 100)).isEqualTo(180);
+        assertThat(backoff.baseDelayMs("orders", 400)).isEqualTo(400);
+    }
+
+    @Test
+    void baseDelayNeverDropsBelowTheConfiguredMinimum() {
+        when(latencyAnalyzer.analyzeLatency("orders")).thenReturn(LatencyStats.builder().p50(3).build());
+
+        assertThat(backoff.baseDelayMs("orders", 0)).isEqualTo(50);
+    }
+
+    @Test
+    void delayGrowsExponentiallyDoublesOnDeferAndIsCapped() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(backoff.delayMs(100, 0, false)).isBetween(50L, 100L);
+            assertThat(backoff.delayMs(100, 2, false)).isBetween(200L, 400L);
+            assertThat(backoff.delayMs(100, 2, true)).isBetween(400L, 800L);
+            assertThat(backoff.delayMs(100, 10, false)).isBetween(1000L, 2000L);
+        }
+    }
+}
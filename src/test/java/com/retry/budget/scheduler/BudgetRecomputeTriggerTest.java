@@ -0,0 +1,63 @@
+package com.retry.budget.scheduler;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.event.HealthThresholdCrossedEvent;
+import com.retry.budget.service.FleetMetricsService;
+import com.retry.budget.service.RetryBudgetControllerService;
+import com.retry.budget.service.ServiceOwnership;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BudgetRecomputeTriggerTest {
+
+    private final RetryBudgetControllerService controllerService = mock(RetryBudgetControllerService.class);
+    private final ServiceOwnership serviceOwnership = mock(ServiceOwnership.class);
+    private BudgetRecomputeTrigger trigger;
+
+    @BeforeEach
+    void setUp() {
+        RetryBudgetConfig config = new RetryBudgetConfig();
+        config.getRecompute().setDebounceMs(0);
+        trigger = new BudgetRecomputeTrigger(controllerService, mock(FleetMetricsService.class),
+                serviceOwnership, config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        trigger.shutdown();
+    }
+
+    @Test
+    void ownerResizesInsteadOfRecalculating() {
+        when(serviceOwnership.isOwner("orders")).thenReturn(true);
+
+        trigger.onThresholdCrossed(crossed("orders"));
+
+        verify(controllerService, timeout(1000)).resizeBudget("orders");
+        verify(controllerService, never()).calculateBudget(anyString());
+    }
+
+    @Test
+    void otherNodesLeaveTheServiceToItsOwner() {
+        when(serviceOwnership.isOwner("orders")).thenReturn(false);
+
+        trigger.onThresholdCrossed(crossed("orders"));
+
+        verify(controllerService, after(200).never()).resizeBudget(anyString());
+    }
+
+    private static HealthThresholdCrossedEvent crossed(String serviceName) {
+        return new HealthThresholdCrossedEvent(serviceName, ServiceHealthStatus.HEALTHY, ServiceHealthStatus.DEGRADED);
+    }
+}
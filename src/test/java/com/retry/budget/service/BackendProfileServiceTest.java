@@ -0,0 +1,89 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.LatencyDistribution;
+import com.retry.budget.model.BackendPhase;
+import com.retry.budget.model.BackendProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackendProfileServiceTest {
+
+    private final BackendProfileService service = new BackendProfileService(new RetryBudgetConfig());
+
+    @Test
+    void drawsLatencyFromTheProfileAndCountsCalls() {
+        service.register(uniform("orders", 0.0).build());
+
+        for (int i = 1; i <= 100; i++) {
+            BackendProfileService.Behavior behavior = service.next("orders");
+            assertThat(behavior.latencyMs()).isBetween(20L, 80L);
+            assertThat(behavior.status()).isEqualTo(200);
+            assertThat(behavior.phase()).isNull();
+            assertThat(behavior.callNumber()).isEqualTo(i);
+        }
+        assertThat(service.getCallCounts()).containsEntry("orders", 100L);
+        assertThat(service.next("unknown")).isNull();
+    }
+
+    @Test
+    void errorRateSetsTheShareOfFailedCalls() {
+        service.register(uniform("orders", 1.0).errorStatus(503).build());
+        assertThat(service.next("orders").status()).isEqualTo(503);
+        assertThat(service.next("orders").failed()).isTrue();
+
+        service.register(uniform("orders", 0.25).build());
+        long failed = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (service.next("orders").failed()) {
+                failed++;
+            }
+        }
+        assertThat(failed / 20_000.0).isBetween(0.23, 0.27);
+    }
+
+    @Test
+    void phasesScaleLatencyOverrideTheErrorRateAndModelOutages() {
+        service.register(uniform("orders", 0.0).phases(List.of(
+                BackendPhase.builder().name("slow").durationSeconds(60).latencyScale(10).errorRate(1.0).build())).build());
+        BackendProfileService.Behavior slow = service.next("orders");
+        assertThat(slow.phase()).isEqualTo("slow");
+        assertThat(slow.latencyMs()).isBetween(200L, 800L);
+        assertThat(slow.failed()).isTrue();
+
+        service.register(uniform("orders", 0.0).phases(List.of(
+                BackendPhase.builder().name("down").durationSeconds(60).outage(true).build())).build());
+        BackendProfileService.Behavior down = service.next("orders");
+        assertThat(down.phase()).isEqualTo("down");
+        assertThat(down.latencyMs()).isZero();
+        assertThat(down.status()).isEqualTo(503);
+    }
+
+    @Test
+    void rejectsInvalidProfiles() {
+        assertThatThrownBy(() -> service.register(uniform("orders", 1.5).build()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("error rates");
+        assertThatThrownBy(() -> service.register(uniform("orders", 0.0).minMs(90).build()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("min-ms");
+        assertThatThrownBy(() -> service.register(BackendProfile.builder().name("orders")
+                .distribution(LatencyDistribution.LOG_NORMAL).build()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("median-ms");
+        assertThatThrownBy(() -> service.register(uniform("orders", 0.0)
+                .phases(List.of(BackendPhase.builder().build())).build()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("duration-seconds");
+        assertThat(service.contains("orders")).isFalse();
+    }
+
+    private static BackendProfile.BackendProfileBuilder uniform(String name, double errorRate) {
+        return BackendProfile.builder()
+                .name(name)
+                .distribution(LatencyDistribution.UNIFORM)
+                .minMs(20)
+                .maxMs(80)
+                .errorRate(errorRate);
+    }
+}
@@ -0,0 +1,159 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.CeilingDecision;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.HedgeBudget;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.RetryCheck;
+import com.retry.budget.repository.InMemoryHedgeBudgetRepository;
+import com.retry.budget.repository.RedisCircuitBreaker;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BudgetEnforcementAgentImplTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final RetryBudgetControllerService controllerService = mock(RetryBudgetControllerService.class);
+    private final BudgetKeyIndex budgetKeyIndex = mock(BudgetKeyIndex.class);
+    private final GlobalRetryCeiling ceiling = mock(GlobalRetryCeiling.class);
+    private final InMemoryHedgeBudgetRepository hedgeBudgetRepository = new InMemoryHedgeBudgetRepository();
+    private BudgetEnforcementAgentImpl agent;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        agent = new BudgetEnforcementAgentImpl(controllerService, mock(RetryBudgetRepository.class),
+                hedgeBudgetRepository, ceiling, mock(RedisCircuitBreaker.class),
+                new BudgetCalculator(config), config, meterRegistry, budgetKeyIndex,
+                new ServiceRegistry(meterRegistry, config), mock(ServiceActivityTracker.class),
+                mock(TrafficCaptureService.class));
+
+        when(budgetKeyIndex.resolve("orders", "/list", null, false)).thenReturn(List.of("orders::/list"));
+        when(ceiling.checkCeiling(anyString())).thenReturn(CeilingDecision.WITHIN_CEILING);
+        when(ceiling.acquire(anyString(), anyInt())).thenReturn(CeilingDecision.WITHIN_CEILING);
+        when(controllerService.getBudget("orders::/list")).thenReturn(budget("orders::/list", 5, ServiceHealthStatus.HEALTHY));
+        when(controllerService.getBudget("orders::~pool")).thenReturn(budget("orders::~pool", 20, ServiceHealthStatus.HEALTHY));
+    }
+
+    @Test
+    void allowsChildOfHealthyService() {
+        when(controllerService.getBudget("orders")).thenReturn(budget("orders", 5, ServiceHealthStatus.HEALTHY));
+
+        assertThat(agent.checkRetryAllowed("orders", "/list", null, RetryPriority.NORMAL))
+                .isEqualTo(RetryDecision.ALLOW);
+    }
+
+    @Test
+    void deniesChildOfCriticalService() {
+        when(controllerService.getBudget("orders")).thenReturn(budget("orders", 0, ServiceHealthStatus.CRITICAL));
+
+        assertThat(agent.checkRetryAllowed("orders", "/list", null, RetryPriority.NORMAL))
+                .isEqualTo(RetryDecision.DENY);
+        assertThat(agent.consumeBudget("orders", "/list", null, RetryPriority.NORMAL)).isFalse();
+    }
+
+    @Test
+    void defersChildOfDegradedService() {
+        when(controllerService.getBudget("orders")).thenReturn(budget("orders", 5, ServiceHealthStatus.DEGRADED));
+
+        assertThat(agent.checkRetryAllowed("orders", "/list", null, RetryPriority.NORMAL))
+                .isEqualTo(RetryDecision.DEFER);
+    }
+
+    @Test
+    void hierarchicalCheckResolvesOnceAndReportsTheDecidingBudget() {
+        when(controllerService.getBudget("orders")).thenReturn(budget("orders", 0, ServiceHealthStatus.CRITICAL));
+
+        RetryCheck check = agent.check("orders", "/list", null, RetryPriority.NORMAL);
+
+        assertThat(check.decision()).isEqualTo(RetryDecision.DENY);
+        assertThat(check.budget().getServiceName()).isEqualTo("orders");
+        verify(budgetKeyIndex, times(1)).resolve("orders", "/list", null, false);
+    }
+
+    @Test
+    void concurrentHedgesSpendEachHedgeExactlyOnce() throws Exception {
+        hedgeBudgetRepository.saveHedgeBudget(hedgeBudget(8_000, ServiceHealthStatus.HEALTHY));
+        when(controllerService.getHedgeBudget("orders")).thenAnswer(call -> hedgeBudgetRepository.getHedgeBudget("orders"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_200; i++) {
+                    agent.consumeHedge("orders");
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        HedgeBudget spent = hedgeBudgetRepository.getHedgeBudget("orders");
+        assertThat(spent.getUsedHedges()).isEqualTo(8_000);
+        assertThat(spent.getRemainingHedges()).isZero();
+        assertThat(agent.checkHedgeAllowed("orders")).isEqualTo(RetryDecision.DENY);
+    }
+
+    @Test
+    void hedgesAreAllowedUntilSpentAndNeverForCriticalServices() {
+        hedgeBudgetRepository.saveHedgeBudget(hedgeBudget(1, ServiceHealthStatus.HEALTHY));
+        when(controllerService.getHedgeBudget("orders")).thenAnswer(call -> hedgeBudgetRepository.getHedgeBudget("orders"));
+
+        assertThat(agent.checkHedgeAllowed("orders")).isEqualTo(RetryDecision.ALLOW);
+        agent.consumeHedge("orders");
+        assertThat(agent.checkHedgeAllowed("orders")).isEqualTo(RetryDecision.DENY);
+
+        hedgeBudgetRepository.saveHedgeBudget(hedgeBudget(5, ServiceHealthStatus.CRITICAL));
+        assertThat(agent.checkHedgeAllowed("orders")).isEqualTo(RetryDecision.DENY);
+    }
+
+    private static HedgeBudget hedgeBudget(int hedges, ServiceHealthStatus health) {
+        return HedgeBudget.builder()
+                .serviceName("orders")
+                .hedgeDelayMs(50)
+                .allocatedHedges(hedges)
+                .usedHedges(0)
+                .remainingHedges(hedges)
+                .healthStatus(health)
+                .lastCalculated(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(60))
+                .build();
+    }
+
+    private static RetryBudget budget(String key, int remaining, ServiceHealthStatus health) {
+        return RetryBudget.builder()
+                .serviceName(key)
+                .allocatedBudget(remaining)
+                .usedBudget(0)
+                .remainingBudget(remaining)
+                .healthStatus(health)
+                .lastCalculated(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusSeconds(60))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.AdmissionDecision;
+import com.retry.budget.enums.LimitAlgorithm;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterImplTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final ConcurrencyLimiterImpl limiter = new ConcurrencyLimiterImpl(config, new SimpleMeterRegistry(),
+            new ServiceRegistry(new SimpleMeterRegistry(), config));
+
+    @Test
+    void gradientGrowsWhileTheLimitIsExercisedAndLatencyHolds() {
+        acquire(15);
+
+        samples(10, 10, true);
+
+        assertThat(limiter.getLimit("orders").getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void gradientHoldsAnIdleLimit() {
+        samples(10, 10, true);
+
+        assertThat(limiter.getLimit("orders").getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyRisesAboveTheBaseline() {
+        acquire(15);
+        samples(1, 10, true);
+
+        samples(50, 200, true);
+
+        assertThat(limiter.getLimit("orders").getLimit()).isLessThan(10);
+    }
+
+    @Test
+    void shrinkingStopsAtTheMinimumLimit() {
+        config.getConcurrency().setMinLimit(8);
+        samples(1, 10, true);
+
+        samples(100, 500, true);
+
+        assertThat(limiter.getLimit("orders").getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void vegasGrowsWithoutQueueingAndShrinksOnQueueingOrFailure() {
+        config.getConcurrency().setAlgorithm(LimitAlgorithm.VEGAS);
+
+        samples(10, 10, true);
+        int grown = limiter.getLimit("orders").getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        samples(20, 100, true);
+        int queued = limiter.getLimit("orders").getLimit();
+        assertThat(queued).isLessThan(grown);
+
+        samples(5, 10, false);
+        assertThat(limiter.getLimit("orders").getLimit()).isLessThan(queued);
+    }
+
+    @Test
+    void rejectsOnceInFlightReachesTheLimit() {
+        limiter.restoreLimit("orders", 2, 0);
+
+        assertThat(limiter.tryAcquire("orders")).isEqualTo(AdmissionDecision.ADMIT);
+        assertThat(limiter.tryAcquire("orders")).isEqualTo(AdmissionDecision.ADMIT);
+        assertThat(limiter.tryAcquire("orders")).isEqualTo(AdmissionDecision.REJECT);
+
+        limiter.release("orders");
+        assertThat(limiter.tryAcquire("orders")).isEqualTo(AdmissionDecision.ADMIT);
+        assertThat(limiter.getLimit("orders").getRejectedRequests()).isEqualTo(1);
+    }
+
+    private void acquire(int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limiter.tryAcquire("orders")).isEqualTo(AdmissionDecision.ADMIT);
+        }
+    }
+
+    private void samples(int count, long latencyMs, boolean success) {
+        for (int i = 0; i < count; i++) {
+            limiter.onSample("orders", latencyMs, success);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.model.FleetMetrics;
+import com.retry.budget.repository.InMemoryNodeSketchRepository;
+import com.retry.budget.repository.InMemoryRetryBudgetRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FleetMetricsServiceTest {
+
+    private final InMemoryNodeSketchRepository sketches = new InMemoryNodeSketchRepository();
+
+    @Test
+    void mergesEveryNodesSketchIntoOneView() {
+        FleetMetricsService nodeA = node("node-a");
+        FleetMetricsService nodeB = node("node-b");
+
+        record(nodeA, 100, 10, 20);
+        record(nodeB, 100, 0, 80);
+        nodeA.refresh("orders");
+        FleetMetrics fleet = nodeB.refresh("orders");
+
+        assertThat(fleet.getNodes()).isEqualTo(2);
+        assertThat(fleet.getTotalRequests()).isEqualTo(200);
+        assertThat(fleet.getFailedRequests()).isEqualTo(10);
+        assertThat(fleet.getLatencyStats().getMin()).isEqualTo(20);
+        assertThat(fleet.getLatencyStats().getMax()).isEqualTo(80);
+    }
+
+    @Test
+    void reportsErrorRateInPercentLikeTheThresholds() {
+        FleetMetricsService node = node("node-a");
+
+        record(node, 200, 20, 50);
+        FleetMetrics fleet = node.refresh("orders");
+
+        assertThat(fleet.getErrorRate()).isCloseTo(10.0, within(1e-9));
+    }
+
+    private FleetMetricsService node(String nodeId) {
+        RetryBudgetConfig config = new RetryBudgetConfig();
+        config.getCluster().setNodeId(nodeId);
+        return new FleetMetricsService(sketches, new InMemoryRetryBudgetRepository(), new NodeIdentity(config),
+                config, new SimpleMeterRegistry(), new BudgetCalculator(config),
+                new ServiceRegistry(new SimpleMeterRegistry(), config));
+    }
+
+    private static void record(FleetMetricsService node, int requests, int serverErrors, long latencyMs) {
+        for (int i = 0; i < requests; i++) {
+            node.recordRequest("orders", latencyMs, i < serverErrors ? RequestOutcome.SERVER_ERROR : RequestOutcome.SUCCESS);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrendForecasterTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final LatencyTrendForecaster forecaster = new LatencyTrendForecaster(config);
+    private final double warning = config.getErrorRateThresholds().getWarningPercent();
+    private final double critical = config.getErrorRateThresholds().getCriticalPercent();
+    private long nowMs = 1_000_000L;
+
+    @Test
+    void steadyErrorsBelowWarningNeverCross() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(observe("orders", 1.0)).isFalse();
+        }
+    }
+
+    @Test
+    void errorBandsFollowTheWarningAndCriticalThresholds() {
+        assertThat(observe("below-warning", warning - 0.1)).isFalse();
+        assertThat(observe("at-warning", warning)).isTrue();
+
+        assertThat(observe("degraded", critical - 0.1)).isTrue();
+        assertThat(observe("degraded", critical)).isTrue();
+    }
+
+    private boolean observe(String serviceName, double errorRate) {
+        nowMs += config.getForecast().getSampleIntervalMs();
+        return forecaster.observe(serviceName, 100, errorRate, nowMs);
+    }
+}
@@ -0,0 +1,67 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.model.LoadTestReport;
+import com.retry.budget.model.ServiceLoadReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadGeneratorServiceTest {
+
+    private static final long BACKEND_MS = 50;
+
+    private final DemoClientService demoClientService = mock(DemoClientService.class);
+    private final LoadGeneratorService loadGenerator = new LoadGeneratorService(demoClientService, new RetryBudgetConfig());
+
+    @Test
+    void latencyIsMeasuredFromTheScheduledStartWhenRequestsAreHeldBack() throws Exception {
+        when(demoClientService.makeRequestAsync(anyString(), anyString())).thenAnswer(invocation -> slowResponse());
+
+        // 100 req/s against one permit and a 50ms backend: each send falls further behind its schedule
+        LoadTestReport report = loadGenerator.run(List.of("orders"), 100, 1, 1).get(10, TimeUnit.SECONDS);
+        ServiceLoadReport orders = report.getServices().get("orders");
+
+        assertThat(orders.getScheduled()).isEqualTo(100);
+        assertThat(orders.getSent() + orders.getUnsent()).isEqualTo(orders.getScheduled());
+        assertThat(orders.getCompleted()).isEqualTo(orders.getSent());
+        assertThat(orders.getUnsent()).isPositive();
+
+        assertThat(orders.getServiceTime().getMax()).isLessThan(400);
+        assertThat(orders.getLatency().getMax()).isGreaterThan(400);
+        assertThat(orders.getLatency().getP50()).isGreaterThan(orders.getServiceTime().getP50());
+        assertThat(orders.getMaxSendLagMs()).isGreaterThan(300);
+    }
+
+    @Test
+    void rejectsInvalidParametersAndOverlappingRuns() throws Exception {
+        assertThatThrownBy(() -> loadGenerator.run(List.of("orders"), 0, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadGenerator.run(List.of("orders"), 10, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> loadGenerator.run(List.of("orders"), 10, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(demoClientService.makeRequestAsync(anyString(), anyString())).thenAnswer(invocation -> slowResponse());
+        CompletableFuture<LoadTestReport> first = loadGenerator.run(List.of("orders"), 10, 1, 1);
+        assertThatThrownBy(() -> loadGenerator.run(List.of("orders"), 10, 1, 1))
+                .isInstanceOf(IllegalStateException.class);
+
+        first.get(10, TimeUnit.SECONDS);
+        loadGenerator.run(List.of("orders"), 10, 1, 1).get(10, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<DemoClientService.RequestResult> slowResponse() {
+        return CompletableFuture.supplyAsync(
+                () -> new DemoClientService.RequestResult(true, "ok", 0, BACKEND_MS, "ALLOW", List.of()),
+                CompletableFuture.delayedExecutor(BACKEND_MS, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,131 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.event.HealthThresholdCrossedEvent;
+import com.retry.budget.repository.InMemoryMetricsRepository;
+import com.retry.budget.repository.InMemoryNodeSketchRepository;
+import com.retry.budget.repository.InMemoryRetryBudgetRepository;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.ReactiveMetricsRepository;
+import com.retry.budget.util.BudgetCalculator;
+import com.retry.budget.util.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MetricsAggregatorImplTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final ServiceRegistry serviceRegistry = new ServiceRegistry(new SimpleMeterRegistry(), config);
+    private final TrafficCaptureService trafficCapture = mock(TrafficCaptureService.class);
+    private final BudgetKeyIndex budgetKeyIndex = mock(BudgetKeyIndex.class);
+    private final ConcurrencyLimiter concurrencyLimiter = mock(ConcurrencyLimiter.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final MetricsRepository metricsRepository = new InMemoryMetricsRepository();
+    private LocalMetricsAggregator local;
+
+    @Test
+    void capturesAHierarchicalSampleOnceUnderTheService() {
+        when(budgetKeyIndex.resolve("orders", "/list", "acme", true))
+                .thenReturn(List.of("orders::/list", "orders::/list::acme"));
+        MetricsAggregatorImpl aggregator = aggregator();
+
+        aggregator.recordRequest("orders", "/list", "acme", 25, RequestOutcome.SUCCESS);
+
+        verify(trafficCapture).recordRequest("orders", 25, RequestOutcome.SUCCESS);
+        verify(trafficCapture, times(1)).recordRequest(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void limiterAndThresholdSeeTheSampleBeforeAnyFlush() {
+        MetricsAggregatorImpl aggregator = aggregator();
+        for (int i = 0; i < 50; i++) {
+            aggregator.recordRequest("orders", 20, RequestOutcome.SUCCESS);
+        }
+        verify(eventPublisher, never()).publishEvent(any(HealthThresholdCrossedEvent.class));
+
+        aggregator.recordRequest("orders", 2_000, RequestOutcome.SUCCESS);
+
+        verify(concurrencyLimiter).onSample("orders", 2_000, true);
+        verify(eventPublisher).publishEvent(new HealthThresholdCrossedEvent("orders",
+                ServiceHealthStatus.HEALTHY, ServiceHealthStatus.CRITICAL));
+        assertThat(metricsRepository.getMetrics("orders")).isNull();
+    }
+
+    @Test
+    void burstBeyondTheBufferIsWrittenNotDropped() {
+        MetricsAggregatorImpl aggregator = aggregator();
+
+        for (int i = 0; i < 10_000; i++) {
+            aggregator.recordRequest("orders", 20, RequestOutcome.SUCCESS);
+        }
+        local.flush();
+
+        assertThat(metricsRepository.getMetrics("orders").getTotalRequests()).isEqualTo(10_000);
+    }
+
+    @Test
+    void concurrentFlushesAddUpInsteadOfOverwriting() throws Exception {
+        MetricsAggregatorImpl nodeA = aggregator();
+        MetricsAggregatorImpl nodeB = aggregator();
+        long[] latencies = new long[100];
+        Arrays.fill(latencies, 20);
+        RequestOutcome[] outcomes = new RequestOutcome[100];
+        Arrays.fill(outcomes, RequestOutcome.SUCCESS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 4; thread++) {
+            MetricsAggregatorImpl node = thread % 2 == 0 ? nodeA : nodeB;
+            executor.submit(() -> {
+                start.await();
+                for (int batch = 0; batch < 50; batch++) {
+                    node.recordRequests("orders", latencies, outcomes, latencies.length);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(metricsRepository.getMetrics("orders").getTotalRequests()).isEqualTo(4 * 50 * 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MetricsAggregatorImpl aggregator() {
+        FleetMetricsService fleetMetricsService = new FleetMetricsService(new InMemoryNodeSketchRepository(),
+                new InMemoryRetryBudgetRepository(), new NodeIdentity(config), config, new SimpleMeterRegistry(),
+                new BudgetCalculator(config), serviceRegistry);
+        ObjectProvider<LocalMetricsAggregator> provider = mock(ObjectProvider.class);
+        MetricsAggregatorImpl aggregator = new MetricsAggregatorImpl(metricsRepository,
+                mock(ReactiveMetricsRepository.class), config,
+                mock(LatencyAnalyzer.class), concurrencyLimiter, fleetMetricsService,
+                new BudgetCalculator(config), eventPublisher, new LatencyTrendForecaster(config),
+                budgetKeyIndex, serviceRegistry, mock(ServiceActivityTracker.class), provider);
+        local = new LocalMetricsAggregator(aggregator, serviceRegistry, trafficCapture);
+        when(provider.getObject()).thenReturn(local);
+        return aggregator;
+    }
+}
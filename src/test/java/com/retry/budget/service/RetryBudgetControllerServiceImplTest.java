@@ -0,0 +1,112 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.FleetMetrics;
+import com.retry.budget.model.HedgeBudget;
+import com.retry.budget.model.LatencyStats;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.repository.HedgeBudgetRepository;
+import com.retry.budget.repository.InMemoryRetryBudgetRepository;
+import com.retry.budget.repository.ReactiveRetryBudgetRepository;
+import com.retry.budget.util.BudgetCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RetryBudgetControllerServiceImplTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final InMemoryRetryBudgetRepository budgetRepository = new InMemoryRetryBudgetRepository();
+    private final FleetMetricsService fleetMetricsService = mock(FleetMetricsService.class);
+    private RetryBudgetControllerServiceImpl controllerService;
+
+    @BeforeEach
+    void setUp() {
+        config.setBaseBudget(20);
+        controllerService = new RetryBudgetControllerServiceImpl(mock(MetricsAggregator.class),
+                mock(LatencyAnalyzer.class), new BudgetCalculator(config), budgetRepository,
+                mock(ReactiveRetryBudgetRepository.class), mock(HedgeBudgetRepository.class), config,
+                fleetMetricsService, mock(ServiceOwnership.class), new LatencyTrendForecaster(config),
+                mock(ServiceActivityTracker.class));
+
+        // p95 halfway between the healthy and degraded thresholds halves the base budget
+        when(fleetMetricsService.getFleetMetrics("orders")).thenReturn(FleetMetrics.builder()
+                .serviceName("orders")
+                .totalRequests(200)
+                .latencyStats(LatencyStats.builder().min(20).p50(100).p95(250).p99(300).max(400).sampleSize(200).build())
+                .build());
+    }
+
+    @Test
+    void resizeKeepsTheSpentShareAndTheExpiry() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(30);
+        budgetRepository.saveBudget(budget(20, 10, expiresAt));
+
+        RetryBudget resized = controllerService.resizeBudget("orders");
+
+        assertThat(resized.getAllocatedBudget()).isEqualTo(10);
+        assertThat(resized.getUsedBudget()).isEqualTo(5);
+        assertThat(resized.getRemainingBudget()).isEqualTo(5);
+        assertThat(resized.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(budgetRepository.getBudget("orders").getRemainingBudget()).isEqualTo(5);
+    }
+
+    @Test
+    void flappingNeverRefillsTheBudget() {
+        budgetRepository.saveBudget(budget(10, 10, LocalDateTime.now().plusSeconds(30)));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(controllerService.resizeBudget("orders").getRemainingBudget()).isZero();
+        }
+    }
+
+    @Test
+    void resizeOfAnExpiredBudgetStartsAFreshInterval() {
+        budgetRepository.saveBudget(budget(20, 20, LocalDateTime.now().minusSeconds(1)));
+
+        RetryBudget resized = controllerService.resizeBudget("orders");
+
+        assertThat(resized.getUsedBudget()).isZero();
+        assertThat(resized.getRemainingBudget()).isEqualTo(10);
+        assertThat(resized.getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void hedgeBudgetIsAShareOfTheSampleDelayedToTheConfiguredPercentile() {
+        HedgeBudget hedges = controllerService.calculateHedgeBudget("orders");
+
+        assertThat(hedges.getAllocatedHedges()).isEqualTo(20);
+        assertThat(hedges.getRemainingHedges()).isEqualTo(20);
+        assertThat(hedges.getHedgeDelayMs()).isEqualTo(250);
+        assertThat(hedges.getHealthStatus()).isEqualTo(ServiceHealthStatus.HEALTHY);
+    }
+
+    @Test
+    void criticalServiceGetsNoHedges() {
+        when(fleetMetricsService.getFleetMetrics("orders")).thenReturn(FleetMetrics.builder()
+                .serviceName("orders")
+                .totalRequests(200)
+                .latencyStats(LatencyStats.builder().p50(400).p95(900).p99(1_500).sampleSize(200).build())
+                .build());
+
+        assertThat(controllerService.calculateHedgeBudget("orders").getAllocatedHedges()).isZero();
+    }
+
+    private static RetryBudget budget(int allocated, int used, LocalDateTime expiresAt) {
+        return RetryBudget.builder()
+                .serviceName("orders")
+                .allocatedBudget(allocated)
+                .usedBudget(used)
+                .remainingBudget(allocated - used)
+                .healthStatus(ServiceHealthStatus.HEALTHY)
+                .lastCalculated(expiresAt.minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.NodeIdentity;
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.repository.InMemoryMembershipRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceOwnershipTest {
+
+    private final InMemoryMembershipRepository membership = new InMemoryMembershipRepository();
+
+    @Test
+    void everyServiceHasExactlyOneOwner() {
+        ServiceOwnership a = node("a");
+        ServiceOwnership b = node("b");
+        a.heartbeat();
+        b.heartbeat();
+        a.heartbeat();
+
+        assertThat(a.getMembers()).containsExactlyInAnyOrder("a", "b");
+        assertThat(b.getMembers()).containsExactlyInAnyOrder("a", "b");
+        for (int i = 0; i < 1000; i++) {
+            String service = "service-" + i;
+            assertThat(a.isOwner(service)).isNotEqualTo(b.isOwner(service));
+            assertThat(a.ownerOf(service)).isEqualTo(b.ownerOf(service));
+        }
+    }
+
+    @Test
+    void survivorTakesOverAfterLeave() {
+        ServiceOwnership a = node("a");
+        ServiceOwnership b = node("b");
+        a.heartbeat();
+        b.heartbeat();
+        a.heartbeat();
+
+        b.leave();
+        a.heartbeat();
+
+        assertThat(a.getMembers()).containsExactly("a");
+        for (int i = 0; i < 1000; i++) {
+            assertThat(a.isOwner("service-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void membershipDropsNodesPastTheirTtl() {
+        membership.heartbeat("a", 1_000);
+        membership.heartbeat("b", 5_000);
+
+        assertThat(membership.getLiveNodes(8_000, 6_000)).containsExactly("b");
+        assertThat(membership.getLiveNodes(20_000, 6_000)).isEmpty();
+    }
+
+    @Test
+    void ownsEverythingWhenOwnershipIsDisabled() {
+        RetryBudgetConfig config = config("a");
+        config.getCluster().setOwnershipEnabled(false);
+        ServiceOwnership a = new ServiceOwnership(membership, new NodeIdentity(config), config, new SimpleMeterRegistry());
+        membership.heartbeat("b", System.currentTimeMillis());
+        a.heartbeat();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(a.isOwner("service-" + i)).isTrue();
+        }
+    }
+
+    private ServiceOwnership node(String nodeId) {
+        RetryBudgetConfig config = config(nodeId);
+        return new ServiceOwnership(membership, new NodeIdentity(config), config, new SimpleMeterRegistry());
+    }
+
+    private static RetryBudgetConfig config(String nodeId) {
+        RetryBudgetConfig config = new RetryBudgetConfig();
+        config.getCluster().setNodeId(nodeId);
+        return config;
+    }
+}
@@ -0,0 +1,67 @@
+package com.retry.budget.service;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.ForecastState;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.ServiceStateSnapshot;
+import com.retry.budget.repository.MetricsRepository;
+import com.retry.budget.repository.RetryBudgetRepository;
+import com.retry.budget.util.StateSnapshotFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class StateSnapshotServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoredBudgetsStartAFreshIntervalWithTheirUsage() throws Exception {
+        RetryBudgetConfig config = new RetryBudgetConfig();
+        config.getSnapshot().setPath(directory.resolve("state.snapshot").toString());
+        RetryBudgetRepository budgetRepository = mock(RetryBudgetRepository.class);
+        LatencyTrendForecaster forecaster = new LatencyTrendForecaster(config);
+        StateSnapshotService service = new StateSnapshotService(budgetRepository, mock(MetricsRepository.class),
+                mock(ConcurrencyLimiter.class), forecaster, config, new SimpleMeterRegistry());
+
+        LocalDateTime longAgo = LocalDateTime.now().minusMinutes(5);
+        RetryBudget saved = RetryBudget.builder()
+                .serviceName("orders")
+                .allocatedBudget(10)
+                .usedBudget(4)
+                .remainingBudget(6)
+                .healthStatus(ServiceHealthStatus.HEALTHY)
+                .lastCalculated(longAgo)
+                .expiresAt(longAgo.plusSeconds(10))
+                .build();
+        ForecastState trend = ForecastState.builder()
+                .serviceName("orders")
+                .p95Level(400)
+                .p95TrendPerSecond(50)
+                .lastUpdateMs(System.currentTimeMillis())
+                .samples(5)
+                .build();
+        StateSnapshotFile.write(Path.of(config.getSnapshot().getPath()), System.currentTimeMillis(),
+                List.of(ServiceStateSnapshot.builder().serviceName("orders").budget(saved).forecast(trend).build()));
+
+        assertThat(service.restore()).isEqualTo(1);
+
+        ArgumentCaptor<RetryBudget> restored = ArgumentCaptor.forClass(RetryBudget.class);
+        verify(budgetRepository).restoreBudget(restored.capture());
+        assertThat(restored.getValue().getRemainingBudget()).isEqualTo(6);
+        assertThat(restored.getValue().canRetry()).isTrue();
+        assertThat(restored.getValue().getExpiresAt()).isAfter(LocalDateTime.now());
+        assertThat(forecaster.forecastP95("orders", 400)).isGreaterThan(400);
+    }
+}
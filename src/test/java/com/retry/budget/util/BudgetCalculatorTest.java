@@ -0,0 +1,55 @@
+package com.retry.budget.util;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryPriority;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BudgetCalculatorTest {
+
+    private final RetryBudgetConfig config = new RetryBudgetConfig();
+    private final BudgetCalculator calculator = new BudgetCalculator(config);
+
+    @Test
+    void weightsRetryableFailures() {
+        long[] counts = counts(80, RequestOutcome.SERVER_ERROR, 10, RequestOutcome.THROTTLED, 10);
+
+        assertThat(calculator.calculateErrorRate(100, counts)).isCloseTo(15.0, within(1e-9));
+    }
+
+    @Test
+    void clientErrorsDoNotDiluteTheErrorRate() {
+        long[] withoutClientErrors = counts(90, RequestOutcome.SERVER_ERROR, 10, RequestOutcome.CLIENT_ERROR, 0);
+        long[] withClientErrors = counts(90, RequestOutcome.SERVER_ERROR, 10, RequestOutcome.CLIENT_ERROR, 900);
+
+        assertThat(calculator.calculateErrorRate(100, withoutClientErrors)).isCloseTo(10.0, within(1e-9));
+        assertThat(calculator.calculateErrorRate(1000, withClientErrors)).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void onlyClientErrorsMeansNoErrorRate() {
+        assertThat(calculator.calculateErrorRate(50, counts(0, RequestOutcome.CLIENT_ERROR, 50, RequestOutcome.TIMEOUT, 0)))
+                .isZero();
+    }
+
+    @Test
+    void reservesNothingUntilEnabled() {
+        assertThat(calculator.calculateReservedBudget(2, RetryPriority.BEST_EFFORT)).isZero();
+
+        config.getPriority().setReserveEnabled(true);
+        assertThat(calculator.calculateReservedBudget(10, RetryPriority.NORMAL)).isEqualTo(5);
+        assertThat(calculator.calculateReservedBudget(1, RetryPriority.NORMAL)).isZero();
+    }
+
+    private static long[] counts(long successes, RequestOutcome first, long firstCount,
+                                 RequestOutcome second, long secondCount) {
+        long[] counts = new long[RequestOutcome.count()];
+        counts[RequestOutcome.SUCCESS.ordinal()] = successes;
+        counts[first.ordinal()] += firstCount;
+        counts[second.ordinal()] += secondCount;
+        return counts;
+    }
+}
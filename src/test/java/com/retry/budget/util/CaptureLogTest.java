@@ -0,0 +1,143 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.CaptureEventType;
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.RetryDecision;
+import com.retry.budget.enums.RetryPriority;
+import com.retry.budget.model.CaptureEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaptureLogTest {
+
+    private static final int SEGMENT_BYTES = CaptureFormat.HEADER_BYTES + 64 * CaptureFormat.RECORD_BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryEventType() throws Exception {
+        String longName = "checkout-service-with-a-name-longer-than-one-chunk";
+        try (CaptureLogWriter writer = new CaptureLogWriter(directory, SEGMENT_BYTES, 4)) {
+            writer.append(CaptureEventType.REQUEST.getCode(), (byte) RequestOutcome.TIMEOUT.ordinal(),
+                    CaptureFormat.NO_PRIORITY, "orders", 1_000L, 250);
+            writer.append(CaptureEventType.RETRY.getCode(), (byte) 0, CaptureFormat.NO_PRIORITY, longName, 1_001L, 3);
+            writer.append(CaptureEventType.DECISION.getCode(), (byte) RetryDecision.DEFER.ordinal(),
+                    (byte) RetryPriority.HIGH.ordinal(), "orders", 1_002L, 0);
+        }
+
+        List<CaptureEvent> events = readAll();
+
+        assertThat(events).containsExactly(
+                new CaptureEvent(CaptureEventType.REQUEST, 1_000L, "orders", 250, RequestOutcome.TIMEOUT, null, null),
+                new CaptureEvent(CaptureEventType.RETRY, 1_001L, longName, 3, null, null, null),
+                new CaptureEvent(CaptureEventType.DECISION, 1_002L, "orders", 0, null, RetryDecision.DEFER,
+                        RetryPriority.HIGH));
+    }
+
+    @Test
+    void rollsSegmentsRedefinesNamesAndKeepsOnlyTheNewest() throws Exception {
+        try (CaptureLogWriter writer = new CaptureLogWriter(directory, SEGMENT_BYTES, 2)) {
+            for (int i = 0; i < 200; i++) {
+                writer.append(CaptureEventType.REQUEST.getCode(), (byte) RequestOutcome.SUCCESS.ordinal(),
+                        CaptureFormat.NO_PRIORITY, "orders", i, i);
+            }
+        }
+
+        List<Path> segments = CaptureLogReader.segments(directory);
+        assertThat(segments).hasSize(2);
+        assertThat(CaptureFormat.sequenceOf(segments.get(1).getFileName().toString()))
+                .isEqualTo(CaptureFormat.sequenceOf(segments.get(0).getFileName().toString()) + 1);
+
+        // Each segment defines its own names, so the newest one reads on its own
+        List<CaptureEvent> newest = new ArrayList<>();
+        CaptureLogReader.read(segments.get(1), newest::add);
+        assertThat(newest).isNotEmpty().allSatisfy(event -> assertThat(event.serviceName()).isEqualTo("orders"));
+        assertThat(newest.get(newest.size() - 1).value()).isEqualTo(199);
+    }
+
+    @Test
+    void newWriterContinuesTheSequence() throws Exception {
+        new CaptureLogWriter(directory, SEGMENT_BYTES, 4).close();
+        new CaptureLogWriter(directory, SEGMENT_BYTES, 4).close();
+
+        assertThat(CaptureLogReader.segments(directory)).extracting(path -> path.getFileName().toString())
+                .containsExactly(CaptureFormat.segmentName(1), CaptureFormat.segmentName(2));
+    }
+
+    @Test
+    void readingStopsAtTheFirstUnwrittenRecord() throws Exception {
+        Path segment = writeOneRequest();
+        // A record whose type byte is not yet stored counts as not written
+        patch(segment, CaptureFormat.HEADER_BYTES + 2 * CaptureFormat.RECORD_BYTES + CaptureFormat.VALUE, 8);
+
+        assertThat(CaptureLogReader.read(segment, event -> { })).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsBadMagicVersionAndRecordType() throws Exception {
+        Path segment = writeOneRequest();
+
+        patch(segment, CaptureFormat.HEADER_BYTES + CaptureFormat.RECORD_BYTES, (byte) 99);
+        assertThatThrownBy(() -> CaptureLogReader.read(segment, event -> { }))
+                .isInstanceOf(IOException.class).hasMessageContaining("Unknown record type 99");
+
+        patch(segment, 5, (byte) (CaptureFormat.VERSION + 1));
+        assertThatThrownBy(() -> CaptureLogReader.read(segment, event -> { }))
+                .isInstanceOf(IOException.class).hasMessageContaining("Unsupported capture segment version");
+
+        patch(segment, 0, (byte) 0);
+        assertThatThrownBy(() -> CaptureLogReader.read(segment, event -> { }))
+                .isInstanceOf(IOException.class).hasMessageContaining("Not a capture segment");
+    }
+
+    @Test
+    void rejectsATruncatedHeader() throws Exception {
+        Path segment = directory.resolve(CaptureFormat.segmentName(1));
+        Files.write(segment, new byte[CaptureFormat.HEADER_BYTES - 1]);
+
+        assertThatThrownBy(() -> CaptureLogReader.read(segment, event -> { })).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void segmentNamesRoundTripAndOtherFilesAreIgnored() throws Exception {
+        assertThat(CaptureFormat.sequenceOf(CaptureFormat.segmentName(42))).isEqualTo(42);
+        assertThat(CaptureFormat.sequenceOf("capture-abc.seg")).isEqualTo(-1);
+        assertThat(CaptureFormat.sequenceOf("notes.txt")).isEqualTo(-1);
+
+        Files.writeString(directory.resolve("notes.txt"), "not a segment");
+        assertThat(CaptureLogReader.readAll(directory, event -> { })).isZero();
+    }
+
+    private Path writeOneRequest() throws IOException {
+        try (CaptureLogWriter writer = new CaptureLogWriter(directory, SEGMENT_BYTES, 4)) {
+            writer.append(CaptureEventType.REQUEST.getCode(), (byte) RequestOutcome.SUCCESS.ordinal(),
+                    CaptureFormat.NO_PRIORITY, "orders", 1_000L, 25);
+        }
+        return CaptureLogReader.segments(directory).get(0);
+    }
+
+    private static void patch(Path segment, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) value}), offset);
+        }
+    }
+
+    private List<CaptureEvent> readAll() throws IOException {
+        List<CaptureEvent> events = new ArrayList<>();
+        CaptureLogReader.readAll(directory, events::add);
+        return events;
+    }
+}
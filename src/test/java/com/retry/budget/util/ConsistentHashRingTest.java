@@ -0,0 +1,76 @@
+package com.retry.budget.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new ConsistentHashRing(List.of(), 64).ownerOf("orders")).isNull();
+    }
+
+    @Test
+    void ownershipDependsOnlyOnMembership() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "service-" + i;
+            assertThat(ring.getNodes()).contains(ring.ownerOf(key));
+            assertThat(reordered.ownerOf(key)).isEqualTo(ring.ownerOf(key));
+        }
+    }
+
+    @Test
+    void spreadsKeysAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+        Map<String, Integer> owned = new HashMap<>();
+
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.ownerOf("service-" + i), 1, Integer::sum);
+        }
+
+        assertThat(owned).hasSize(4);
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 8, KEYS / 2));
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+        int moved = 0;
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "service-" + i;
+            if (!after.ownerOf(key).equals(before.ownerOf(key))) {
+                assertThat(after.ownerOf(key)).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(KEYS / 8, KEYS / 2);
+    }
+
+    @Test
+    void removingNodeOnlyMovesItsKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), 64);
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "service-" + i;
+            if (!before.ownerOf(key).equals("b")) {
+                assertThat(after.ownerOf(key)).isEqualTo(before.ownerOf(key));
+            } else {
+                assertThat(after.ownerOf(key)).isIn("a", "c");
+            }
+        }
+    }
+}
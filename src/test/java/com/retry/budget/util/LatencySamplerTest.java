@@ -0,0 +1,101 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.LatencyDistribution;
+import com.retry.budget.model.BackendProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencySamplerTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    void uniformStaysWithinItsBoundsAndCentresOnTheirMean() {
+        double[] latencies = sample(BackendProfile.builder()
+                .distribution(LatencyDistribution.UNIFORM).minMs(20).maxMs(80).build(), false);
+
+        assertThat(Arrays.stream(latencies).min().orElseThrow()).isGreaterThanOrEqualTo(20);
+        assertThat(Arrays.stream(latencies).max().orElseThrow()).isLessThanOrEqualTo(80);
+        assertThat(Arrays.stream(latencies).average().orElseThrow()).isCloseTo(50, within(1.0));
+    }
+
+    @Test
+    void logNormalCentresOnItsMedian() {
+        double[] latencies = sample(BackendProfile.builder()
+                .distribution(LatencyDistribution.LOG_NORMAL).medianMs(40).sigma(0.5).build(), false);
+
+        assertThat(percentile(latencies, 50)).isCloseTo(40, within(2.0));
+        // exp(0.5 * 2.326) ~ 3.2x the median at p99
+        assertThat(percentile(latencies, 99)).isCloseTo(128, within(12.0));
+    }
+
+    @Test
+    void paretoStartsAtItsScaleWithAHeavyTail() {
+        double[] latencies = sample(BackendProfile.builder()
+                .distribution(LatencyDistribution.PARETO).scaleMs(10).shape(2).build(), false);
+
+        assertThat(Arrays.stream(latencies).min().orElseThrow()).isGreaterThanOrEqualTo(10);
+        // Quantile q sits at scale / (1 - q)^(1 / shape)
+        assertThat(percentile(latencies, 50)).isCloseTo(14.1, within(0.7));
+        assertThat(percentile(latencies, 99)).isCloseTo(100, within(15.0));
+    }
+
+    @Test
+    void bimodalPutsTheSlowProbabilityInTheSlowMode() {
+        double[] latencies = sample(BackendProfile.builder()
+                .distribution(LatencyDistribution.BIMODAL).medianMs(10).slowMedianMs(1000)
+                .slowProbability(0.2).sigma(0.1).build(), false);
+
+        long slow = Arrays.stream(latencies).filter(latency -> latency > 100).count();
+        assertThat((double) slow / SAMPLES).isCloseTo(0.2, within(0.02));
+    }
+
+    @Test
+    void spikeAddsItsLatencyOnlyWhileSpiking() {
+        BackendProfile profile = BackendProfile.builder()
+                .distribution(LatencyDistribution.POISSON_SPIKE).medianMs(10).sigma(0).spikeLatencyMs(500).build();
+
+        assertThat(sample(profile, false)).containsOnly(10.0);
+        assertThat(sample(profile, true)).containsOnly(510.0);
+    }
+
+    @Test
+    void latencyIsCappedAtTheProfileMaximum() {
+        double[] latencies = sample(BackendProfile.builder()
+                .distribution(LatencyDistribution.PARETO).scaleMs(10).shape(0.5).maxLatencyMs(1000).build(), false);
+
+        assertThat(Arrays.stream(latencies).max().orElseThrow()).isEqualTo(1000);
+    }
+
+    @Test
+    void arrivalsAverageTheInverseOfTheRate() {
+        SplittableRandom random = new SplittableRandom(7);
+        double mean = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            mean += LatencySampler.nextArrivalMs(4, random) / (double) SAMPLES;
+        }
+
+        // Rounding every gap up adds about half a millisecond to the 250ms mean
+        assertThat(mean).isCloseTo(250.5, within(5.0));
+    }
+
+    private static double[] sample(BackendProfile profile, boolean spiking) {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] latencies = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            latencies[i] = LatencySampler.sample(profile, spiking, random);
+        }
+        return latencies;
+    }
+
+    private static double percentile(double[] values, double percentile) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,142 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.RequestOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservationParserTest {
+
+    private final ObservationParser parser = new ObservationParser(16);
+    private final List<Observation> observations = new ArrayList<>();
+
+    @Test
+    void roundTripsBinaryRecords() {
+        ByteBuffer datagram = binary(
+                record("orders", 25, RequestOutcome.SUCCESS, false),
+                record("payments", 1200, RequestOutcome.TIMEOUT, true));
+
+        assertThat(parse(datagram)).isZero();
+        assertThat(observations).containsExactly(
+                new Observation("orders", 25, RequestOutcome.SUCCESS, false),
+                new Observation("payments", 1200, RequestOutcome.TIMEOUT, true));
+    }
+
+    @Test
+    void parsesLinesWithOptionalUnitOutcomeAndRetry() {
+        ByteBuffer datagram = ascii("orders:25\r\npayments:40|ms|server_error|retry\n\ninventory:7|r");
+
+        assertThat(parse(datagram)).isZero();
+        assertThat(observations).containsExactly(
+                new Observation("orders", 25, RequestOutcome.SUCCESS, false),
+                new Observation("payments", 40, RequestOutcome.SERVER_ERROR, true),
+                new Observation("inventory", 7, RequestOutcome.SUCCESS, true));
+    }
+
+    @Test
+    void skipsMalformedLinesAndKeepsTheRest() {
+        ByteBuffer datagram = ascii("orders:25\n:10\norders:\norders:5|BOGUS\norders:1234567890123\npayments:3\n");
+
+        assertThat(parse(datagram)).isEqualTo(4);
+        assertThat(observations).extracting(Observation::serviceName).containsExactly("orders", "payments");
+    }
+
+    @Test
+    void truncatedBinaryFrameStopsAfterTheLastCompleteRecord() {
+        byte[] second = record("payments", 40, RequestOutcome.SUCCESS, false);
+        ByteBuffer datagram = binary(record("orders", 25, RequestOutcome.SUCCESS, false),
+                Arrays.copyOf(second, second.length - 2));
+
+        assertThat(parse(datagram)).isEqualTo(1);
+        assertThat(observations).containsExactly(new Observation("orders", 25, RequestOutcome.SUCCESS, false));
+    }
+
+    @Test
+    void rejectsAnUnknownBinaryVersion() {
+        ByteBuffer datagram = binary(record("orders", 25, RequestOutcome.SUCCESS, false));
+        datagram.put(1, (byte) (ObservationParser.BINARY_VERSION + 1));
+
+        assertThat(parse(datagram)).isEqualTo(1);
+        assertThat(observations).isEmpty();
+    }
+
+    @Test
+    void rejectsAMissingVersionAndAnOutOfRangeOutcome() {
+        assertThat(parse(ByteBuffer.wrap(new byte[]{ObservationParser.BINARY_MAGIC}))).isEqualTo(1);
+
+        byte[] record = record("orders", 25, RequestOutcome.SUCCESS, false);
+        record[record.length - 2] = (byte) RequestOutcome.values().length;
+        assertThat(parse(binary(record))).isEqualTo(1);
+        assertThat(observations).isEmpty();
+    }
+
+    @Test
+    void withoutTheMagicByteABinaryFrameIsReadAsAMalformedLine() {
+        ByteBuffer datagram = binary(record("orders", 25, RequestOutcome.SUCCESS, false));
+        datagram.put(0, (byte) 0xB6);
+
+        assertThat(parse(datagram)).isEqualTo(1);
+        assertThat(observations).isEmpty();
+    }
+
+    @Test
+    void repeatedNamesResolveToTheSameString() {
+        parse(ascii("orders:1\norders:2\n"));
+        parse(binary(record("orders", 3, RequestOutcome.SUCCESS, false)));
+
+        assertThat(observations).hasSize(3);
+        assertThat(observations.get(1).serviceName()).isSameAs(observations.get(0).serviceName());
+        assertThat(observations.get(2).serviceName()).isSameAs(observations.get(0).serviceName());
+    }
+
+    @Test
+    void fullNameTableIsClearedAndStillResolvesCorrectly() {
+        ObservationParser small = new ObservationParser(2);
+        List<String> names = new ArrayList<>();
+
+        small.parseDatagram(ascii("a:1\nb:1\nc:1\na:1\nb:1\nc:1\n"),
+                (serviceName, latencyMs, outcome, retry) -> names.add(serviceName));
+
+        assertThat(names).containsExactly("a", "b", "c", "a", "b", "c");
+    }
+
+    private int parse(ByteBuffer datagram) {
+        return parser.parseDatagram(datagram, (serviceName, latencyMs, outcome, retry) ->
+                observations.add(new Observation(serviceName, latencyMs, outcome, retry)));
+    }
+
+    private static ByteBuffer ascii(String lines) {
+        return ByteBuffer.wrap(lines.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ByteBuffer binary(byte[]... records) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(ObservationParser.BINARY_MAGIC);
+        out.write(ObservationParser.BINARY_VERSION);
+        for (byte[] record : records) {
+            out.writeBytes(record);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static byte[] record(String serviceName, int latencyMs, RequestOutcome outcome, boolean retry) {
+        byte[] name = serviceName.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + name.length + 6)
+                .put((byte) name.length)
+                .put(name)
+                .putInt(latencyMs)
+                .put((byte) outcome.ordinal())
+                .put(retry ? ObservationParser.FLAG_RETRY : 0)
+                .array();
+    }
+
+    private record Observation(String serviceName, long latencyMs, RequestOutcome outcome, boolean retry) {
+    }
+}
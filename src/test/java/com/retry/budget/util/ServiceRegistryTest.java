@@ -0,0 +1,60 @@
+package com.retry.budget.util;
+
+import com.retry.budget.config.RetryBudgetConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void overflowNamesResolveToTheSameCachedId() {
+        ServiceRegistry registry = registry(1, 10);
+        registry.intern("orders");
+
+        ServiceId first = registry.intern("payments");
+        ServiceId second = registry.intern("payments");
+
+        assertThat(first.isInterned()).isFalse();
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.counter("retry.budget.registry.overflow").count()).isEqualTo(1);
+    }
+
+    @Test
+    void overflowIdsAndSlotsStayWithinTheirBound() {
+        ServiceRegistry registry = registry(1, 3);
+        ServiceSlots<String> slots = registry.newSlots();
+        registry.intern("orders");
+
+        for (int i = 0; i < 100; i++) {
+            ServiceId serviceId = registry.intern("service-" + i);
+            slots.computeIfAbsent(serviceId, ServiceId::name);
+        }
+
+        int[] overflowSlots = new int[1];
+        slots.forEach(registry, (serviceId, value) -> overflowSlots[0]++);
+        assertThat(overflowSlots[0]).isEqualTo(3);
+        assertThat(registry.intern("service-99")).isSameAs(registry.intern("service-99"));
+    }
+
+    @Test
+    void overflowNameIsInternedOnceRoomIsReleased() {
+        ServiceRegistry registry = registry(1, 10);
+        ServiceId orders = registry.intern("orders");
+        assertThat(registry.intern("payments").isInterned()).isFalse();
+
+        registry.release(orders);
+
+        assertThat(registry.intern("payments").isInterned()).isTrue();
+    }
+
+    private ServiceRegistry registry(int maxServices, int maxOverflow) {
+        RetryBudgetConfig config = new RetryBudgetConfig();
+        config.getRegistry().setMaxServices(maxServices);
+        config.getRegistry().setMaxOverflow(maxOverflow);
+        return new ServiceRegistry(meterRegistry, config);
+    }
+}
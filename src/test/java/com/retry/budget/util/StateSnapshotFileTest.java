@@ -0,0 +1,117 @@
+package com.retry.budget.util;
+
+import com.retry.budget.enums.RequestOutcome;
+import com.retry.budget.enums.ServiceHealthStatus;
+import com.retry.budget.model.ForecastState;
+import com.retry.budget.model.RetryBudget;
+import com.retry.budget.model.ServiceMetrics;
+import com.retry.budget.model.ServiceStateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsOutcomeCountsAndForecasts() throws Exception {
+        Path path = directory.resolve("state.snapshot");
+        long[] outcomes = new long[RequestOutcome.count()];
+        outcomes[RequestOutcome.SUCCESS.ordinal()] = 90;
+        outcomes[RequestOutcome.CLIENT_ERROR.ordinal()] = 10;
+        ServiceMetrics metrics = ServiceMetrics.builder()
+                .serviceName("orders")
+                .totalRequests(100)
+                .successfulRequests(90)
+                .failedRequests(10)
+                .outcomeCounts(outcomes)
+                .latencies(List.of(12L, 15L))
+                .build();
+        ForecastState forecast = ForecastState.builder()
+                .serviceName("orders")
+                .p95Level(120.5)
+                .p95TrendPerSecond(2.5)
+                .errorRateLevel(1.5)
+                .errorRateTrendPerSecond(-0.25)
+                .lastUpdateMs(1_700_000_000_000L)
+                .samples(7)
+                .band(4)
+                .build();
+
+        StateSnapshotFile.write(path, 42L, List.of(ServiceStateSnapshot.builder()
+                .serviceName("orders")
+                .metrics(metrics)
+                .forecast(forecast)
+                .build()));
+        StateSnapshotFile.Contents contents = StateSnapshotFile.read(path);
+
+        assertThat(contents.takenAtMillis()).isEqualTo(42L);
+        ServiceStateSnapshot restored = contents.services().get(0);
+        assertThat(restored.getMetrics().getOutcomeCounts()).containsExactly(outcomes);
+        assertThat(restored.getMetrics().getLatencies()).containsExactly(12L, 15L);
+        assertThat(restored.getForecast()).isEqualTo(forecast);
+        assertThat(restored.getBudget()).isNull();
+    }
+
+    @Test
+    void readsVersionOneFiles() throws Exception {
+        Path path = directory.resolve("v1.snapshot");
+        LocalDateTime calculated = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Files.write(path, versionOne("orders", 7, calculated));
+
+        ServiceStateSnapshot restored = StateSnapshotFile.read(path).services().get(0);
+
+        RetryBudget budget = restored.getBudget();
+        assertThat(budget.getServiceName()).isEqualTo("orders");
+        assertThat(budget.getRemainingBudget()).isEqualTo(7);
+        assertThat(budget.getHealthStatus()).isEqualTo(ServiceHealthStatus.DEGRADED);
+        assertThat(budget.getLastCalculated()).isEqualTo(calculated);
+        assertThat(restored.getMetrics()).isNull();
+        assertThat(restored.getForecast()).isNull();
+    }
+
+    @Test
+    void rejectsUnknownVersions() throws Exception {
+        Path path = directory.resolve("future.snapshot");
+        byte[] bytes = versionOne("orders", 7, LocalDateTime.now());
+        ByteBuffer.wrap(bytes).putInt(4, 99);
+        Files.write(path, bytes);
+
+        assertThat(StateSnapshotFile.read(path)).isNull();
+    }
+
+    /**
+     * A version 1 file with a single budget section, laid out by hand
+     */
+    private static byte[] versionOne(String serviceName, int remaining, LocalDateTime calculated) {
+        byte[] name = serviceName.getBytes(StandardCharsets.UTF_8);
+        long calculatedMs = calculated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ByteBuffer buffer = ByteBuffer.allocate(24 + 2 + name.length + 1 + 4 * 3 + 1 + 8 * 5);
+
+        buffer.putInt(0x52425331).putInt(1).putLong(0L).putInt(1).putInt(0);
+        buffer.putShort((short) name.length).put(name).put((byte) 1);
+        buffer.putInt(remaining).putInt(0).putInt(remaining)
+                .put((byte) ServiceHealthStatus.DEGRADED.ordinal())
+                .putDouble(1.0).putDouble(1.0)
+                .putLong(calculatedMs).putLong(calculatedMs + 10_000)
+                .putLong(0L);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 24, buffer.capacity() - 24);
+        buffer.putInt(20, (int) crc.getValue());
+        return buffer.array();
+    }
+}